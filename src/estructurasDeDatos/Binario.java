@@ -0,0 +1,67 @@
+package estructurasDeDatos;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Formato binario de las estructuras compactas:
+ * Proporciona mtodos estticos para escribir arrays de enteros y de bytes en un flujo de salida, y para
+ * leerlos de nuevo desde un buffer (normalmente un fichero proyectado en memoria) con una copia en bloque.
+ * Cada array se guarda como su longitud seguida de sus elementos, en orden big-endian.
+ */
+public final class Binario {
+
+	/**
+	 * Constructora privada: la clase no se instancia
+	 */
+	private Binario() {}
+
+
+	/**
+	 * Escribe un array de enteros precedido de su longitud.
+	 * @param salida - flujo en el que escribir
+	 * @param array - array a escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static void escribirArray( final DataOutputStream salida, final int[] array ) throws IOException {
+		salida.writeInt(array.length);
+		for( int i = 0; i < array.length; ++i )
+			salida.writeInt(array[i]);
+	}
+
+	/**
+	 * Escribe un array de bytes precedido de su longitud.
+	 * @param salida - flujo en el que escribir
+	 * @param array - array a escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static void escribirArray( final DataOutputStream salida, final byte[] array ) throws IOException {
+		salida.writeInt(array.length);
+		salida.write(array);
+	}
+
+	/**
+	 * Lee un array de enteros escrito con escribirArray y avanza la posicin del buffer.
+	 * @param entrada - buffer desde el que leer
+	 * @return el array ledo
+	 */
+	public static int[] leerArrayEnteros( final ByteBuffer entrada ) {
+		int[] array = new int[entrada.getInt()];
+		entrada.asIntBuffer().get(array);
+		entrada.position(entrada.position() + 4 * array.length);
+		return array;
+	}
+
+	/**
+	 * Lee un array de bytes escrito con escribirArray y avanza la posicin del buffer.
+	 * @param entrada - buffer desde el que leer
+	 * @return el array ledo
+	 */
+	public static byte[] leerArrayBytes( final ByteBuffer entrada ) {
+		byte[] array = new byte[entrada.getInt()];
+		entrada.get(array);
+		return array;
+	}
+
+}
@@ -0,0 +1,38 @@
+package estructurasDeDatos;
+
+/**
+ * Interfaz de diccionario de Strings:
+ * Operaciones para codificar/descodificar Strings con enteros, y recorrerlos en orden lexicogrfico.
+ */
+public interface Diccionario {
+
+	/**
+	 * Devuelve el nmero de Strings insertados en el diccionario.
+	 * @return el nmero de elementos insertados
+	 */
+	public int size();
+
+	/**
+	 * Devuelve el valor numrico correspondiente a un String, o -1 si el String no existe en el diccionario.
+	 * Acepta cualquier secuencia de caracteres, para poder buscar sin crear un String.
+	 * @param s - String a codificar
+	 * @return el entero asignado al string s
+	 */
+	public int obtenerValor( final CharSequence s );
+
+	/**
+	 * Inserta el String s en el diccionario, asignndole el entero valor.
+	 * Si ya se encontraba en el diccionario, devuelve su entero correspondiente sin modificarlo.
+	 * @param s - String a insertar
+	 * @param valor - Entero que se le asignar
+	 * @return el valor correspondiente al String s
+	 */
+	public int insertar( final String s, final int valor );
+
+	/**
+	 * Devuelve una lista con los enteros acorde al orden lexicogrfico de sus correspondientes strings.
+	 * @return un array de enteros segn el orden de los strings que representan
+	 */
+	public ListaEnteros recorrerEnProfundidad();
+
+}
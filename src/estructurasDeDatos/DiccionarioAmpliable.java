@@ -0,0 +1,129 @@
+package estructurasDeDatos;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * Estructura de diccionario compacto ampliable:
+ * Vista de un DiccionarioCompacto a la que se pueden aadir Strings sin reconstruirlo. Los nuevos toman los enteros
+ * siguientes a los del original, en el orden en que se aaden, y se guardan aparte en un Trie hasta que se
+ * compacta el diccionario. El diccionario original no se modifica.
+ * El orden lexicogrfico (valorEnPosicion y posicionDeValor) solo abarca los Strings del original: quien lo
+ * necesite debe compactar antes el diccionario.
+ */
+public class DiccionarioAmpliable extends DiccionarioCompacto {
+
+	private final static Charset utf8 = Charset.forName("UTF-8");
+
+	// Nmero de Strings del diccionario original: los enteros mayores son de los nuevos
+	private final int numOriginales;
+	// Strings nuevos: ndice (String -> entero) y String de cada entero, a partir de numOriginales
+	private final Trie indiceNuevos = new Trie();
+	private final ListaArray<String> nuevos = new ListaArray<String>();
+	// Longitud en bytes del String codificado ms largo, contando los nuevos
+	private int longitudMaxima;
+
+
+	/**
+	 * Constructora
+	 * Crea una vista sin Strings nuevos de un diccionario, que comparte sus datos.
+	 * @param original - diccionario de partida
+	 */
+	public DiccionarioAmpliable(final DiccionarioCompacto original) {
+		super(original);
+		numOriginales = original.size();
+		longitudMaxima = original.longitudMaxima();
+	}
+
+	/**
+	 * Devuelve el entero de un String, aadindolo al diccionario si no estaba.
+	 * @param s - String a codificar
+	 * @return el entero asignado al string s
+	 */
+	public int insertar(final String s) {
+		int valor = obtenerValor(s);
+		if( valor == -1 ) {
+			valor = indiceNuevos.insertar(s, numOriginales + nuevos.size());
+			nuevos.insertLast(s);
+			longitudMaxima = Math.max(longitudMaxima, s.getBytes(utf8).length);
+		}
+		return valor;
+	}
+
+	/**
+	 * Devuelve un DiccionarioCompacto con los Strings del original y los nuevos, con los mismos enteros.
+	 * @return el diccionario ampliado
+	 */
+	public DiccionarioCompacto compactar() {
+		return super.ampliar(nuevos);
+	}
+
+	/**
+	 * Devuelve un diccionario con los Strings de este (tambin los nuevos) y otros ms, como DiccionarioCompacto.ampliar.
+	 * @param otros - Strings que no estn en el diccionario, sin repeticiones
+	 * @return el diccionario ampliado
+	 */
+	@Override
+	public DiccionarioCompacto ampliar(final ListaArray<String> otros) {
+		ListaArray<String> todos = new ListaArray<String>(Math.max(nuevos.size() + otros.size(), 1));
+		for( int i = 0; i < nuevos.size(); ++i )
+			todos.insertLast(nuevos.get(i));
+		for( int i = 0; i < otros.size(); ++i )
+			todos.insertLast(otros.get(i));
+		return super.ampliar(todos);
+	}
+
+	/**
+	 * Escribe en formato binario el diccionario con los Strings nuevos (el de compactar).
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	@Override
+	public void guardar(final DataOutputStream salida) throws IOException {
+		compactar().guardar(salida);
+	}
+
+	@Override
+	public int size() {
+		return numOriginales + nuevos.size();
+	}
+
+	@Override
+	public int obtenerValor(final String s) {
+		int valor = super.obtenerValor(s);
+		return (valor != -1) ? valor : indiceNuevos.obtenerValor(s);
+	}
+
+	@Override
+	public void anadir(final int valor, final StringBuilder destino) {
+		if( valor < numOriginales )
+			super.anadir(valor, destino);
+		else
+			destino.append(nuevos.get(valor - numOriginales));
+	}
+
+	@Override
+	public int copiar(final int valor, final byte[] destino, final int posicion) {
+		if( valor < numOriginales )
+			return super.copiar(valor, destino, posicion);
+		byte[] bytes = nuevos.get(valor - numOriginales).getBytes(utf8);
+		System.arraycopy(bytes, 0, destino, posicion, bytes.length);
+		return posicion + bytes.length;
+	}
+
+	@Override
+	public int longitudMaxima() {
+		return longitudMaxima;
+	}
+
+	@Override
+	public int[] longitudes() {
+		int[] originales = super.longitudes(), longitudes = new int[size()];
+		System.arraycopy(originales, 0, longitudes, 0, numOriginales);
+		for( int i = 0; i < nuevos.size(); ++i )
+			longitudes[numOriginales + i] = nuevos.get(i).getBytes(utf8).length;
+		return longitudes;
+	}
+
+}
@@ -0,0 +1,438 @@
+package estructurasDeDatos;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Estructura de diccionario compacto de Strings, con codificacin por prefijos (front coding):
+ * Relaciona cada String con su entero y cada entero con su String, guardando todos los Strings una sola vez.
+ * Los Strings se almacenan en UTF-8, en orden lexicogrfico y en bloques de tamBloque: el primero de cada
+ * bloque se guarda completo y los dems como (longitud del prefijo comn con el primero, resto del String).
+ * Al estar ordenado, la posicin de cada String en el diccionario es su rango lexicogrfico.
+ * Una vez construido, el diccionario no se modifica (DiccionarioAmpliable permite aadirle Strings sin reconstruirlo).
+ */
+public class DiccionarioCompacto {
+
+	// Constantes del diccionario
+	private final static int tamBloque = 16;
+	private final static Charset utf8 = Charset.forName("UTF-8");
+
+	// Atributos para representar el TAD
+	private final int numElementos;
+	// Strings codificados y posicin en la que empieza cada bloque
+	private byte[] datos;
+	private final int[] inicioBloque;
+	// Orden lexicogrfico: entero que ocupa cada posicin, y posicin que ocupa cada entero
+	private final int[] valorEnPosicion, posicionDeValor;
+	// Longitud en bytes del String codificado ms largo
+	private final int longitudMaxima;
+
+
+	/**
+	 * Constructora
+	 * Construye el diccionario a partir de los Strings y de su orden lexicogrfico.
+	 * @param strings - String correspondiente a cada entero, de 0 a strings.size()-1
+	 * @param orden - enteros segn el orden lexicogrfico de sus Strings (como los devuelve Trie.recorrerEnProfundidad)
+	 */
+	public DiccionarioCompacto(final ListaArray<String> strings, final ListaEnteros orden) {
+		numElementos = strings.size();
+		valorEnPosicion = new int[numElementos];
+		posicionDeValor = new int[numElementos];
+		inicioBloque = new int[(numElementos + tamBloque - 1) / tamBloque + 1];
+		datos = new byte[Math.max(numElementos * 16, 16)];
+		int longitud = 0, prefijo, valor;
+		byte[] cabecera = null, actual;
+		for( int p = 0; p < numElementos; ++p ) {
+			valor = orden.get(p);
+			valorEnPosicion[p] = valor;
+			posicionDeValor[valor] = p;
+			actual = strings.get(valor).getBytes(utf8);
+			if( p % tamBloque == 0 ) {
+				inicioBloque[p / tamBloque] = longitud;
+				cabecera = actual;
+				prefijo = 0;
+			} else {
+				prefijo = prefijoComun(cabecera, actual);
+			}
+			// Entrada: prefijo comn, longitud del resto y bytes del resto
+			asegurarCapacidad(longitud + 10 + actual.length - prefijo);
+			longitud = escribirVarInt(prefijo, longitud);
+			longitud = escribirVarInt(actual.length - prefijo, longitud);
+			System.arraycopy(actual, prefijo, datos, longitud, actual.length - prefijo);
+			longitud += actual.length - prefijo;
+		}
+		inicioBloque[inicioBloque.length - 1] = longitud;
+		// Recortar el array de datos al tamao usado
+		byte[] recortado = new byte[longitud];
+		System.arraycopy(datos, 0, recortado, 0, longitud);
+		datos = recortado;
+		longitudMaxima = calcularLongitudMaxima();
+	}
+
+	/**
+	 * Constructora
+	 * Reconstruye el diccionario leyendo desde el buffer los datos escritos por guardar.
+	 * @param entrada - buffer desde el que leer, situado al inicio del diccionario
+	 */
+	public DiccionarioCompacto(final ByteBuffer entrada) {
+		datos = Binario.leerArrayBytes(entrada);
+		inicioBloque = Binario.leerArrayEnteros(entrada);
+		valorEnPosicion = Binario.leerArrayEnteros(entrada);
+		posicionDeValor = Binario.leerArrayEnteros(entrada);
+		numElementos = valorEnPosicion.length;
+		longitudMaxima = calcularLongitudMaxima();
+	}
+
+	/**
+	 * Constructora
+	 * Crea un diccionario que comparte los datos de otro, para las subclases que lo amplan.
+	 * @param otro - diccionario cuyos datos se comparten
+	 */
+	protected DiccionarioCompacto(final DiccionarioCompacto otro) {
+		numElementos = otro.numElementos;
+		datos = otro.datos;
+		inicioBloque = otro.inicioBloque;
+		valorEnPosicion = otro.valorEnPosicion;
+		posicionDeValor = otro.posicionDeValor;
+		longitudMaxima = otro.longitudMaxima;
+	}
+
+	/**
+	 * Devuelve un diccionario con los Strings de este y otros nuevos, que toman los enteros siguientes a los
+	 * de este en el orden en que se dan. Los enteros de los Strings que ya estaban no cambian.
+	 * Los nuevos se ordenan entre s y se mezclan con el orden lexicogrfico de este, sin reordenarlo.
+	 * El diccionario actual no se modifica.
+	 * @param nuevos - Strings que no estn en el diccionario, sin repeticiones
+	 * @return el diccionario ampliado
+	 */
+	public DiccionarioCompacto ampliar(final ListaArray<String> nuevos) {
+		final int total = numElementos + nuevos.size();
+		ListaArray<String> strings = new ListaArray<String>(Math.max(total, 1));
+		for( int v = 0; v < numElementos; ++v )
+			strings.insertLast(obtenerString(v));
+		for( int i = 0; i < nuevos.size(); ++i )
+			strings.insertLast(nuevos.get(i));
+		// Mezcla del orden actual con el de los nuevos
+		int[] ordenNuevos = nuevos.ordenarIndices();
+		ListaEnteros orden = new ListaEnteros(total);
+		int p = 0, i = 0;
+		while( p < numElementos || i < ordenNuevos.length ) {
+			if( i == ordenNuevos.length || (p < numElementos
+					&& strings.get(valorEnPosicion[p]).compareTo(nuevos.get(ordenNuevos[i])) < 0) )
+				orden.insertLast(valorEnPosicion[p++]);
+			else
+				orden.insertLast(numElementos + ordenNuevos[i++]);
+		}
+		return new DiccionarioCompacto(strings, orden);
+	}
+
+	/**
+	 * Escribe el diccionario en formato binario, tal y como est en memoria.
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void guardar(final DataOutputStream salida) throws IOException {
+		Binario.escribirArray(salida, datos);
+		Binario.escribirArray(salida, inicioBloque);
+		Binario.escribirArray(salida, valorEnPosicion);
+		Binario.escribirArray(salida, posicionDeValor);
+	}
+
+	/**
+	 * Devuelve el nmero de Strings del diccionario.
+	 * @return el nmero de elementos
+	 */
+	public int size() {
+		return numElementos;
+	}
+
+	/**
+	 * Devuelve el entero que ocupa la posicin indicada segn el orden lexicogrfico de los Strings.
+	 * @param posicion - posicin en orden lexicogrfico, empezando a contar desde cero
+	 * @return el entero correspondiente
+	 */
+	public int valorEnPosicion(final int posicion) {
+		return valorEnPosicion[posicion];
+	}
+
+	/**
+	 * Devuelve la posicin del String de un entero segn el orden lexicogrfico (su rango).
+	 * @param valor - entero del diccionario
+	 * @return la posicin de su String en orden lexicogrfico
+	 */
+	public int posicionDeValor(final int valor) {
+		return posicionDeValor[valor];
+	}
+
+	/**
+	 * Devuelve el valor numrico correspondiente a un String, o -1 si el String no existe en el diccionario.
+	 * @param s - String a codificar
+	 * @return el entero asignado al string s
+	 */
+	public int obtenerValor(final String s) {
+		if( numElementos == 0 )
+			return -1;
+		byte[] clave = s.getBytes(utf8);
+		// Bsqueda binaria del ltimo bloque cuya cabecera es menor o igual que la clave
+		int menor = 0, mayor = inicioBloque.length - 2, mitad, bloque = -1, comp;
+		while( menor <= mayor ) {
+			mitad = (menor+mayor) >>> 1;
+			comp = compararConCabecera(clave, mitad);
+			if( comp == 0 )
+				return valorEnPosicion[mitad * tamBloque];
+			else if( comp > 0 ) {
+				bloque = mitad;
+				menor = mitad + 1;
+			} else
+				mayor = mitad - 1;
+		}
+		if( bloque == -1 )
+			return -1;
+		// Bsqueda secuencial dentro del bloque (la cabecera no tiene prefijo: su primer byte es 0)
+		long lectura = leerVarInt(inicioBloque[bloque] + 1);
+		int cabecera = (int) lectura, posicion = cabecera + (int) (lectura >>> 32), prefijo, resto;
+		for( int p = bloque * tamBloque + 1; p < Math.min((bloque + 1) * tamBloque, numElementos); ++p ) {
+			lectura = leerVarInt(posicion);
+			prefijo = (int) (lectura >>> 32);
+			lectura = leerVarInt((int) lectura);
+			resto = (int) (lectura >>> 32);
+			posicion = (int) lectura;
+			if( prefijo + resto == clave.length && iguales(clave, 0, datos, cabecera, prefijo)
+					&& iguales(clave, prefijo, datos, posicion, resto) )
+				return valorEnPosicion[p];
+			posicion += resto;
+		}
+		return -1;
+	}
+
+	/**
+	 * Devuelve el String correspondiente a un entero del diccionario.
+	 * @param valor - entero a descodificar
+	 * @return el String asignado al entero
+	 */
+	public String obtenerString(final int valor) {
+		StringBuilder sb = new StringBuilder(64);
+		anadir(valor, sb);
+		return sb.toString();
+	}
+
+	/**
+	 * Aade al final del StringBuilder el String correspondiente a un entero del diccionario,
+	 * sin crear Strings intermedios.
+	 * @param valor - entero a descodificar
+	 * @param destino - StringBuilder en el que escribir
+	 */
+	public void anadir(final int valor, final StringBuilder destino) {
+		int posicion = posicionDeValor[valor];
+		long lectura = leerVarInt(buscarEntrada(posicion));
+		int prefijo = (int) (lectura >>> 32);
+		lectura = leerVarInt((int) lectura);
+		descodificar(cabecera(posicion / tamBloque), prefijo, destino);
+		descodificar((int) lectura, (int) (lectura >>> 32), destino);
+	}
+
+	/**
+	 * Copia en el array los bytes UTF-8 del String correspondiente a un entero del diccionario, tal y como
+	 * estn guardados, sin descodificarlos ni crear objetos intermedios.
+	 * El array debe tener sitio para longitudMaxima() bytes a partir de la posicin indicada.
+	 * @param valor - entero cuyo String se copia
+	 * @param destino - array en el que escribir
+	 * @param posicion - posicin del array en la que empezar a escribir
+	 * @return la posicin del array siguiente al ltimo byte escrito
+	 */
+	public int copiar(final int valor, final byte[] destino, int posicion) {
+		int p = posicionDeValor[valor];
+		long lectura = leerVarInt(buscarEntrada(p));
+		int prefijo = (int) (lectura >>> 32);
+		lectura = leerVarInt((int) lectura);
+		int resto = (int) (lectura >>> 32);
+		System.arraycopy(datos, cabecera(p / tamBloque), destino, posicion, prefijo);
+		System.arraycopy(datos, (int) lectura, destino, posicion + prefijo, resto);
+		return posicion + prefijo + resto;
+	}
+
+	/**
+	 * Devuelve la longitud en bytes (en UTF-8) del String ms largo del diccionario.
+	 * @return la longitud mxima de los Strings codificados
+	 */
+	public int longitudMaxima() {
+		return longitudMaxima;
+	}
+
+	/**
+	 * Devuelve la longitud en bytes (en UTF-8) del String de cada entero, recorriendo los datos una sola vez.
+	 * @return un array con la longitud del String de cada entero, de 0 a size()-1
+	 */
+	public int[] longitudes() {
+		int[] longitudes = new int[numElementos];
+		int entrada = 0, prefijo;
+		long lectura;
+		for( int p = 0; p < numElementos; ++p ) {
+			lectura = leerVarInt(entrada);
+			prefijo = (int) (lectura >>> 32);
+			lectura = leerVarInt((int) lectura);
+			longitudes[valorEnPosicion[p]] = prefijo + (int) (lectura >>> 32);
+			entrada = (int) lectura + (int) (lectura >>> 32);
+		}
+		return longitudes;
+	}
+
+	/**
+	 * Devuelve el nmero de bytes que ocupan los Strings codificados.
+	 * @return el tamao de los datos codificados
+	 */
+	public int bytesCodificados() {
+		return datos.length;
+	}
+
+
+	// Posicin en datos de la entrada (prefijo, longitud del resto, resto) del String en la posicin p
+	// La cabecera del bloque es su primera entrada, con prefijo 0
+	private int buscarEntrada(final int p) {
+		int entrada = inicioBloque[p / tamBloque];
+		long lectura;
+		for( int q = p - p % tamBloque; q < p; ++q ) {
+			lectura = leerVarInt((int) leerVarInt(entrada));
+			entrada = (int) lectura + (int) (lectura >>> 32);
+		}
+		return entrada;
+	}
+
+	// Posicin en datos de los bytes de la cabecera de un bloque
+	private int cabecera(final int bloque) {
+		return (int) leerVarInt(inicioBloque[bloque] + 1);
+	}
+
+	// Recorre todas las entradas y devuelve la longitud del String ms largo
+	private int calcularLongitudMaxima() {
+		int maxima = 0, entrada = 0, prefijo;
+		long lectura;
+		for( int p = 0; p < numElementos; ++p ) {
+			lectura = leerVarInt(entrada);
+			prefijo = (int) (lectura >>> 32);
+			lectura = leerVarInt((int) lectura);
+			maxima = Math.max(maxima, prefijo + (int) (lectura >>> 32));
+			entrada = (int) lectura + (int) (lectura >>> 32);
+		}
+		return maxima;
+	}
+
+	// Longitud en bytes del prefijo comn de a y b, sin partir ningn carcter UTF-8
+	private static int prefijoComun(final byte[] a, final byte[] b) {
+		int i = 0, max = Math.min(a.length, b.length);
+		while( i < max && a[i] == b[i] )
+			i++;
+		// Retroceder si se ha cortado un carcter multibyte (los bytes de continuacin son 10xxxxxx)
+		while( i > 0 && i < b.length && (b[i] & 0xC0) == 0x80 )
+			i--;
+		return i;
+	}
+
+	// Compara la clave con la cabecera del bloque, segn el orden de String.compareTo
+	private int compararConCabecera(final byte[] clave, final int bloque) {
+		long lectura = leerVarInt(inicioBloque[bloque] + 1);
+		int cabecera = (int) lectura;
+		return compararUtf8(clave, 0, clave.length, datos, cabecera, cabecera + (int) (lectura >>> 32));
+	}
+
+	/**
+	 * Compara dos Strings codificados en UTF-8 siguiendo el orden de String.compareTo (por unidades UTF-16).
+	 * Coincide con el orden de los bytes salvo entre caracteres suplementarios y los de U+E000 a U+FFFF.
+	 * @return un nmero negativo, cero o positivo si a es menor, igual o mayor que b
+	 */
+	static int compararUtf8(final byte[] a, int i, final int finA, final byte[] b, int j, final int finB) {
+		final int inicioA = i;
+		while( i < finA && j < finB && a[i] == b[j] ) {
+			i++;
+			j++;
+		}
+		if( i == finA || j == finB )
+			return (finA - i) - (finB - j);
+		// Retroceder al inicio del carcter en el que difieren y comparar su primera unidad UTF-16
+		while( i > inicioA && (a[i] & 0xC0) == 0x80 ) {
+			i--;
+			j--;
+		}
+		int ca = primeraUnidadUtf16(a, i, finA), cb = primeraUnidadUtf16(b, j, finB);
+		if( ca != cb )
+			return ca - cb;
+		return puntoCodigo(a, i, finA) - puntoCodigo(b, j, finB);
+	}
+
+	// Primera unidad UTF-16 del carcter que empieza en bytes[i] (el sustituto alto si es suplementario)
+	private static int primeraUnidadUtf16(final byte[] bytes, final int i, final int fin) {
+		int c = puntoCodigo(bytes, i, fin);
+		return (c >= 0x10000) ? 0xD800 + ((c - 0x10000) >>> 10) : c;
+	}
+
+	// Descodifica el punto de cdigo UTF-8 que empieza en bytes[i]
+	private static int puntoCodigo(final byte[] bytes, final int i, final int fin) {
+		int b = bytes[i] & 0xFF;
+		if( b < 0x80 || i + 1 >= fin )
+			return b;
+		if( b < 0xE0 )
+			return ((b & 0x1F) << 6) | (bytes[i+1] & 0x3F);
+		if( b < 0xF0 || i + 3 >= fin )
+			return (i + 2 < fin) ? ((b & 0x0F) << 12) | ((bytes[i+1] & 0x3F) << 6) | (bytes[i+2] & 0x3F) : b;
+		return ((b & 0x07) << 18) | ((bytes[i+1] & 0x3F) << 12) | ((bytes[i+2] & 0x3F) << 6) | (bytes[i+3] & 0x3F);
+	}
+
+	// Comprueba si a[i..i+n) y b[j..j+n) son iguales
+	private static boolean iguales(final byte[] a, final int i, final byte[] b, final int j, final int n) {
+		for( int k = 0; k < n; ++k )
+			if( a[i+k] != b[j+k] )
+				return false;
+		return true;
+	}
+
+	// Aade al StringBuilder los caracteres codificados en datos[desde..desde+n)
+	private void descodificar(int desde, final int n, final StringBuilder destino) {
+		final int fin = desde + n;
+		int b, c;
+		while( desde < fin ) {
+			b = datos[desde] & 0xFF;
+			if( b < 0x80 ) {
+				destino.append((char) b);
+				desde++;
+			} else {
+				c = puntoCodigo(datos, desde, fin);
+				destino.appendCodePoint(c);
+				desde += (b < 0xE0) ? 2 : (b < 0xF0) ? 3 : 4;
+			}
+		}
+	}
+
+	// Escribe un entero no negativo con longitud variable (7 bits por byte) y devuelve la nueva longitud
+	private int escribirVarInt(int valor, int posicion) {
+		while( valor >= 0x80 ) {
+			datos[posicion++] = (byte) ((valor & 0x7F) | 0x80);
+			valor >>>= 7;
+		}
+		datos[posicion++] = (byte) valor;
+		return posicion;
+	}
+
+	// Lee un entero de longitud variable que empieza en datos[posicion]
+	// Devuelve el valor en los 32 bits altos y la posicin siguiente en los 32 bits bajos
+	private long leerVarInt(int posicion) {
+		int valor = 0, desplazamiento = 0, b;
+		do {
+			b = datos[posicion++];
+			valor |= (b & 0x7F) << desplazamiento;
+			desplazamiento += 7;
+		} while( (b & 0x80) != 0 );
+		return ((long) valor << 32) | posicion;
+	}
+
+	// Incrementa la capacidad del array de datos si no caben n bytes
+	private void asegurarCapacidad(final int n) {
+		if( n > datos.length ) {
+			byte[] nuevosDatos = new byte[Math.max(n, datos.length * 2)];
+			System.arraycopy(datos, 0, nuevosDatos, 0, datos.length);
+			datos = nuevosDatos;
+		}
+	}
+
+}
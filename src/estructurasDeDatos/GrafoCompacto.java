@@ -0,0 +1,522 @@
+package estructurasDeDatos;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Estructura de grafo dirigido y etiquetado en formato compacto por filas (CSR):
+ * Las aristas de cada nodo ocupan un rango contiguo de arrays paralelos de enteros, en ambos sentidos.
+ * Cada arista guarda el nodo ligado, su peso (la propiedad) y el nmero de veces que aparece repetida.
+ * Adems, las aristas de cada nodo se agrupan por propiedad, con un directorio de grupos por nodo, de
+ * forma que recorrer las aristas de un nico peso no requiere examinar las dems.
+ * Una vez construido, el grafo no se modifica (GrafoModificable permite cambiarlo sin reconstruirlo).
+ */
+public class GrafoCompacto {
+
+	// Nmero de nodos y de aristas distintas del grafo
+	private final int numNodos, numAristas;
+	// Aristas salientes: las del nodo v ocupan las posiciones inicioSalientes[v] .. inicioSalientes[v+1]-1
+	private final int[] inicioSalientes, destinoSalientes, propiedadSalientes, repeticionesSalientes;
+	// Aristas entrantes: las del nodo v ocupan las posiciones inicioEntrantes[v] .. inicioEntrantes[v+1]-1
+	private final int[] inicioEntrantes, origenEntrantes, propiedadEntrantes, repeticionesEntrantes;
+	// Directorio de grupos por propiedad: los grupos del nodo v son directorio[v] .. directorio[v+1]-1,
+	// ordenados por propiedad; las aristas del grupo g son agrupadas[inicioGrupo[g]] .. agrupadas[inicioGrupo[g+1]-1]
+	private final int[] directorioSalientes, propiedadGrupoSalientes, inicioGrupoSalientes, agrupadasSalientes;
+	private final int[] directorioEntrantes, propiedadGrupoEntrantes, inicioGrupoEntrantes, agrupadasEntrantes;
+
+
+	/**
+	 * Constructora
+	 * Construye el grafo a partir de sus aristas. Las aristas de cada nodo conservan el orden relativo en
+	 * el que se dan: las salientes segn su posicin, y las entrantes segn el orden de las salientes.
+	 * Dentro de cada grupo por propiedad se mantiene ese mismo orden.
+	 * @param nodos - nmero de nodos del grafo
+	 * @param aristas - nmero de aristas del grafo
+	 * @param origen - nodo origen de cada arista
+	 * @param propiedad - peso de cada arista
+	 * @param destino - nodo destino de cada arista
+	 * @param repeticiones - nmero de repeticiones de cada arista
+	 */
+	public GrafoCompacto(final int nodos, final int aristas, final int[] origen, final int[] propiedad,
+			final int[] destino, final int[] repeticiones) {
+		numNodos = nodos;
+		numAristas = aristas;
+		inicioSalientes = new int[numNodos+1];
+		destinoSalientes = new int[numAristas];
+		propiedadSalientes = new int[numAristas];
+		repeticionesSalientes = new int[numAristas];
+		inicioEntrantes = new int[numNodos+1];
+		origenEntrantes = new int[numAristas];
+		propiedadEntrantes = new int[numAristas];
+		repeticionesEntrantes = new int[numAristas];
+		
+		// Ordenacin por cuentas (estable) de las aristas segn su origen
+		int[] posicion = contarPorNodo(origen, inicioSalientes);
+		int p;
+		for( int i = 0; i < numAristas; ++i ) {
+			p = posicion[origen[i]]++;
+			destinoSalientes[p] = destino[i];
+			propiedadSalientes[p] = propiedad[i];
+			repeticionesSalientes[p] = repeticiones[i];
+		}
+		
+		// Las entrantes se obtienen recorriendo las salientes, tambin con ordenacin por cuentas
+		posicion = contarPorNodo(destinoSalientes, inicioEntrantes);
+		for( int v = 0; v < numNodos; ++v ) {
+			for( int i = inicioSalientes[v]; i < inicioSalientes[v+1]; ++i ) {
+				p = posicion[destinoSalientes[i]]++;
+				origenEntrantes[p] = v;
+				propiedadEntrantes[p] = propiedadSalientes[i];
+				repeticionesEntrantes[p] = repeticionesSalientes[i];
+			}
+		}
+		
+		// Agrupar por propiedad las aristas de cada nodo, en ambos sentidos
+		int numPropiedades = 0;
+		for( int i = 0; i < numAristas; ++i )
+			numPropiedades = Math.max(numPropiedades, propiedad[i] + 1);
+		int[][] grupos = agruparPorPropiedad(inicioSalientes, propiedadSalientes, numPropiedades);
+		directorioSalientes = grupos[0];
+		propiedadGrupoSalientes = grupos[1];
+		inicioGrupoSalientes = grupos[2];
+		agrupadasSalientes = grupos[3];
+		grupos = agruparPorPropiedad(inicioEntrantes, propiedadEntrantes, numPropiedades);
+		directorioEntrantes = grupos[0];
+		propiedadGrupoEntrantes = grupos[1];
+		inicioGrupoEntrantes = grupos[2];
+		agrupadasEntrantes = grupos[3];
+	}
+	
+	/**
+	 * Constructora
+	 * Reconstruye el grafo leyendo desde el buffer los arrays escritos por guardar, sin volver a ordenar ni agrupar.
+	 * @param entrada - buffer desde el que leer, situado al inicio del grafo
+	 */
+	public GrafoCompacto(final ByteBuffer entrada) {
+		inicioSalientes = Binario.leerArrayEnteros(entrada);
+		destinoSalientes = Binario.leerArrayEnteros(entrada);
+		propiedadSalientes = Binario.leerArrayEnteros(entrada);
+		repeticionesSalientes = Binario.leerArrayEnteros(entrada);
+		inicioEntrantes = Binario.leerArrayEnteros(entrada);
+		origenEntrantes = Binario.leerArrayEnteros(entrada);
+		propiedadEntrantes = Binario.leerArrayEnteros(entrada);
+		repeticionesEntrantes = Binario.leerArrayEnteros(entrada);
+		directorioSalientes = Binario.leerArrayEnteros(entrada);
+		propiedadGrupoSalientes = Binario.leerArrayEnteros(entrada);
+		inicioGrupoSalientes = Binario.leerArrayEnteros(entrada);
+		agrupadasSalientes = Binario.leerArrayEnteros(entrada);
+		directorioEntrantes = Binario.leerArrayEnteros(entrada);
+		propiedadGrupoEntrantes = Binario.leerArrayEnteros(entrada);
+		inicioGrupoEntrantes = Binario.leerArrayEnteros(entrada);
+		agrupadasEntrantes = Binario.leerArrayEnteros(entrada);
+		numNodos = inicioSalientes.length - 1;
+		numAristas = destinoSalientes.length;
+	}
+	
+	/**
+	 * Constructora
+	 * Crea un grafo que comparte los arrays de otro, para las subclases que lo amplan.
+	 * @param otro - grafo cuyos arrays se comparten
+	 */
+	protected GrafoCompacto(final GrafoCompacto otro) {
+		numNodos = otro.numNodos;
+		numAristas = otro.numAristas;
+		inicioSalientes = otro.inicioSalientes;
+		destinoSalientes = otro.destinoSalientes;
+		propiedadSalientes = otro.propiedadSalientes;
+		repeticionesSalientes = otro.repeticionesSalientes;
+		inicioEntrantes = otro.inicioEntrantes;
+		origenEntrantes = otro.origenEntrantes;
+		propiedadEntrantes = otro.propiedadEntrantes;
+		repeticionesEntrantes = otro.repeticionesEntrantes;
+		directorioSalientes = otro.directorioSalientes;
+		propiedadGrupoSalientes = otro.propiedadGrupoSalientes;
+		inicioGrupoSalientes = otro.inicioGrupoSalientes;
+		agrupadasSalientes = otro.agrupadasSalientes;
+		directorioEntrantes = otro.directorioEntrantes;
+		propiedadGrupoEntrantes = otro.propiedadGrupoEntrantes;
+		inicioGrupoEntrantes = otro.inicioGrupoEntrantes;
+		agrupadasEntrantes = otro.agrupadasEntrantes;
+	}
+	
+	/**
+	 * Escribe el grafo en formato binario, tal y como est en memoria.
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void guardar(final DataOutputStream salida) throws IOException {
+		Binario.escribirArray(salida, inicioSalientes);
+		Binario.escribirArray(salida, destinoSalientes);
+		Binario.escribirArray(salida, propiedadSalientes);
+		Binario.escribirArray(salida, repeticionesSalientes);
+		Binario.escribirArray(salida, inicioEntrantes);
+		Binario.escribirArray(salida, origenEntrantes);
+		Binario.escribirArray(salida, propiedadEntrantes);
+		Binario.escribirArray(salida, repeticionesEntrantes);
+		Binario.escribirArray(salida, directorioSalientes);
+		Binario.escribirArray(salida, propiedadGrupoSalientes);
+		Binario.escribirArray(salida, inicioGrupoSalientes);
+		Binario.escribirArray(salida, agrupadasSalientes);
+		Binario.escribirArray(salida, directorioEntrantes);
+		Binario.escribirArray(salida, propiedadGrupoEntrantes);
+		Binario.escribirArray(salida, inicioGrupoEntrantes);
+		Binario.escribirArray(salida, agrupadasEntrantes);
+	}
+	
+	/**
+	 * Devuelve el nmero de nodos del grafo.
+	 * @return el nmero de nodos
+	 */
+	public int numNodos() {
+		return numNodos;
+	}
+	
+	/**
+	 * Devuelve el nmero de aristas distintas del grafo.
+	 * @return el nmero de aristas, sin contar sus repeticiones
+	 */
+	public int numAristas() {
+		return numAristas;
+	}
+	
+	/**
+	 * Devuelve el nmero de grupos de aristas salientes o entrantes de todos los nodos.
+	 * @param salientes - true para los de las salientes, false para los de las entrantes
+	 * @return el nmero de grupos
+	 */
+	public int numGrupos(final boolean salientes) {
+		return (salientes ? propiedadGrupoSalientes : propiedadGrupoEntrantes).length;
+	}
+	
+	/**
+	 * Devuelve las repeticiones de la arista (origen, propiedad, destino). Se busca con una bsqueda binaria
+	 * en el grupo de aristas entrantes del destino con esa propiedad, que estn ordenadas por origen.
+	 * @param origen - nodo origen de la arista
+	 * @param propiedad - peso de la arista
+	 * @param destino - nodo destino de la arista
+	 * @return el nmero de veces que aparece la arista, o 0 si no est en el grafo
+	 */
+	public int repeticiones(final int origen, final int propiedad, final int destino) {
+		int arista = buscarEntrante(origen, propiedad, destino);
+		return (arista != -1) ? repeticionesEntrante(arista) : 0;
+	}
+	
+	/**
+	 * Devuelve la posicin de la arista (origen, propiedad, destino) entre las entrantes de su destino, con la
+	 * misma bsqueda binaria que repeticiones.
+	 * @param origen - nodo origen de la arista
+	 * @param propiedad - peso de la arista
+	 * @param destino - nodo destino de la arista
+	 * @return la posicin de la arista, o -1 si no est en el grafo
+	 */
+	protected int buscarEntrante(final int origen, final int propiedad, final int destino) {
+		int grupo = grupoEntrantes(destino, propiedad);
+		if( grupo == -1 )
+			return -1;
+		int menor = inicioGrupoEntrantes(grupo), mayor = finGrupoEntrantes(grupo) - 1, mitad, arista;
+		while( menor <= mayor ) {
+			mitad = (menor+mayor) >>> 1;
+			arista = aristaAgrupadaEntrante(mitad);
+			if( origenEntrante(arista) == origen )
+				return arista;
+			else if( origenEntrante(arista) < origen )
+				menor = mitad + 1;
+			else
+				mayor = mitad - 1;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Devuelve el primer grupo de aristas salientes o entrantes de un nodo; sus grupos, ordenados por propiedad,
+	 * llegan hasta el anterior a finGrupos.
+	 * @param nodo - nodo del grafo
+	 * @param salientes - true para los de las salientes, false para los de las entrantes
+	 * @return el ndice del primer grupo del nodo
+	 */
+	protected int primerGrupo(final int nodo, final boolean salientes) {
+		return (salientes ? directorioSalientes : directorioEntrantes)[nodo];
+	}
+	
+	/**
+	 * Devuelve el grupo siguiente al ltimo de las aristas salientes o entrantes de un nodo.
+	 * @param nodo - nodo del grafo
+	 * @param salientes - true para los de las salientes, false para los de las entrantes
+	 * @return el ndice siguiente al del ltimo grupo del nodo
+	 */
+	protected int finGrupos(final int nodo, final boolean salientes) {
+		return (salientes ? directorioSalientes : directorioEntrantes)[nodo+1];
+	}
+	
+	/**
+	 * Devuelve la propiedad de las aristas de un grupo.
+	 * @param grupo - ndice del grupo
+	 * @param salientes - true si es un grupo de salientes, false si es de entrantes
+	 * @return la propiedad del grupo
+	 */
+	protected int propiedadGrupo(final int grupo, final boolean salientes) {
+		return (salientes ? propiedadGrupoSalientes : propiedadGrupoEntrantes)[grupo];
+	}
+	
+	/**
+	 * Devuelve la posicin de la primera arista saliente del nodo.
+	 * @param nodo - nodo del grafo
+	 * @return la posicin de su primera arista saliente
+	 */
+	public int inicioSalientes(final int nodo) {
+		return inicioSalientes[nodo];
+	}
+	
+	/**
+	 * Devuelve la posicin siguiente a la ltima arista saliente del nodo.
+	 * @param nodo - nodo del grafo
+	 * @return la posicin siguiente a su ltima arista saliente
+	 */
+	public int finSalientes(final int nodo) {
+		return inicioSalientes[nodo+1];
+	}
+	
+	/**
+	 * Devuelve el nmero de aristas distintas que salen del nodo.
+	 * @param nodo - nodo del grafo
+	 * @return el grado de salida del nodo
+	 */
+	public int gradoSaliente(final int nodo) {
+		return inicioSalientes[nodo+1] - inicioSalientes[nodo];
+	}
+	
+	/**
+	 * Devuelve el nodo al que apunta la arista saliente de la posicin indicada.
+	 * @param arista - posicin de la arista saliente
+	 * @return el nodo destino de la arista
+	 */
+	public int destinoSaliente(final int arista) {
+		return destinoSalientes[arista];
+	}
+	
+	/**
+	 * Devuelve el peso de la arista saliente de la posicin indicada.
+	 * @param arista - posicin de la arista saliente
+	 * @return la propiedad de la arista
+	 */
+	public int propiedadSaliente(final int arista) {
+		return propiedadSalientes[arista];
+	}
+	
+	/**
+	 * Devuelve las repeticiones de la arista saliente de la posicin indicada.
+	 * @param arista - posicin de la arista saliente
+	 * @return el nmero de veces que aparece la arista
+	 */
+	public int repeticionesSaliente(final int arista) {
+		return repeticionesSalientes[arista];
+	}
+	
+	/**
+	 * Busca el grupo de aristas salientes del nodo que tienen la propiedad indicada.
+	 * @param nodo - nodo del grafo
+	 * @param propiedad - peso de las aristas buscadas
+	 * @return el ndice del grupo, o -1 si el nodo no tiene aristas salientes con esa propiedad
+	 */
+	public int grupoSalientes(final int nodo, final int propiedad) {
+		return busquedaBinaria(propiedadGrupoSalientes, directorioSalientes[nodo], directorioSalientes[nodo+1], propiedad);
+	}
+	
+	/**
+	 * Devuelve el primer ndice de un grupo de aristas salientes, para usar con aristaAgrupadaSaliente.
+	 * @param grupo - ndice del grupo
+	 * @return el primer ndice del grupo
+	 */
+	public int inicioGrupoSalientes(final int grupo) {
+		return inicioGrupoSalientes[grupo];
+	}
+	
+	/**
+	 * Devuelve el ndice siguiente al ltimo de un grupo de aristas salientes.
+	 * @param grupo - ndice del grupo
+	 * @return el ndice siguiente al ltimo del grupo
+	 */
+	public int finGrupoSalientes(final int grupo) {
+		return inicioGrupoSalientes[grupo+1];
+	}
+	
+	/**
+	 * Devuelve la posicin de la arista saliente que ocupa el ndice indicado dentro de los grupos.
+	 * Las posiciones de un mismo grupo son crecientes.
+	 * @param indice - ndice dentro de un grupo
+	 * @return la posicin de la arista saliente
+	 */
+	public int aristaAgrupadaSaliente(final int indice) {
+		return agrupadasSalientes[indice];
+	}
+	
+	/**
+	 * Devuelve la posicin de la primera arista entrante del nodo.
+	 * @param nodo - nodo del grafo
+	 * @return la posicin de su primera arista entrante
+	 */
+	public int inicioEntrantes(final int nodo) {
+		return inicioEntrantes[nodo];
+	}
+	
+	/**
+	 * Devuelve la posicin siguiente a la ltima arista entrante del nodo.
+	 * @param nodo - nodo del grafo
+	 * @return la posicin siguiente a su ltima arista entrante
+	 */
+	public int finEntrantes(final int nodo) {
+		return inicioEntrantes[nodo+1];
+	}
+	
+	/**
+	 * Devuelve el nmero de aristas distintas que llegan al nodo.
+	 * @param nodo - nodo del grafo
+	 * @return el grado de entrada del nodo
+	 */
+	public int gradoEntrante(final int nodo) {
+		return inicioEntrantes[nodo+1] - inicioEntrantes[nodo];
+	}
+	
+	/**
+	 * Devuelve el nodo del que parte la arista entrante de la posicin indicada.
+	 * @param arista - posicin de la arista entrante
+	 * @return el nodo origen de la arista
+	 */
+	public int origenEntrante(final int arista) {
+		return origenEntrantes[arista];
+	}
+	
+	/**
+	 * Devuelve el peso de la arista entrante de la posicin indicada.
+	 * @param arista - posicin de la arista entrante
+	 * @return la propiedad de la arista
+	 */
+	public int propiedadEntrante(final int arista) {
+		return propiedadEntrantes[arista];
+	}
+	
+	/**
+	 * Devuelve las repeticiones de la arista entrante de la posicin indicada.
+	 * @param arista - posicin de la arista entrante
+	 * @return el nmero de veces que aparece la arista
+	 */
+	public int repeticionesEntrante(final int arista) {
+		return repeticionesEntrantes[arista];
+	}
+	
+	/**
+	 * Busca el grupo de aristas entrantes del nodo que tienen la propiedad indicada.
+	 * @param nodo - nodo del grafo
+	 * @param propiedad - peso de las aristas buscadas
+	 * @return el ndice del grupo, o -1 si el nodo no tiene aristas entrantes con esa propiedad
+	 */
+	public int grupoEntrantes(final int nodo, final int propiedad) {
+		return busquedaBinaria(propiedadGrupoEntrantes, directorioEntrantes[nodo], directorioEntrantes[nodo+1], propiedad);
+	}
+	
+	/**
+	 * Devuelve el primer ndice de un grupo de aristas entrantes, para usar con aristaAgrupadaEntrante.
+	 * @param grupo - ndice del grupo
+	 * @return el primer ndice del grupo
+	 */
+	public int inicioGrupoEntrantes(final int grupo) {
+		return inicioGrupoEntrantes[grupo];
+	}
+	
+	/**
+	 * Devuelve el ndice siguiente al ltimo de un grupo de aristas entrantes.
+	 * @param grupo - ndice del grupo
+	 * @return el ndice siguiente al ltimo del grupo
+	 */
+	public int finGrupoEntrantes(final int grupo) {
+		return inicioGrupoEntrantes[grupo+1];
+	}
+	
+	/**
+	 * Devuelve la posicin de la arista entrante que ocupa el ndice indicado dentro de los grupos.
+	 * Las posiciones de un mismo grupo son crecientes.
+	 * @param indice - ndice dentro de un grupo
+	 * @return la posicin de la arista entrante
+	 */
+	public int aristaAgrupadaEntrante(final int indice) {
+		return agrupadasEntrantes[indice];
+	}
+	
+	
+	// Rellena el array de inicios segn el nmero de aristas de cada nodo, y devuelve una copia
+	// que sirve como siguiente posicin libre de cada nodo
+	private int[] contarPorNodo(final int[] nodoDeArista, final int[] inicio) {
+		for( int i = 0; i < numAristas; ++i )
+			inicio[nodoDeArista[i]+1]++;
+		for( int v = 0; v < numNodos; ++v )
+			inicio[v+1] += inicio[v];
+		int[] posicion = new int[numNodos];
+		System.arraycopy(inicio, 0, posicion, 0, numNodos);
+		return posicion;
+	}
+	
+	// Agrupa las aristas de cada nodo por propiedad con dos ordenaciones por cuentas estables (primero por
+	// propiedad y despus por nodo), y construye el directorio de grupos.
+	// Devuelve {directorio, propiedadGrupo, inicioGrupo, agrupadas}
+	private int[][] agruparPorPropiedad(final int[] inicio, final int[] propiedad, final int numPropiedades) {
+		// Nodo al que pertenece cada posicin
+		int[] nodoDeArista = new int[numAristas];
+		for( int v = 0; v < numNodos; ++v )
+			for( int i = inicio[v]; i < inicio[v+1]; ++i )
+				nodoDeArista[i] = v;
+		// Ordenacin por propiedad
+		int[] posicion = new int[numPropiedades+1];
+		for( int i = 0; i < numAristas; ++i )
+			posicion[propiedad[i]+1]++;
+		for( int p = 0; p < numPropiedades; ++p )
+			posicion[p+1] += posicion[p];
+		int[] porPropiedad = new int[numAristas];
+		for( int i = 0; i < numAristas; ++i )
+			porPropiedad[posicion[propiedad[i]]++] = i;
+		// Ordenacin por nodo, manteniendo el orden por propiedad y, dentro de ella, por posicin
+		posicion = new int[numNodos];
+		System.arraycopy(inicio, 0, posicion, 0, numNodos);
+		int[] agrupadas = new int[numAristas];
+		for( int i = 0; i < numAristas; ++i )
+			agrupadas[posicion[nodoDeArista[porPropiedad[i]]]++] = porPropiedad[i];
+		
+		// Directorio: un grupo nuevo cada vez que cambia la propiedad dentro de un nodo
+		int numGrupos = 0;
+		for( int v = 0; v < numNodos; ++v )
+			for( int i = inicio[v]; i < inicio[v+1]; ++i )
+				if( i == inicio[v] || propiedad[agrupadas[i]] != propiedad[agrupadas[i-1]] )
+					numGrupos++;
+		int[] directorio = new int[numNodos+1], propiedadGrupo = new int[numGrupos], inicioGrupo = new int[numGrupos+1];
+		int g = 0;
+		for( int v = 0; v < numNodos; ++v ) {
+			directorio[v] = g;
+			for( int i = inicio[v]; i < inicio[v+1]; ++i ) {
+				if( i == inicio[v] || propiedad[agrupadas[i]] != propiedad[agrupadas[i-1]] ) {
+					propiedadGrupo[g] = propiedad[agrupadas[i]];
+					inicioGrupo[g++] = i;
+				}
+			}
+		}
+		directorio[numNodos] = g;
+		inicioGrupo[g] = numAristas;
+		return new int[][] { directorio, propiedadGrupo, inicioGrupo, agrupadas };
+	}
+	
+	// Devuelve la posicin del valor en el rango ordenado [menor, mayor) del array, o -1 si no est
+	private static int busquedaBinaria(final int[] array, int menor, int mayor, final int valor) {
+		int mitad;
+		mayor--;
+		while( menor <= mayor ) {
+			mitad = (menor+mayor) >>> 1;
+			if( array[mitad] == valor )
+				return mitad;
+			else if( array[mitad] < valor )
+				menor = mitad + 1;
+			else
+				mayor = mitad - 1;
+		}
+		return -1;
+	}
+	
+}
@@ -0,0 +1,538 @@
+package estructurasDeDatos;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Estructura de grafo compacto modificable:
+ * Vista de un GrafoCompacto a la que se pueden aadir nodos y cambiar las repeticiones de las aristas (y con ello
+ * aadirlas o eliminarlas) sin reconstruirlo. Las aristas de un nodo que cambia no se copian: su parche recuerda
+ * dnde empiezan en el grafo original y guarda en tablas de dispersin solo los huecos que han cambiado y las
+ * aristas aadidas detrs, y lo mismo hace con cada uno de sus grupos. Las posiciones de las aristas y los ndices
+ * de los grupos de los parches van a continuacin de los del grafo original, as que la vista se recorre con las
+ * mismas operaciones que un GrafoCompacto.
+ * Una arista nueva va detrs de las salientes de su origen, de las entrantes de su destino y de las de sus grupos;
+ * la que se queda sin repeticiones desaparece y la ltima de cada uno de esos rangos ocupa su lugar. Las salientes
+ * quedan as en el orden de compactar, pero las entrantes y los grupos de los nodos que cambian pueden no seguir el
+ * orden de sus orgenes y posiciones hasta que se compacta el grafo.
+ * Cambiar una arista cuesta un tiempo constante, ms bsquedas binarias entre las aristas entrantes de su destino y
+ * entre los parches. La primera vez que cambia una arista del grafo original se busca tambin entre las salientes
+ * de su origen con la misma propiedad: si son muchas, se indexan todas, una sola vez por grupo.
+ */
+public class GrafoModificable extends GrafoCompacto {
+
+	/**
+	 * Clase interna: nmeros (posiciones o ndices de grupo) repartidos en rangos consecutivos a partir de uno
+	 * dado. Cada rango tiene un dueo, y un nmero pertenece al ltimo rango que empieza antes que l: un rango
+	 * que se queda pequeo se abandona y se reserva otro mayor al final, sin mover nada.
+	 */
+	private static final class Rangos {
+		// Atributos
+		private final ListaEnteros inicio = new ListaEnteros(), dueno = new ListaEnteros();
+		private int siguiente;
+		// Constructora
+		public Rangos( int primero ) {
+			siguiente = primero;
+		}
+		// Reserva un rango de n nmeros (al menos uno) para el dueo, y devuelve el primero
+		public int reservar( int propietario, int n ) {
+			inicio.insertLast(siguiente);
+			dueno.insertLast(propietario);
+			siguiente += n;
+			return siguiente - n;
+		}
+		// Dueo del rango al que pertenece un nmero
+		public int dueno( int numero ) {
+			int menor = 0, mayor = inicio.size() - 1, mitad;
+			while( menor < mayor ) {
+				mitad = (menor+mayor+1) >>> 1;
+				if( inicio.get(mitad) <= numero )
+					menor = mitad;
+				else
+					mayor = mitad - 1;
+			}
+			return dueno.get(menor);
+		}
+	}
+
+	/**
+	 * Clase interna: parches de las aristas de un sentido. Un elemento es la posicin de una arista en el grafo
+	 * original, o aristasOriginal + k para la arista k de la tabla de aristas. El i-simo elemento del parche de un
+	 * nodo es el que se haya puesto en ese hueco o, si no se ha tocado, el i-simo del nodo en el grafo original;
+	 * igual para los grupos. Los parches de un nodo y de cada grupo ocupan un rango de posiciones o ndices, con
+	 * hueco para crecer.
+	 */
+	private final class Parches {
+		// Atributos
+		private final boolean saliente;
+		private final int gruposOriginal;
+		// nodo -> nmero de parche
+		private final TablaDispersion parcheDeNodo = new TablaDispersion();
+		// Por parche: primera posicin de sus aristas en el grafo original, nmero de aristas, primera posicin y capacidad
+		private final ListaEnteros inicioOriginal = new ListaEnteros(), grado = new ListaEnteros(),
+				inicio = new ListaEnteros(), capacidad = new ListaEnteros();
+		// Huecos cambiados: (parche, hueco, 0) -> elemento; y hueco de cada elemento movido o aadido: (elemento, 0, 0) -> hueco
+		private final TablaDispersion elementos = new TablaDispersion(), huecos = new TablaDispersion();
+		// Por grupo de los parches: parche, rango de agrupadas en el grafo original, nmero de aristas, primer ndice y capacidad
+		private final ListaEnteros parcheGrupo = new ListaEnteros(), inicioGrupoOriginal = new ListaEnteros(),
+				finGrupoOriginal = new ListaEnteros(), tamGrupo = new ListaEnteros(), inicioGrupo = new ListaEnteros(),
+				capacidadGrupo = new ListaEnteros();
+		// (parche, propiedad, 0) -> grupo; huecos de los grupos y sus elementos, como los de los parches
+		private final TablaDispersion grupoDe = new TablaDispersion(), agrupados = new TablaDispersion(),
+				huecosGrupo = new TablaDispersion();
+		// Aristas del grafo original que han cambiado: (posicin original, 0, 0) -> k
+		private final TablaDispersion cambiadas = new TablaDispersion();
+		// Rangos de las posiciones de los parches y de los ndices de sus grupos
+		private final Rangos posiciones = new Rangos(aristasOriginal), indices = new Rangos(aristasOriginal);
+		// Constructora
+		public Parches( boolean saliente, int gruposOriginal ) {
+			this.saliente = saliente;
+			this.gruposOriginal = gruposOriginal;
+		}
+		// Parche del nodo, o -1 si no tiene
+		public int parche( int nodo ) {
+			return parcheDeNodo.obtener(nodo, 0, 0);
+		}
+		// Posicin de la primera arista de un parche, y la siguiente a la ltima
+		public int inicio( int r ) {
+			return inicio.get(r);
+		}
+		public int fin( int r ) {
+			return inicio.get(r) + grado.get(r);
+		}
+		// Elemento que ocupa una posicin de los parches
+		public int elemento( int posicion ) {
+			final int r = posiciones.dueno(posicion);
+			return elemento(r, posicion - inicio.get(r));
+		}
+		// Nmero de la arista de un elemento en la tabla de aristas, o -1 si es una arista original sin cambios
+		public int arista( int e ) {
+			return (e >= aristasOriginal) ? e - aristasOriginal : cambiadas.obtener(e, 0, 0);
+		}
+		// Grupo de un parche con la propiedad indicada, o -1 si no lo tiene
+		public int grupo( int r, int propiedad ) {
+			int t = grupoDe.obtener(r, propiedad, 0);
+			return (t == -1 || tamGrupo.get(t) == 0) ? -1 : gruposOriginal + t;
+		}
+		// Primer ndice de un grupo de los parches, y el siguiente al ltimo
+		public int inicioGrupo( int grupo ) {
+			return inicioGrupo.get(grupo - gruposOriginal);
+		}
+		public int finGrupo( int grupo ) {
+			return inicioGrupo.get(grupo - gruposOriginal) + tamGrupo.get(grupo - gruposOriginal);
+		}
+		// Posicin que ocupa un ndice de los grupos de los parches
+		public int agrupada( int indice ) {
+			final int t = indices.dueno(indice), r = parcheGrupo.get(t);
+			return inicio.get(r) + hueco(r, agrupado(t, indice - inicioGrupo.get(t)));
+		}
+		// Crea el parche del nodo, si no lo tena, con un grupo por cada uno de los del nodo en el grafo original
+		public void crear( int nodo ) {
+			if( parche(nodo) != -1 )
+				return;
+			final int r = grado.size();
+			int desde = 0, hasta = 0;
+			if( nodo < nodosOriginal ) {
+				desde = saliente ? original.inicioSalientes(nodo) : original.inicioEntrantes(nodo);
+				hasta = saliente ? original.finSalientes(nodo) : original.finEntrantes(nodo);
+			}
+			parcheDeNodo.insertar(nodo, 0, 0, r);
+			inicioOriginal.insertLast(desde);
+			grado.insertLast(hasta - desde);
+			capacidad.insertLast(hasta - desde + 4);
+			inicio.insertLast(posiciones.reservar(r, hasta - desde + 4));
+			if( nodo < nodosOriginal ) {
+				for( int g = original.primerGrupo(nodo, saliente); g < original.finGrupos(nodo, saliente); ++g ) {
+					if( saliente )
+						crearGrupo(r, original.propiedadGrupo(g, true), original.inicioGrupoSalientes(g), original.finGrupoSalientes(g));
+					else
+						crearGrupo(r, original.propiedadGrupo(g, false), original.inicioGrupoEntrantes(g), original.finGrupoEntrantes(g));
+				}
+			}
+		}
+		// Aade un elemento detrs de las aristas del parche del nodo y de las de su grupo
+		public void insertar( int nodo, int e, int propiedad ) {
+			final int r = parche(nodo);
+			int n = grado.get(r);
+			if( n == capacidad.get(r) ) {
+				capacidad.replace(r, 2*n);
+				inicio.replace(r, posiciones.reservar(r, 2*n));
+			}
+			elementos.insertar(r, n, 0, e);
+			huecos.insertar(e, 0, 0, n);
+			grado.replace(r, n+1);
+			int t = grupoDe.obtener(r, propiedad, 0);
+			if( t == -1 )
+				t = crearGrupo(r, propiedad, 0, 0);
+			n = tamGrupo.get(t);
+			if( n == capacidadGrupo.get(t) ) {
+				capacidadGrupo.replace(t, 2*n);
+				inicioGrupo.replace(t, indices.reservar(t, 2*n));
+			}
+			agrupados.insertar(t, n, 0, e);
+			huecosGrupo.insertar(e, 0, 0, n);
+			tamGrupo.replace(t, n+1);
+		}
+		// Quita un elemento del parche del nodo y de su grupo, poniendo en su hueco el ltimo de cada uno
+		public void quitar( int nodo, int e, int propiedad ) {
+			final int r = parche(nodo), i = hueco(r, e), ultimo = grado.get(r) - 1;
+			if( i != ultimo ) {
+				final int movido = elemento(r, ultimo);
+				elementos.insertar(r, i, 0, movido);
+				huecos.insertar(movido, 0, 0, i);
+			}
+			grado.replace(r, ultimo);
+			final int t = grupoDe.obtener(r, propiedad, 0), j = huecoGrupo(t, e), ultimoGrupo = tamGrupo.get(t) - 1;
+			if( j != ultimoGrupo ) {
+				final int movido = agrupado(t, ultimoGrupo);
+				agrupados.insertar(t, j, 0, movido);
+				huecosGrupo.insertar(movido, 0, 0, j);
+			}
+			tamGrupo.replace(t, ultimoGrupo);
+		}
+		// Crea un grupo vaco en un parche, o con las aristas de un rango de agrupadas del grafo original, y devuelve su nmero
+		private int crearGrupo( int r, int propiedad, int desde, int hasta ) {
+			final int t = parcheGrupo.size();
+			grupoDe.insertar(r, propiedad, 0, t);
+			parcheGrupo.insertLast(r);
+			inicioGrupoOriginal.insertLast(desde);
+			finGrupoOriginal.insertLast(hasta);
+			tamGrupo.insertLast(hasta - desde);
+			capacidadGrupo.insertLast(hasta - desde + 4);
+			inicioGrupo.insertLast(indices.reservar(t, hasta - desde + 4));
+			return t;
+		}
+		// Elemento del i-simo hueco de un parche
+		private int elemento( int r, int i ) {
+			int e = elementos.obtener(r, i, 0);
+			return (e != -1) ? e : inicioOriginal.get(r) + i;
+		}
+		// Hueco que ocupa un elemento en su parche: si no se ha movido, el de su posicin en el grafo original
+		private int hueco( int r, int e ) {
+			int i = huecos.obtener(e, 0, 0);
+			return (i != -1) ? i : e - inicioOriginal.get(r);
+		}
+		// Elemento del j-simo hueco de un grupo
+		private int agrupado( int t, int j ) {
+			int e = agrupados.obtener(t, j, 0);
+			if( e != -1 )
+				return e;
+			j += inicioGrupoOriginal.get(t);
+			return saliente ? original.aristaAgrupadaSaliente(j) : original.aristaAgrupadaEntrante(j);
+		}
+		// Hueco que ocupa un elemento en su grupo: si no se ha movido, se busca en el grupo original, ordenado por posicin
+		private int huecoGrupo( int t, int e ) {
+			int j = huecosGrupo.obtener(e, 0, 0);
+			if( j != -1 )
+				return j;
+			int menor = inicioGrupoOriginal.get(t), mayor = finGrupoOriginal.get(t) - 1, mitad, a;
+			while( menor < mayor ) {
+				mitad = (menor+mayor) >>> 1;
+				a = saliente ? original.aristaAgrupadaSaliente(mitad) : original.aristaAgrupadaEntrante(mitad);
+				if( a < e )
+					menor = mitad + 1;
+				else
+					mayor = mitad;
+			}
+			return menor - inicioGrupoOriginal.get(t);
+		}
+	}
+
+	// Tamao de grupo de salientes del grafo original a partir del cual se indexa al buscar en l
+	private static final int minimoIndexar = 8;
+
+	// Grafo original, y su nmero de nodos y de aristas distintas: las posiciones mayores son de los parches
+	private final GrafoCompacto original;
+	private final int nodosOriginal, aristasOriginal;
+	// Nmero de nodos y de aristas distintas tras los cambios
+	private int numNodos, numAristas;
+	// Aristas que han cambiado: la k-sima es (origenArista[k], propiedadArista[k], destinoArista[k]), aparece
+	// repeticionesArista[k] veces (0 si se ha eliminado) y es el elemento elementoSaliente[k] del parche de su origen
+	// y elementoEntrante[k] del de su destino
+	private final ListaEnteros origenArista = new ListaEnteros(), propiedadArista = new ListaEnteros(),
+			destinoArista = new ListaEnteros(), repeticionesArista = new ListaEnteros(),
+			elementoSaliente = new ListaEnteros(), elementoEntrante = new ListaEnteros();
+	// ndice de las aristas que han cambiado: (origen, propiedad, destino) -> k
+	private final TablaDispersion indiceAristas = new TablaDispersion();
+	// Grupos de salientes del grafo original indexados: (grupo, 0, 0) -> 1, y (grupo, destino, 0) -> posicin
+	private final TablaDispersion gruposIndexados = new TablaDispersion(), posicionesIndexadas = new TablaDispersion();
+	// Parches de las aristas salientes y de las entrantes
+	private final Parches salientes, entrantes;
+
+
+	/**
+	 * Constructora
+	 * Crea una vista sin cambios de un grafo, que comparte sus arrays. El grafo original no se modifica.
+	 * @param original - grafo de partida
+	 */
+	public GrafoModificable(final GrafoCompacto original) {
+		super(original);
+		this.original = original;
+		nodosOriginal = numNodos = original.numNodos();
+		aristasOriginal = numAristas = original.numAristas();
+		salientes = new Parches(true, original.numGrupos(true));
+		entrantes = new Parches(false, original.numGrupos(false));
+	}
+
+	/**
+	 * Aade un nodo sin aristas.
+	 * @return el nodo aadido, que es el siguiente al ltimo
+	 */
+	public int anadirNodo() {
+		return numNodos++;
+	}
+
+	/**
+	 * Cambia las repeticiones de la arista (origen, propiedad, destino). Si no estaba, se aade detrs de las
+	 * aristas salientes de su origen; si se queda sin repeticiones, desaparece del grafo y la ltima saliente
+	 * de su origen ocupa su lugar.
+	 * @param origen - nodo origen de la arista
+	 * @param propiedad - peso de la arista
+	 * @param destino - nodo destino de la arista
+	 * @param veces - nuevo nmero de repeticiones (0 para eliminarla)
+	 */
+	public void cambiarRepeticiones(final int origen, final int propiedad, final int destino, final int veces) {
+		salientes.crear(origen);
+		entrantes.crear(destino);
+		int k = indiceAristas.obtener(origen, propiedad, destino);
+		if( k == -1 ) {
+			k = origenArista.size();
+			indiceAristas.insertar(origen, propiedad, destino, k);
+			origenArista.insertLast(origen);
+			propiedadArista.insertLast(propiedad);
+			destinoArista.insertLast(destino);
+			// Si estaba en el grafo original, sus repeticiones pasan a leerse de la tabla de aristas
+			final int entrante = (origen < nodosOriginal && destino < nodosOriginal) ? original.buscarEntrante(origen, propiedad, destino) : -1;
+			if( entrante != -1 ) {
+				final int saliente = buscarSaliente(origen, propiedad, destino);
+				repeticionesArista.insertLast(original.repeticionesEntrante(entrante));
+				elementoSaliente.insertLast(saliente);
+				elementoEntrante.insertLast(entrante);
+				salientes.cambiadas.insertar(saliente, 0, 0, k);
+				entrantes.cambiadas.insertar(entrante, 0, 0, k);
+			} else {
+				repeticionesArista.insertLast(0);
+				elementoSaliente.insertLast(aristasOriginal + k);
+				elementoEntrante.insertLast(aristasOriginal + k);
+			}
+		}
+		final int anteriores = repeticionesArista.get(k);
+		repeticionesArista.replace(k, veces);
+		if( anteriores == 0 && veces > 0 ) {
+			elementoSaliente.replace(k, aristasOriginal + k);
+			elementoEntrante.replace(k, aristasOriginal + k);
+			salientes.insertar(origen, aristasOriginal + k, propiedad);
+			entrantes.insertar(destino, aristasOriginal + k, propiedad);
+			numAristas++;
+		} else if( anteriores > 0 && veces == 0 ) {
+			salientes.quitar(origen, elementoSaliente.get(k), propiedad);
+			entrantes.quitar(destino, elementoEntrante.get(k), propiedad);
+			numAristas--;
+		}
+	}
+
+	/**
+	 * Devuelve el nmero de aristas que han cambiado: las aadidas, las eliminadas y las que tienen otras
+	 * repeticiones. Cada cambio suma como mucho una, y la memoria de la vista crece en proporcin a los cambios.
+	 * @return el nmero de aristas distintas que han cambiado
+	 */
+	public int aristasCambiadas() {
+		return origenArista.size();
+	}
+
+	/**
+	 * Devuelve un GrafoCompacto con los nodos y las aristas de la vista, con las salientes en el mismo orden.
+	 * @return el grafo tras los cambios
+	 */
+	public GrafoCompacto compactar() {
+		ListaEnteros origen = new ListaEnteros(numAristas), propiedad = new ListaEnteros(numAristas),
+				destino = new ListaEnteros(numAristas), repeticiones = new ListaEnteros(numAristas);
+		for( int v = 0; v < numNodos; ++v ) {
+			for( int a = inicioSalientes(v); a < finSalientes(v); ++a ) {
+				origen.insertLast(v);
+				propiedad.insertLast(propiedadSaliente(a));
+				destino.insertLast(destinoSaliente(a));
+				repeticiones.insertLast(repeticionesSaliente(a));
+			}
+		}
+		return new GrafoCompacto(numNodos, origen.size(), origen.toArray(), propiedad.toArray(),
+				destino.toArray(), repeticiones.toArray());
+	}
+
+	/**
+	 * Escribe en formato binario el grafo tras los cambios (el de compactar).
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	@Override
+	public void guardar(final DataOutputStream salida) throws IOException {
+		compactar().guardar(salida);
+	}
+
+	@Override
+	public int numNodos() {
+		return numNodos;
+	}
+
+	@Override
+	public int numAristas() {
+		return numAristas;
+	}
+
+	@Override
+	public int repeticiones(final int origen, final int propiedad, final int destino) {
+		int k = indiceAristas.obtener(origen, propiedad, destino);
+		if( k != -1 )
+			return repeticionesArista.get(k);
+		return (origen < nodosOriginal && destino < nodosOriginal) ? original.repeticiones(origen, propiedad, destino) : 0;
+	}
+
+	@Override
+	public int inicioSalientes(final int nodo) {
+		int r = salientes.parche(nodo);
+		return (r != -1) ? salientes.inicio(r) : (nodo < nodosOriginal) ? original.inicioSalientes(nodo) : 0;
+	}
+
+	@Override
+	public int finSalientes(final int nodo) {
+		int r = salientes.parche(nodo);
+		return (r != -1) ? salientes.fin(r) : (nodo < nodosOriginal) ? original.finSalientes(nodo) : 0;
+	}
+
+	@Override
+	public int gradoSaliente(final int nodo) {
+		int r = salientes.parche(nodo);
+		return (r != -1) ? salientes.grado.get(r) : (nodo < nodosOriginal) ? original.gradoSaliente(nodo) : 0;
+	}
+
+	@Override
+	public int destinoSaliente(final int arista) {
+		if( arista < aristasOriginal )
+			return original.destinoSaliente(arista);
+		int e = salientes.elemento(arista);
+		return (e < aristasOriginal) ? original.destinoSaliente(e) : destinoArista.get(e - aristasOriginal);
+	}
+
+	@Override
+	public int propiedadSaliente(final int arista) {
+		if( arista < aristasOriginal )
+			return original.propiedadSaliente(arista);
+		int e = salientes.elemento(arista);
+		return (e < aristasOriginal) ? original.propiedadSaliente(e) : propiedadArista.get(e - aristasOriginal);
+	}
+
+	@Override
+	public int repeticionesSaliente(final int arista) {
+		if( arista < aristasOriginal )
+			return original.repeticionesSaliente(arista);
+		int e = salientes.elemento(arista), k = salientes.arista(e);
+		return (k != -1) ? repeticionesArista.get(k) : original.repeticionesSaliente(e);
+	}
+
+	@Override
+	public int grupoSalientes(final int nodo, final int propiedad) {
+		int r = salientes.parche(nodo);
+		return (r != -1) ? salientes.grupo(r, propiedad) : (nodo < nodosOriginal) ? original.grupoSalientes(nodo, propiedad) : -1;
+	}
+
+	@Override
+	public int inicioGrupoSalientes(final int grupo) {
+		return (grupo < salientes.gruposOriginal) ? original.inicioGrupoSalientes(grupo) : salientes.inicioGrupo(grupo);
+	}
+
+	@Override
+	public int finGrupoSalientes(final int grupo) {
+		return (grupo < salientes.gruposOriginal) ? original.finGrupoSalientes(grupo) : salientes.finGrupo(grupo);
+	}
+
+	@Override
+	public int aristaAgrupadaSaliente(final int indice) {
+		return (indice < aristasOriginal) ? original.aristaAgrupadaSaliente(indice) : salientes.agrupada(indice);
+	}
+
+	@Override
+	public int inicioEntrantes(final int nodo) {
+		int r = entrantes.parche(nodo);
+		return (r != -1) ? entrantes.inicio(r) : (nodo < nodosOriginal) ? original.inicioEntrantes(nodo) : 0;
+	}
+
+	@Override
+	public int finEntrantes(final int nodo) {
+		int r = entrantes.parche(nodo);
+		return (r != -1) ? entrantes.fin(r) : (nodo < nodosOriginal) ? original.finEntrantes(nodo) : 0;
+	}
+
+	@Override
+	public int gradoEntrante(final int nodo) {
+		int r = entrantes.parche(nodo);
+		return (r != -1) ? entrantes.grado.get(r) : (nodo < nodosOriginal) ? original.gradoEntrante(nodo) : 0;
+	}
+
+	@Override
+	public int origenEntrante(final int arista) {
+		if( arista < aristasOriginal )
+			return original.origenEntrante(arista);
+		int e = entrantes.elemento(arista);
+		return (e < aristasOriginal) ? original.origenEntrante(e) : origenArista.get(e - aristasOriginal);
+	}
+
+	@Override
+	public int propiedadEntrante(final int arista) {
+		if( arista < aristasOriginal )
+			return original.propiedadEntrante(arista);
+		int e = entrantes.elemento(arista);
+		return (e < aristasOriginal) ? original.propiedadEntrante(e) : propiedadArista.get(e - aristasOriginal);
+	}
+
+	@Override
+	public int repeticionesEntrante(final int arista) {
+		if( arista < aristasOriginal )
+			return original.repeticionesEntrante(arista);
+		int e = entrantes.elemento(arista), k = entrantes.arista(e);
+		return (k != -1) ? repeticionesArista.get(k) : original.repeticionesEntrante(e);
+	}
+
+	@Override
+	public int grupoEntrantes(final int nodo, final int propiedad) {
+		int r = entrantes.parche(nodo);
+		return (r != -1) ? entrantes.grupo(r, propiedad) : (nodo < nodosOriginal) ? original.grupoEntrantes(nodo, propiedad) : -1;
+	}
+
+	@Override
+	public int inicioGrupoEntrantes(final int grupo) {
+		return (grupo < entrantes.gruposOriginal) ? original.inicioGrupoEntrantes(grupo) : entrantes.inicioGrupo(grupo);
+	}
+
+	@Override
+	public int finGrupoEntrantes(final int grupo) {
+		return (grupo < entrantes.gruposOriginal) ? original.finGrupoEntrantes(grupo) : entrantes.finGrupo(grupo);
+	}
+
+	@Override
+	public int aristaAgrupadaEntrante(final int indice) {
+		return (indice < aristasOriginal) ? original.aristaAgrupadaEntrante(indice) : entrantes.agrupada(indice);
+	}
+
+
+	// Posicin de la arista (origen, propiedad, destino), que est en el grafo original, entre las salientes del
+	// original. Los grupos pequeos se recorren; los grandes se indexan por destino la primera vez
+	private int buscarSaliente(final int origen, final int propiedad, final int destino) {
+		final int grupo = original.grupoSalientes(origen, propiedad);
+		final int desde = original.inicioGrupoSalientes(grupo), hasta = original.finGrupoSalientes(grupo);
+		if( hasta - desde < minimoIndexar ) {
+			for( int i = desde; i < hasta; ++i )
+				if( original.destinoSaliente(original.aristaAgrupadaSaliente(i)) == destino )
+					return original.aristaAgrupadaSaliente(i);
+			return -1;
+		}
+		if( gruposIndexados.obtener(grupo, 0, 0) == -1 ) {
+			for( int i = desde; i < hasta; ++i ) {
+				int a = original.aristaAgrupadaSaliente(i);
+				posicionesIndexadas.insertar(grupo, original.destinoSaliente(a), 0, a);
+			}
+			gruposIndexados.insertar(grupo, 0, 0, 1);
+		}
+		return posicionesIndexadas.obtener(grupo, destino, 0);
+	}
+
+}
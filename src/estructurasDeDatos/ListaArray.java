@@ -2,6 +2,9 @@ package estructurasDeDatos;
 
 import gestionDeSentencias.Fichero;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Estructura de vector:
@@ -14,6 +17,9 @@ public class ListaArray<T extends Comparable<T>> implements Comparable<ListaArra
 	// Constantes del vector
 	private final static int defaultSize = 25;
 	private final static int resizeFactor = 2;
+	// Tramos que se ordenan por insercin, y tramos que ya no se reparten entre varios hilos
+	private final static int umbralInsercion = 16;
+	private final static int umbralParalelo = 1 << 13;
 	
 	// Atributos para representar el TAD
 	private Object[] datos;
@@ -107,8 +113,7 @@ public class ListaArray<T extends Comparable<T>> implements Comparable<ListaArra
 	public void set(final int posicion, final T elemento) {
 		if( longitud == capacidad )
 			expandir();
-		for( int i = longitud; i > posicion; --i )
-			datos[i] = datos[i-1];
+		System.arraycopy(datos, posicion, datos, posicion + 1, longitud - posicion);
 		datos[posicion] = elemento;
 		longitud++;
 	}
@@ -149,21 +154,49 @@ public class ListaArray<T extends Comparable<T>> implements Comparable<ListaArra
 	}
 	
 	/**
-	 * Ordenacin de los elementos del array mediante ordenacin por insercin
+	 * Ordenacin de los elementos del array mediante ordenacin por mezcla (ver ordenarIndices)
 	 * @return un array con los ndices de los elementos del array original en orden creciente
 	 */
 	public ListaArray<Integer> sort() {
-		ListaArray<Integer> resultado = new ListaArray<Integer>();
-		int j;
-		for (int i = 0; i < longitud; i++) {
-			j = 0;
-			while (j < i && accesoDatos(i).compareTo( accesoDatos(resultado.get(j)) ) > 0)
-				j++;
-			resultado.set(j, i);
-		} 
+		int[] indices = ordenarIndices();
+		ListaArray<Integer> resultado = new ListaArray<Integer>(Math.max(longitud, 1));
+		for (int i = 0; i < longitud; i++)
+			resultado.insertLast(indices[i]);
 		return resultado;
 	}
 	
+	/**
+	 * Ordenacin estable de los ndices de los elementos del vector mediante ordenacin por mezcla, en O(n log n).
+	 * Los elementos no se mueven: se ordenan sus ndices, sin crear un objeto por ndice.
+	 * @return un array con los ndices de los elementos en orden creciente (los iguales, en su orden original)
+	 */
+	public int[] ordenarIndices() {
+		int[] indices = indicesIniciales();
+		ordenarPorMezcla(indices, new int[longitud], 0, longitud);
+		return indices;
+	}
+	
+	/**
+	 * Igual que ordenarIndices, pero reparte la ordenacin entre varios hilos. Devuelve el mismo resultado.
+	 * Solo compensa con vectores grandes; los elementos no deben modificarse mientras tanto.
+	 * Usa un conjunto de hilos compartido por todos los vectores, que se crea la primera vez.
+	 * @return un array con los ndices de los elementos en orden creciente (los iguales, en su orden original)
+	 */
+	public int[] ordenarIndicesParalelo() {
+		return ordenarIndicesParalelo(HilosCompartidos.hilos);
+	}
+	
+	/**
+	 * Igual que ordenarIndicesParalelo, pero con los hilos del conjunto indicado, que no se cierra.
+	 * @param hilos - conjunto de hilos en el que ordenar
+	 * @return un array con los ndices de los elementos en orden creciente (los iguales, en su orden original)
+	 */
+	public int[] ordenarIndicesParalelo(final ForkJoinPool hilos) {
+		int[] indices = indicesIniciales();
+		hilos.invoke( new OrdenacionParalela(indices, new int[longitud], 0, longitud) );
+		return indices;
+	}
+	
 	/**
 	 * Devuelve un array a partir del vector.
 	 * @return un array cuyos elementos son los valores del vector
@@ -181,10 +214,10 @@ public class ListaArray<T extends Comparable<T>> implements Comparable<ListaArra
 	 */
 	public void printToFile(final String filename) {
 		try {
-			Fichero.abrir(filename, true, false);
+			Fichero fichero = new Fichero(filename, true, false);
 			for (int i = 0; i < longitud; ++i)
-				Fichero.escribirSentencia(accesoDatos(i).toString());
-			Fichero.cerrar();
+				fichero.escribir(accesoDatos(i).toString());
+			fichero.close();
 		} catch (IOException e) {
 			System.out.println("Error: Imposible acceder al fichero especificado.");
 		}
@@ -197,13 +230,90 @@ public class ListaArray<T extends Comparable<T>> implements Comparable<ListaArra
 		return (T) datos[index];
 	}
 	
+	// Compara los elementos de las posiciones i y j
+	private int comparar(final int i, final int j) {
+		return accesoDatos(i).compareTo( accesoDatos(j) );
+	}
+	
+	// Devuelve el array de ndices 0, 1, ..., longitud-1
+	private int[] indicesIniciales() {
+		int[] indices = new int[longitud];
+		for (int i = 0; i < longitud; ++i)
+			indices[i] = i;
+		return indices;
+	}
+	
+	// Ordena indices[desde..hasta) de forma estable, usando auxiliar[desde..hasta) como espacio de trabajo
+	private void ordenarPorMezcla(final int[] indices, final int[] auxiliar, final int desde, final int hasta) {
+		if( hasta - desde <= umbralInsercion ) {
+			// Ordenacin por insercin: avanza mientras el anterior sea estrictamente mayor, as que es estable
+			int actual, j;
+			for( int i = desde + 1; i < hasta; ++i ) {
+				actual = indices[i];
+				for( j = i; j > desde && comparar(indices[j-1], actual) > 0; --j )
+					indices[j] = indices[j-1];
+				indices[j] = actual;
+			}
+			return;
+		}
+		int mitad = (desde + hasta) >>> 1;
+		ordenarPorMezcla(indices, auxiliar, desde, mitad);
+		ordenarPorMezcla(indices, auxiliar, mitad, hasta);
+		mezclar(indices, auxiliar, desde, mitad, hasta);
+	}
+	
+	// Mezcla los tramos ordenados indices[desde..mitad) e indices[mitad..hasta); a igualdad, va primero el del izquierdo
+	private void mezclar(final int[] indices, final int[] auxiliar, final int desde, final int mitad, final int hasta) {
+		if( comparar(indices[mitad-1], indices[mitad]) <= 0 )
+			return;
+		System.arraycopy(indices, desde, auxiliar, desde, hasta - desde);
+		int i = desde, j = mitad, k = desde;
+		while( i < mitad && j < hasta )
+			indices[k++] = (comparar(auxiliar[j], auxiliar[i]) < 0) ? auxiliar[j++] : auxiliar[i++];
+		// Si quedan elementos del tramo derecho, ya estn en su sitio
+		while( i < mitad )
+			indices[k++] = auxiliar[i++];
+	}
+	
+	// Conjunto de hilos compartido por las ordenaciones en paralelo, creado al usarlo por primera vez
+	// (sus hilos son demonios, as que no impiden que termine el programa)
+	private static final class HilosCompartidos {
+		private static final ForkJoinPool hilos = new ForkJoinPool();
+	}
+	
+	/**
+	 * Clase interna: ordenacin por mezcla de un tramo del array de ndices, con las dos mitades ordenadas
+	 * en paralelo mientras el tramo sea mayor que umbralParalelo.
+	 */
+	private class OrdenacionParalela extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		// Atributos
+		private final int[] indices, auxiliar;
+		private final int desde, hasta;
+		// Constructora
+		public OrdenacionParalela(final int[] indices, final int[] auxiliar, final int desde, final int hasta) {
+			this.indices = indices;
+			this.auxiliar = auxiliar;
+			this.desde = desde;
+			this.hasta = hasta;
+		}
+		@Override
+		protected void compute() {
+			if( hasta - desde <= umbralParalelo ) {
+				ordenarPorMezcla(indices, auxiliar, desde, hasta);
+				return;
+			}
+			int mitad = (desde + hasta) >>> 1;
+			invokeAll( new OrdenacionParalela(indices, auxiliar, desde, mitad),
+					new OrdenacionParalela(indices, auxiliar, mitad, hasta) );
+			mezclar(indices, auxiliar, desde, mitad, hasta);
+		}
+	}
+	
 	// Incrementa la capacidad del vector en base a la constante de redimensionamiento
 	private void expandir() {
 		capacidad *= resizeFactor;
-		Object[] nuevosDatos = new Object[capacidad];
-		for (int i = 0; i < longitud; ++i)
-			nuevosDatos[i] = datos[i];
-		datos = nuevosDatos;
+		datos = Arrays.copyOf(datos, capacidad);
 	}
 	
 	// Devuelve la posicin en la que correspondera insertar el elemento en orden
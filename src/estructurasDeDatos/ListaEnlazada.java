@@ -231,13 +231,13 @@ public class ListaEnlazada<T extends Comparable<T>> implements Iterable<T> {
 	 */
 	public void printToFile(final String filename) {
 		try {
-			Fichero.abrir(filename, true, false);
+			Fichero fichero = new Fichero(filename, true, false);
 			NodoLista current = first;
 			for( int i = 0; i < numNodos; ++i ) {
-				Fichero.escribirSentencia(current.dato.toString());
+				fichero.escribir(current.dato.toString());
 				current = current.siguiente;
 			}
-			Fichero.cerrar();
+			fichero.close();
 		} catch (IOException e) {
 			System.out.println("Error: Imposible acceder al fichero especificado.");
 		}
@@ -0,0 +1,152 @@
+package estructurasDeDatos;
+
+import java.util.Arrays;
+
+/**
+ * Estructura de vector de enteros largos:
+ * Representacin como array de long, sin un objeto Long por elemento. Se redimensiona en caso de necesitar
+ * ms espacio, copiando el array en bloque.
+ */
+public class ListaEnterosLargos {
+
+	// Constantes del vector
+	private final static int defaultSize = 25;
+	private final static int resizeFactor = 2;
+
+	// Atributos para representar el TAD
+	private long[] datos;
+	private int longitud;
+
+
+	/**
+	 * Construye un vector vaco del tamao por defecto.
+	 */
+	public ListaEnterosLargos() {
+		this(defaultSize);
+	}
+
+	/**
+	 * Construye un vector vaco del tamao especificado.
+	 * @param maxSize - Tamao inicial del vector
+	 */
+	public ListaEnterosLargos(final int maxSize) {
+		datos = new long[Math.max(maxSize, 1)];
+		longitud = 0;
+	}
+
+	/**
+	 * Comprueba si hay algn elemento en el vector.
+	 * @return true si el vector es vaco
+	 */
+	public boolean isEmpty() {
+		return (longitud == 0);
+	}
+
+	/**
+	 * Devuelve el tamao del vector.
+	 * @return el nmero de elementos que componen el vector
+	 */
+	public int size() {
+		return longitud;
+	}
+
+	/**
+	 * Devuelve el valor del elemento en la posicin indicada.
+	 * @param posicion - la posicin del valor que se busca, empezando a contar desde cero
+	 * @return el valor del elemento en la posicin indicada
+	 * @throws IndexOutOfBoundsException si la posicin no existe
+	 */
+	public long get(final int posicion) {
+		if (posicion < 0 || posicion >= longitud)
+			throw new IndexOutOfBoundsException("Posicin " + posicion + " fuera del vector de tamao " + longitud);
+		return datos[posicion];
+	}
+
+	/**
+	 * Sustituye el valor del elemento en la posicin indicada.
+	 * @param posicion - la posicin del elemento, empezando a contar desde cero
+	 * @param valor - nuevo valor del elemento
+	 * @throws IndexOutOfBoundsException si la posicin no existe
+	 */
+	public void replace(final int posicion, final long valor) {
+		if (posicion < 0 || posicion >= longitud)
+			throw new IndexOutOfBoundsException("Posicin " + posicion + " fuera del vector de tamao " + longitud);
+		datos[posicion] = valor;
+	}
+
+	/**
+	 * Inserta un elemento al final del vector.
+	 * @param valor - dato a insertar
+	 */
+	public void insertLast(final long valor) {
+		if( longitud == datos.length )
+			expandir(longitud + 1);
+		datos[longitud++] = valor;
+	}
+
+	/**
+	 * Inserta al final del vector, en orden, n elementos de un array.
+	 * @param valores - array del que copiar los elementos
+	 * @param desde - posicin del primer elemento a copiar
+	 * @param n - nmero de elementos a copiar
+	 */
+	public void insertAll(final long[] valores, final int desde, final int n) {
+		if( longitud + n > datos.length )
+			expandir(longitud + n);
+		System.arraycopy(valores, desde, datos, longitud, n);
+		longitud += n;
+	}
+
+	/**
+	 * Inserta al final del vector, en orden, todos los elementos de otro vector.
+	 * @param otra - vector cuyos elementos se copian
+	 */
+	public void insertAll(final ListaEnterosLargos otra) {
+		insertAll(otra.datos, 0, otra.longitud);
+	}
+
+	/**
+	 * Elimina el ltimo elemento del vector.
+	 */
+	public void removeLast() {
+		if( longitud > 0 )
+			longitud--;
+	}
+
+	/**
+	 * Elimina todos los elementos del vector, conservando su capacidad.
+	 */
+	public void removeAll() {
+		longitud = 0;
+	}
+
+	/**
+	 * Reduce la capacidad del vector a su nmero de elementos, liberando el espacio sobrante.
+	 */
+	public void trim() {
+		if( datos.length > Math.max(longitud, 1) )
+			datos = Arrays.copyOf(datos, Math.max(longitud, 1));
+	}
+
+	/**
+	 * Ordena los elementos del vector en orden creciente, en O(n log n).
+	 */
+	public void sort() {
+		Arrays.sort(datos, 0, longitud);
+	}
+
+	/**
+	 * Devuelve un array a partir del vector.
+	 * @return un array nuevo cuyos elementos son los valores del vector
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(datos, longitud);
+	}
+
+
+	// Incrementa la capacidad del vector en base a la constante de redimensionamiento, hasta al menos minimo
+	private void expandir(final int minimo) {
+		datos = Arrays.copyOf(datos, Math.max(minimo, datos.length * resizeFactor));
+	}
+
+}
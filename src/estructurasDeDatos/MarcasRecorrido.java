@@ -0,0 +1,64 @@
+package estructurasDeDatos;
+
+import java.util.Arrays;
+
+/**
+ * Estructura de marcas de recorrido reutilizable:
+ * Indica qu elementos (de 0 a size()-1) se han marcado durante un recorrido. Cada marca es el nmero de
+ * recorrido (poca) en el que se puso, as que empezar un recorrido nuevo solo incrementa la poca y no
+ * borra el array: el coste de un recorrido es proporcional a los elementos que marca.
+ */
+public class MarcasRecorrido {
+
+	// Atributos para representar el TAD
+	private final int[] sellos;
+	private int epoca;
+
+
+	/**
+	 * Constructora
+	 * @param n - nmero de elementos que pueden marcarse
+	 */
+	public MarcasRecorrido(final int n) {
+		sellos = new int[n];
+		epoca = 1;
+	}
+
+	/**
+	 * Devuelve el nmero de elementos que pueden marcarse.
+	 * @return el tamao de la estructura
+	 */
+	public int size() {
+		return sellos.length;
+	}
+
+	/**
+	 * Empieza un recorrido nuevo: desmarca todos los elementos en tiempo constante.
+	 * Solo cuando se agotan las pocas se borra el array entero.
+	 */
+	public void limpiar() {
+		if( epoca == Integer.MAX_VALUE ) {
+			Arrays.fill(sellos, 0);
+			epoca = 0;
+		}
+		epoca++;
+	}
+
+	/**
+	 * Comprueba si un elemento se ha marcado en el recorrido actual.
+	 * @param elemento - elemento a comprobar
+	 * @return true si est marcado
+	 */
+	public boolean marcado(final int elemento) {
+		return sellos[elemento] == epoca;
+	}
+
+	/**
+	 * Marca un elemento en el recorrido actual.
+	 * @param elemento - elemento a marcar
+	 */
+	public void marcar(final int elemento) {
+		sellos[elemento] = epoca;
+	}
+
+}
@@ -0,0 +1,135 @@
+package estructurasDeDatos;
+
+/**
+ * Estructura de tabla de dispersin:
+ * Asocia ternas de enteros no negativos a un valor entero, usando direccionamiento abierto con sondeo lineal.
+ * Se redimensiona en caso de superar el factor de carga mximo.
+ */
+public class TablaDispersion {
+
+	// Constantes de la tabla
+	private final static int defaultSize = 1024;
+	private final static int resizeFactor = 2;
+	private final static int cargaMaxima = 2;  // La tabla se llena como mucho hasta 1/cargaMaxima
+
+	// Atributos para representar el TAD
+	private int[] claves;
+	private int[] valores;
+	private int capacidad;
+	private int longitud;
+
+
+	/**
+	 * Construye una tabla vaca del tamao por defecto (1024).
+	 */
+	public TablaDispersion() {
+		this(defaultSize);
+	}
+
+	/**
+	 * Construye una tabla vaca con capacidad para al menos el nmero de casillas indicado.
+	 * @param tamanoInicial - Nmero de casillas inicial (se redondea a la siguiente potencia de 2)
+	 */
+	public TablaDispersion(final int tamanoInicial) {
+		capacidad = 1;
+		while( capacidad < tamanoInicial )
+			capacidad *= 2;
+		reservar();
+		longitud = 0;
+	}
+
+	/**
+	 * Devuelve el nmero de ternas almacenadas en la tabla.
+	 * @return el nmero de elementos insertados
+	 */
+	public int size() {
+		return longitud;
+	}
+
+	/**
+	 * Devuelve el valor asociado a la terna (a,b,c), o -1 si la terna no existe en la tabla.
+	 * @param a - primer entero de la terna
+	 * @param b - segundo entero de la terna
+	 * @param c - tercer entero de la terna
+	 * @return el valor asociado a la terna
+	 */
+	public int obtener(final int a, final int b, final int c) {
+		int casilla = buscarCasilla(a, b, c);
+		if( claves[3*casilla] == -1 )
+			return -1;
+		return valores[casilla];
+	}
+
+	/**
+	 * Asocia el valor indicado a la terna (a,b,c). Si la terna ya se encontraba en la tabla, reemplaza su valor.
+	 * @param a - primer entero de la terna (no negativo)
+	 * @param b - segundo entero de la terna
+	 * @param c - tercer entero de la terna
+	 * @param valor - entero a asociar
+	 */
+	public void insertar(final int a, final int b, final int c, final int valor) {
+		int casilla = buscarCasilla(a, b, c);
+		if( claves[3*casilla] == -1 ) {
+			claves[3*casilla] = a;
+			claves[3*casilla+1] = b;
+			claves[3*casilla+2] = c;
+			longitud++;
+		}
+		valores[casilla] = valor;
+		if( longitud * cargaMaxima > capacidad )
+			expandir();
+	}
+
+	/**
+	 * Elimina todos los elementos de la tabla.
+	 */
+	public void removeAll() {
+		for( int i = 0; i < capacidad; ++i )
+			claves[3*i] = -1;
+		longitud = 0;
+	}
+
+
+	// Devuelve la casilla en la que est la terna, o la casilla libre en la que correspondera insertarla
+	private int buscarCasilla(final int a, final int b, final int c) {
+		final int mascara = capacidad - 1;
+		int casilla = dispersion(a, b, c) & mascara;
+		while( claves[3*casilla] != -1 && (claves[3*casilla] != a || claves[3*casilla+1] != b || claves[3*casilla+2] != c) )
+			casilla = (casilla + 1) & mascara;
+		return casilla;
+	}
+
+	// Funcin de dispersin de la terna: mezcla los tres enteros y reparte los bits altos sobre los bajos
+	private static int dispersion(final int a, final int b, final int c) {
+		int h = a * 0x9E3779B1;
+		h = (h ^ b) * 0x85EBCA6B;
+		h = (h ^ c) * 0xC2B2AE35;
+		return h ^ (h >>> 16);
+	}
+
+	// Reserva los arrays segn la capacidad actual, con todas las casillas libres
+	private void reservar() {
+		claves = new int[3*capacidad];
+		valores = new int[capacidad];
+		for( int i = 0; i < capacidad; ++i )
+			claves[3*i] = -1;
+	}
+
+	// Incrementa la capacidad de la tabla en base a la constante de redimensionamiento y recoloca las ternas
+	private void expandir() {
+		int[] viejasClaves = claves, viejosValores = valores;
+		int viejaCapacidad = capacidad, casilla;
+		capacidad *= resizeFactor;
+		reservar();
+		for( int i = 0; i < viejaCapacidad; ++i ) {
+			if( viejasClaves[3*i] != -1 ) {
+				casilla = buscarCasilla(viejasClaves[3*i], viejasClaves[3*i+1], viejasClaves[3*i+2]);
+				claves[3*casilla] = viejasClaves[3*i];
+				claves[3*casilla+1] = viejasClaves[3*i+1];
+				claves[3*casilla+2] = viejasClaves[3*i+2];
+				valores[casilla] = viejosValores[i];
+			}
+		}
+	}
+
+}
@@ -3,48 +3,79 @@ package estructurasDeDatos;
 /**
  * Estructura de rbol de prefijos:
  * Operaciones para codificar/descodificar Strings con enteros.
+ * Cada nodo del rbol representa un carcter; ver TrieRadix para una versin comprimida.
  */
-public class Trie {	
+public class Trie implements Diccionario {
 
 	/**
 	 * Clase interna: nodo del rbol, contiene un valor nmerico y un array de punteros a nodos hijos ordenados.
+	 * Las letras de las ramas se guardan en un array ordenado paralelo al de hijos, y se buscan por bsqueda binaria.
 	 */
-	private class NodoTrie implements Comparable<NodoTrie> {
+	private static class NodoTrie {
 		// Atributos
 		private int valor;
-		private final char letra;
-		private final ListaEnlazada<NodoTrie> ramas;
+		private char[] letras;
+		private NodoTrie[] ramas;
+		private int numRamas;
 		// Constructora
-		public NodoTrie(final int valorInicial, final char valorCaracter) {
+		public NodoTrie(final int valorInicial) {
 			valor = valorInicial;
-			letra = valorCaracter;
-			ramas = new ListaEnlazada<NodoTrie>();
+			letras = sinLetras;
+			ramas = sinRamas;
+			numRamas = 0;
 		}
-		// Comparadora de orden
-		@Override
-		public int compareTo(final NodoTrie a) {
-			return (letra - a.letra);
+		// Devuelve la posicin de la rama con la letra c, o (-(posicin en la que insertarla) - 1) si no existe
+		public int buscarRama(final char c) {
+			int menor = 0, mayor = numRamas - 1, mitad;
+			while( menor <= mayor ) {
+				mitad = (menor+mayor) >>> 1;
+				if( letras[mitad] < c )
+					menor = mitad + 1;
+				else if( letras[mitad] > c )
+					mayor = mitad - 1;
+				else
+					return mitad;
+			}
+			return -(menor + 1);
 		}
-		// Comparadora de igualdad
-		@Override
-		public boolean equals(final Object a) {
-			return (letra == ((NodoTrie)a).letra);
+		// Inserta una rama nueva con la letra c en la posicin indicada, manteniendo el orden
+		public NodoTrie insertarRama(final int posicion, final char c) {
+			if( numRamas == letras.length ) {
+				int capacidad = (numRamas == 0) ? 1 : numRamas * 2;
+				char[] nuevasLetras = new char[capacidad];
+				NodoTrie[] nuevasRamas = new NodoTrie[capacidad];
+				System.arraycopy(letras, 0, nuevasLetras, 0, numRamas);
+				System.arraycopy(ramas, 0, nuevasRamas, 0, numRamas);
+				letras = nuevasLetras;
+				ramas = nuevasRamas;
+			}
+			System.arraycopy(letras, posicion, letras, posicion+1, numRamas-posicion);
+			System.arraycopy(ramas, posicion, ramas, posicion+1, numRamas-posicion);
+			NodoTrie nuevo = new NodoTrie(-1);
+			letras[posicion] = c;
+			ramas[posicion] = nuevo;
+			numRamas++;
+			return nuevo;
 		}
 	}
-	
+
+	// Arrays vacos compartidos por los nodos hoja
+	private static final char[] sinLetras = new char[0];
+	private static final NodoTrie[] sinRamas = new NodoTrie[0];
+
 	// ATRIBUTOS DE LA CLASE
 	private final NodoTrie inicio;
 	private int numElementos;
-	
-	
+
+
 	/**
 	 * Constructora
 	 */
 	public Trie() {
-		inicio = new NodoTrie(-1,'\0');
+		inicio = new NodoTrie(-1);
 		numElementos = 0;
 	}
-	
+
 	/**
 	 * Devuelve el nmero de nodos del rbol que contienen un valor distinto a -1.
 	 * @return el nmero de elementos insertados
@@ -52,21 +83,21 @@ public class Trie {
 	public int size() {
 		return numElementos;
 	}
-	
+
 	/**
 	 * Devuelve el valor numrico correspondiente a un String, o -1 si el String no existe en el trie.
 	 * @param s - String a codificar
 	 * @return el entero asignado al string s
 	 */
-	public int obtenerValor( final String s ) {
+	public int obtenerValor( final CharSequence s ) {
 		NodoTrie puntero = inicio;
+		int rama;
 		for( int i = 0; i < s.length(); i++ ) {
-			if( puntero == null )
+			rama = puntero.buscarRama(s.charAt(i));
+			if( rama < 0 )
 				return -1;
-			else
-				puntero = puntero.ramas.elementMatch( new NodoTrie(-1,s.charAt(i)) );							
+			puntero = puntero.ramas[rama];
 		}
-		if( puntero == null ) return -1;
 		return puntero.valor;
 	}
 
@@ -74,55 +105,48 @@ public class Trie {
 	 * Inserta el String s en el rbol, asignndole el entero valor.
 	 * Si ya se encontraba en el rbol, devuelve su entero correspondiente sin modificarlo.
 	 * @param s - String a insertar
-	 * @param valor - Entero que se le asignar 
+	 * @param valor - Entero que se le asignar
 	 * @return el valor correspondiente al String s
 	 */
 	public int insertar( final String s, final int valor ) {
-		boolean insertado = false;
-		NodoTrie puntero = inicio, buscar;
+		NodoTrie puntero = inicio;
+		int rama;
 		for( int i = 0; i < s.length(); i++ ) {
-			buscar = puntero.ramas.elementMatch( new NodoTrie(-1,s.charAt(i)) );
-			if( buscar == null ) {
-				// Si el nodo no existe, la palabra no existe y se inserta el nodo hijo necesario
-				NodoTrie nuevo = new NodoTrie(-1,s.charAt(i));
-				puntero.ramas.insertOrdered(nuevo);
-				puntero = nuevo;
-				insertado = true;
+			rama = puntero.buscarRama(s.charAt(i));
+			if( rama < 0 ) {
+				// Si el nodo no existe, se inserta el nodo hijo necesario
+				puntero = puntero.insertarRama(-(rama + 1), s.charAt(i));
 			} else {
-				puntero = buscar;
+				puntero = puntero.ramas[rama];
 			}
 		}
-		if( insertado ) {
+		if( puntero.valor == -1 ) {
 			puntero.valor = valor;
 			numElementos++;
 		}
 		return puntero.valor;
 	}
-	
+
 	/**
 	 * Recorre el rbol y devuelve una lista con los enteros acorde al orden lexicogrfico de sus correspondientes strings.
 	 * @return un array de enteros segn el orden de los strings que representan
 	 */
-	public ListaArray<Integer> recorrerEnProfundidad() {
-		ListaArray<Integer> recorrido = new ListaArray<Integer>(numElementos);
+	public ListaEnteros recorrerEnProfundidad() {
+		ListaEnteros recorrido = new ListaEnteros(numElementos);
 		DFS(inicio, recorrido);
 		return recorrido;
 	}
-	
+
 	/**
 	 * Funcin recursiva que recorre el rbol.
 	 * @param n - Nodo del rbol desde el que recorrer
 	 * @param lista - Array en el que guardar el resultado del recorrido
 	 */
-	private void DFS( final NodoTrie n, final ListaArray<Integer> lista ) {
-		if( n.ramas.isEmpty() ) {
+	private void DFS( final NodoTrie n, final ListaEnteros lista ) {
+		if( n.valor != -1 )
 			lista.insertLast(n.valor);
-		} else {
-			if( n.valor != -1 )
-				lista.insertLast(n.valor);
-			for( NodoTrie nodo : n.ramas )
-				DFS( nodo, lista );
-		}
+		for( int i = 0; i < n.numRamas; ++i )
+			DFS( n.ramas[i], lista );
 	}
-	
+
 }
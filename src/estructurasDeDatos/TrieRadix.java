@@ -0,0 +1,186 @@
+package estructurasDeDatos;
+
+/**
+ * Estructura de rbol de prefijos comprimido (radix):
+ * Operaciones para codificar/descodificar Strings con enteros, igual que Trie.
+ * Las cadenas de nodos con un nico hijo y sin valor se fusionan en una sola rama etiquetada con varios
+ * caracteres, de forma que el nmero de nodos es proporcional al nmero de Strings y no a su longitud.
+ * Las etiquetas no copian caracteres: son un fragmento de alguno de los Strings insertados.
+ */
+public class TrieRadix implements Diccionario {
+
+	/**
+	 * Clase interna: nodo del rbol, contiene un valor nmerico, la etiqueta de la rama que llega a l y
+	 * un array de punteros a nodos hijos ordenados segn el primer carcter de su etiqueta.
+	 */
+	private static class NodoRadix {
+		// Atributos
+		private int valor;
+		private String clave;
+		private int desde, hasta;  // La etiqueta es clave[desde..hasta)
+		private char[] letras;
+		private NodoRadix[] ramas;
+		private int numRamas;
+		// Constructora
+		public NodoRadix(final int valorInicial, final String s, final int inicio, final int fin) {
+			valor = valorInicial;
+			clave = s;
+			desde = inicio;
+			hasta = fin;
+			letras = sinLetras;
+			ramas = sinRamas;
+			numRamas = 0;
+		}
+		// Longitud de la etiqueta
+		public int longitud() {
+			return hasta - desde;
+		}
+		// Carcter i-simo de la etiqueta
+		public char letra(final int i) {
+			return clave.charAt(desde + i);
+		}
+		// Devuelve la posicin de la rama que empieza por c, o (-(posicin en la que insertarla) - 1) si no existe
+		public int buscarRama(final char c) {
+			int menor = 0, mayor = numRamas - 1, mitad;
+			while( menor <= mayor ) {
+				mitad = (menor+mayor) >>> 1;
+				if( letras[mitad] < c )
+					menor = mitad + 1;
+				else if( letras[mitad] > c )
+					mayor = mitad - 1;
+				else
+					return mitad;
+			}
+			return -(menor + 1);
+		}
+		// Inserta el nodo como rama en la posicin indicada, manteniendo el orden
+		public void insertarRama(final int posicion, final NodoRadix nodo) {
+			if( numRamas == letras.length ) {
+				int capacidad = (numRamas == 0) ? 1 : numRamas * 2;
+				char[] nuevasLetras = new char[capacidad];
+				NodoRadix[] nuevasRamas = new NodoRadix[capacidad];
+				System.arraycopy(letras, 0, nuevasLetras, 0, numRamas);
+				System.arraycopy(ramas, 0, nuevasRamas, 0, numRamas);
+				letras = nuevasLetras;
+				ramas = nuevasRamas;
+			}
+			System.arraycopy(letras, posicion, letras, posicion+1, numRamas-posicion);
+			System.arraycopy(ramas, posicion, ramas, posicion+1, numRamas-posicion);
+			letras[posicion] = nodo.letra(0);
+			ramas[posicion] = nodo;
+			numRamas++;
+		}
+	}
+
+	// Arrays vacos compartidos por los nodos hoja
+	private static final char[] sinLetras = new char[0];
+	private static final NodoRadix[] sinRamas = new NodoRadix[0];
+
+	// ATRIBUTOS DE LA CLASE
+	private final NodoRadix inicio;
+	private int numElementos;
+
+
+	/**
+	 * Constructora
+	 */
+	public TrieRadix() {
+		inicio = new NodoRadix(-1, "", 0, 0);
+		numElementos = 0;
+	}
+
+	/**
+	 * Devuelve el nmero de Strings insertados en el rbol.
+	 * @return el nmero de elementos insertados
+	 */
+	public int size() {
+		return numElementos;
+	}
+
+	/**
+	 * Devuelve el valor numrico correspondiente a un String, o -1 si el String no existe en el trie.
+	 * @param s - String a codificar
+	 * @return el entero asignado al string s
+	 */
+	public int obtenerValor( final CharSequence s ) {
+		NodoRadix puntero = inicio;
+		int i = 0, rama, k;
+		while( i < s.length() ) {
+			rama = puntero.buscarRama(s.charAt(i));
+			if( rama < 0 )
+				return -1;
+			puntero = puntero.ramas[rama];
+			// La etiqueta completa debe coincidir con el fragmento de s
+			if( puntero.longitud() > s.length() - i )
+				return -1;
+			for( k = 1; k < puntero.longitud(); ++k )
+				if( puntero.letra(k) != s.charAt(i+k) )
+					return -1;
+			i += puntero.longitud();
+		}
+		return puntero.valor;
+	}
+
+	/**
+	 * Inserta el String s en el rbol, asignndole el entero valor.
+	 * Si ya se encontraba en el rbol, devuelve su entero correspondiente sin modificarlo.
+	 * @param s - String a insertar
+	 * @param valor - Entero que se le asignar
+	 * @return el valor correspondiente al String s
+	 */
+	public int insertar( final String s, final int valor ) {
+		NodoRadix puntero = inicio, hijo, intermedio;
+		int i = 0, rama, k;
+		while( i < s.length() ) {
+			rama = puntero.buscarRama(s.charAt(i));
+			if( rama < 0 ) {
+				// No hay rama que empiece por el carcter: el resto de s forma una hoja nueva
+				puntero.insertarRama(-(rama + 1), new NodoRadix(valor, s, i, s.length()));
+				numElementos++;
+				return valor;
+			}
+			hijo = puntero.ramas[rama];
+			k = 1;
+			while( k < hijo.longitud() && i+k < s.length() && hijo.letra(k) == s.charAt(i+k) )
+				k++;
+			if( k < hijo.longitud() ) {
+				// La etiqueta solo coincide en parte: se divide la rama con un nodo intermedio
+				intermedio = new NodoRadix(-1, hijo.clave, hijo.desde, hijo.desde + k);
+				hijo.desde += k;
+				intermedio.insertarRama(0, hijo);
+				puntero.ramas[rama] = intermedio;
+				hijo = intermedio;
+			}
+			puntero = hijo;
+			i += k;
+		}
+		if( puntero.valor == -1 ) {
+			puntero.valor = valor;
+			numElementos++;
+		}
+		return puntero.valor;
+	}
+
+	/**
+	 * Recorre el rbol y devuelve una lista con los enteros acorde al orden lexicogrfico de sus correspondientes strings.
+	 * @return un array de enteros segn el orden de los strings que representan
+	 */
+	public ListaEnteros recorrerEnProfundidad() {
+		ListaEnteros recorrido = new ListaEnteros(numElementos);
+		DFS(inicio, recorrido);
+		return recorrido;
+	}
+
+	/**
+	 * Funcin recursiva que recorre el rbol.
+	 * @param n - Nodo del rbol desde el que recorrer
+	 * @param lista - Array en el que guardar el resultado del recorrido
+	 */
+	private void DFS( final NodoRadix n, final ListaEnteros lista ) {
+		if( n.valor != -1 )
+			lista.insertLast(n.valor);
+		for( int i = 0; i < n.numRamas; ++i )
+			DFS( n.ramas[i], lista );
+	}
+
+}
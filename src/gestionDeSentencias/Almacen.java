@@ -1,49 +1,744 @@
 package gestionDeSentencias;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 import estructurasDeDatos.*;
 
 /**
  * Almacn de sentencias:
  * Contiene todas las sentencias de un fichero y las operaciones definidas para trabajar sobre ellas.
+ * Mientras no est congelado, pueden aadirse y eliminarse sentencias (ver insertar y eliminar).
+ * Los cambios pueden hacerse duraderos con un registro de cambios sobre una copia del almacn (ver recuperar).
+ * Concurrencia: las consultas (1 a 11, los caminos de propiedades y descargar) no modifican el almacn ni usan estado compartido, as
+ * que un almacn congelado (ver congelar) puede consultarse desde varios hilos a la vez sin bloqueos.
  * @author Daniel, Ivn, Asier
  */
 public class Almacen {
 
 	/**
-	 * Estructura de arista del grafo.
-	 * Indica el vrtice ligado, su peso (la propiedad) y el nmero de veces que aparece repetida.
+	 * Clase interna: recorrido perezoso del resultado de una consulta.
+	 * Cada elemento se calcula cuando se pide, de modo que el resultado completo nunca est en memoria.
 	 */
-	private class Arista implements Comparable<Arista> {
+	private static abstract class Recorrido implements Iterator<String> {
 		// Atributos
-		private final int verticeObjetivo, propiedad;
-		private int repeticiones;
-		// Constructora
-		public Arista(final int Objetivo, final int Propiedad) {
-			verticeObjetivo = Objetivo;
-			propiedad = Propiedad;
-			repeticiones = 1;
+		private String proximo;
+		private boolean calculado = false;
+		// Calcula el siguiente elemento del recorrido, o null si no hay ms
+		protected abstract String avanzar();
+		// Se llama una sola vez, cuando avanzar devuelve null por primera vez
+		protected void terminar() {}
+		// Mtodos
+		public boolean hasNext() {
+			if( !calculado ) {
+				proximo = avanzar();
+				calculado = true;
+				if( proximo == null )
+					terminar();
+			}
+			return (proximo != null);
 		}
-		// Otra constructora
-		public Arista(final int Objetivo, final int Propiedad, final int Repeticiones) {
-			verticeObjetivo = Objetivo;
-			propiedad = Propiedad;
-			repeticiones = Repeticiones;
+		public String next() {
+			if( !hasNext() )
+				throw new NoSuchElementException();
+			calculado = false;
+			return proximo;
+		}
+		public void remove()
+			{ throw new UnsupportedOperationException(); }
+	}
+	
+	/**
+	 * Clase interna: recorrido que marca los nodos por los que pasa. Las marcas se toman prestadas de las del
+	 * hilo que crea el recorrido y se devuelven al terminarlo, de modo que no se reserva ni se borra un array
+	 * por consulta. Si el recorrido no se termina, las marcas no se devuelven y el siguiente crea otras.
+	 */
+	private abstract class RecorridoMarcado extends Recorrido {
+		// Atributos
+		protected final MarcasRecorrido marcas;
+		private final boolean prestadas;
+		// Constructora con las marcas del hilo
+		protected RecorridoMarcado() {
+			marcas = tomarMarcas();
+			prestadas = true;
+		}
+		// Constructora con marcas ajenas, que no se devuelven al terminar (o con las del hilo si son null)
+		protected RecorridoMarcado( MarcasRecorrido marcas ) {
+			prestadas = (marcas == null);
+			this.marcas = prestadas ? tomarMarcas() : marcas;
 		}
-		
-		// Comparadora en orden lexicogrfico segn propiedades y objetos
 		@Override
-		public int compareTo(final Arista a) {
-			if( this.propiedad == a.propiedad )
-				return listaSujetosObjetos.get(this.verticeObjetivo).compareTo(listaSujetosObjetos.get(a.verticeObjetivo));
+		protected void terminar() {
+			if( prestadas )
+				devolverMarcas(marcas);
+		}
+	}
+	
+	/**
+	 * Clase interna: recorrido de las sentencias de un rango de nodos, tomados por ndice o por orden
+	 * lexicogrfico (y en ese caso tambin con las aristas ordenadas). Cada sentencia se construye una vez,
+	 * y se devuelve tantas veces como se repite si as se indica.
+	 */
+	private class RecorridoSentencias extends Recorrido {
+		// Atributos
+		private final boolean ordenado, repetir;
+		private int posicion, finPosiciones, nodo, arista, finAristas, repeticion, repeticiones;
+		private String actual;
+		// Constructora
+		public RecorridoSentencias( int desde, int hasta, boolean enOrden, boolean conRepeticiones ) {
+			ordenado = enOrden;
+			repetir = conRepeticiones;
+			posicion = desde;
+			finPosiciones = hasta;
+			arista = finAristas = repeticion = repeticiones = 0;
+		}
+		protected String avanzar() {
+			if( repeticion < repeticiones ) {
+				repeticion++;
+				return actual;
+			}
+			// Pasar al siguiente nodo con aristas salientes
+			while( arista == finAristas ) {
+				if( posicion == finPosiciones )
+					return null;
+				nodo = ordenado ? entidades.valorEnPosicion(posicion) : posicion;
+				posicion++;
+				arista = grafo.inicioSalientes(nodo);
+				finAristas = grafo.finSalientes(nodo);
+			}
+			int a = ordenado ? aristasOrdenadas[arista] : arista;
+			arista++;
+			actual = sentencia(nodo, grafo.propiedadSaliente(a), grafo.destinoSaliente(a));
+			repeticiones = repetir ? grafo.repeticionesSaliente(a) : 1;
+			repeticion = 1;
+			return actual;
+		}
+	}
+	
+	/**
+	 * Clase interna: recorrido en profundidad de una jerarqua, con una pila explcita en lugar de recursin,
+	 * en el sentido de las aristas salientes o de las entrantes. En cada nodo se siguen dos grupos de aristas,
+	 * mezclados segn su posicin en el grafo: las de peso 'hoja', cuyo otro extremo se devuelve, y las de peso
+	 * 'rama', desde cuyo otro extremo contina el recorrido (y que tambin se devuelve si as se indica).
+	 * Los pesos que se siguen desde el nodo inicial pueden ser distintos de los de los dems niveles.
+	 * Cada nodo se alcanza una sola vez; un peso -1 indica que no se sigue ninguna arista de ese tipo.
+	 */
+	private class RecorridoJerarquia extends RecorridoMarcado {
+		// Atributos
+		private final boolean saliente, devolverRamas;
+		private final int propiedadHoja, propiedadRama;
+		private int[] pila = new int[4*16];  // {actualHoja, finHoja, actualRama, finRama} por nivel
+		private int altura = 0;
+		// Constructora (marcas == null para usar las del hilo)
+		public RecorridoJerarquia( int nodo, boolean saliente, int hojaInicial, int ramaInicial, int hoja, int rama,
+				boolean devolverRamas, MarcasRecorrido marcas ) {
+			super(marcas);
+			this.saliente = saliente;
+			this.devolverRamas = devolverRamas;
+			propiedadHoja = hoja;
+			propiedadRama = rama;
+			apilar(nodo, hojaInicial, ramaInicial);
+		}
+		// Aade a la pila los grupos de aristas del nodo con los pesos indicados
+		private void apilar( int nodo, int hoja, int rama ) {
+			if( 4*altura == pila.length )
+				pila = Arrays.copyOf(pila, 2*pila.length);
+			int f = 4*altura++;
+			int grupoHoja = saliente ? grafo.grupoSalientes(nodo, hoja) : grafo.grupoEntrantes(nodo, hoja);
+			int grupoRama = saliente ? grafo.grupoSalientes(nodo, rama) : grafo.grupoEntrantes(nodo, rama);
+			pila[f] = pila[f+1] = pila[f+2] = pila[f+3] = 0;
+			if( grupoHoja != -1 ) {
+				pila[f] = saliente ? grafo.inicioGrupoSalientes(grupoHoja) : grafo.inicioGrupoEntrantes(grupoHoja);
+				pila[f+1] = saliente ? grafo.finGrupoSalientes(grupoHoja) : grafo.finGrupoEntrantes(grupoHoja);
+			}
+			if( grupoRama != -1 ) {
+				pila[f+2] = saliente ? grafo.inicioGrupoSalientes(grupoRama) : grafo.inicioGrupoEntrantes(grupoRama);
+				pila[f+3] = saliente ? grafo.finGrupoSalientes(grupoRama) : grafo.finGrupoEntrantes(grupoRama);
+			}
+		}
+		// Arista del grafo que ocupa la posicin indicada de los grupos
+		private int arista( int posicion ) {
+			return saliente ? grafo.aristaAgrupadaSaliente(posicion) : grafo.aristaAgrupadaEntrante(posicion);
+		}
+		// Otro extremo de una arista
+		private int extremo( int arista ) {
+			return saliente ? grafo.destinoSaliente(arista) : grafo.origenEntrante(arista);
+		}
+		protected String avanzar() {
+			int nodo = siguienteNodo();
+			return (nodo == -1) ? null : entidades.obtenerString(nodo);
+		}
+		// Devuelve el siguiente nodo del resultado, o -1 si se ha terminado el recorrido
+		public int siguienteNodo() {
+			int f, hoja, rama, nodo;
+			while( altura > 0 ) {
+				f = 4*(altura-1);
+				if( pila[f] == pila[f+1] && pila[f+2] == pila[f+3] ) {
+					altura--;
+					continue;
+				}
+				hoja = (pila[f] < pila[f+1]) ? arista(pila[f]) : Integer.MAX_VALUE;
+				rama = (pila[f+2] < pila[f+3]) ? arista(pila[f+2]) : Integer.MAX_VALUE;
+				if( hoja <= rama ) {
+					pila[f]++;
+					nodo = extremo(hoja);
+					if( !marcas.marcado(nodo) ) {
+						marcas.marcar(nodo);
+						return nodo;
+					}
+				} else {
+					pila[f+2]++;
+					nodo = extremo(rama);
+					if( !marcas.marcado(nodo) ) {
+						marcas.marcar(nodo);
+						apilar(nodo, propiedadHoja, propiedadRama);
+						if( devolverRamas )
+							return nodo;
+					}
+				}
+			}
+			return -1;
+		}
+	}
+	
+	/**
+	 * Clase interna: clases de un nodo segn el ndice de clases. Para cada destino de sus aristas de un peso
+	 * ('es' para las clases de un sujeto, 'subClaseDe' para las superclases de una clase) se devuelve el destino
+	 * y despus su cierre de superclases, saltando los ya devueltos. El resultado y su orden son los mismos que
+	 * los de RecorridoJerarquia: el conjunto de nodos devueltos siempre contiene las superclases de cada uno.
+	 */
+	private class RecorridoCierre extends RecorridoMarcado {
+		// Atributos
+		private final IndiceClases indice;
+		private int arista, finAristas, actual, finActual;
+		// Constructora
+		public RecorridoCierre( IndiceClases indice, int nodo, int propiedad ) {
+			this.indice = indice;
+			int grupo = grafo.grupoSalientes(nodo, propiedad);
+			arista = finAristas = actual = finActual = 0;
+			if( grupo != -1 ) {
+				arista = grafo.inicioGrupoSalientes(grupo);
+				finAristas = grafo.finGrupoSalientes(grupo);
+			}
+		}
+		protected String avanzar() {
+			int nodo;
+			while( actual < finActual || arista < finAristas ) {
+				if( actual < finActual ) {
+					nodo = indice.superClases[actual++];
+				} else {
+					nodo = grafo.destinoSaliente(grafo.aristaAgrupadaSaliente(arista++));
+					// Si ya se ha devuelto, tambin se han devuelto todas sus superclases
+					if( marcas.marcado(nodo) )
+						continue;
+					actual = indice.inicioSuperClases[nodo];
+					finActual = indice.inicioSuperClases[nodo+1];
+				}
+				if( marcas.marcado(nodo) )
+					continue;
+				marcas.marcar(nodo);
+				return entidades.obtenerString(nodo);
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Clase interna: resolucin de una consulta de patrones, con una bsqueda en profundidad que asigna valores
+	 * a las variables patrn a patrn, en el orden elegido. Para cada patrn se recorren las aristas que pueden
+	 * encajar con los valores ya asignados: las salientes del sujeto o las entrantes del objeto si alguno tiene
+	 * valor (el de menos aristas si lo tienen los dos), y solo si ninguno lo tiene las de todos los nodos.
+	 * Si la propiedad tiene valor, basta con recorrer su grupo.
+	 */
+	private class ResolucionPatrones {
+		// Atributos
+		private final int[] terminos, orden, valores;
+		private final boolean[] variablePropiedad;
+		private final ListaEnlazada<ListaArray<String>> soluciones = new ListaEnlazada<ListaArray<String>>();
+		// Constructora: trminos de los patrones (constantes >= 0, la variable v como -(v+1)) y orden de resolucin
+		public ResolucionPatrones( int[] terminos, int[] orden, int numVariables ) {
+			this.terminos = terminos;
+			this.orden = orden;
+			valores = new int[numVariables];
+			Arrays.fill(valores, -1);
+			variablePropiedad = new boolean[numVariables];
+			for( int j = 1; j < terminos.length; j += 3 )
+				if( terminos[j] < 0 )
+					variablePropiedad[-terminos[j]-1] = true;
+		}
+		// Valor de un trmino con las asignaciones actuales, o -1 si es una variable sin valor
+		private int valor( int termino ) {
+			return (termino >= 0) ? termino : valores[-termino-1];
+		}
+		// Comprueba si un trmino es una variable sin valor
+		private boolean libre( int termino ) {
+			return termino < 0 && valores[-termino-1] == -1;
+		}
+		// Da un valor a un trmino si es una variable libre, o comprueba que ya lo tiene
+		private boolean asignar( int termino, int valor ) {
+			if( termino >= 0 )
+				return termino == valor;
+			if( valores[-termino-1] == -1 )
+				valores[-termino-1] = valor;
+			return valores[-termino-1] == valor;
+		}
+		// Busca las soluciones a partir del patrn que ocupa el nivel indicado del orden
+		public void resolver( int nivel ) {
+			if( nivel == orden.length ) {
+				ListaArray<String> solucion = new ListaArray<String>(valores.length);
+				for( int v = 0; v < valores.length; ++v )
+					solucion.insertLast(variablePropiedad[v] ? nombresPropiedades.obtenerString(valores[v]) : entidades.obtenerString(valores[v]));
+				soluciones.insertLast(solucion);
+				return;
+			}
+			int j = 3*orden[nivel];
+			int sujeto = valor(terminos[j]), propiedad = valor(terminos[j+1]), objeto = valor(terminos[j+2]);
+			if( sujeto != -1 && (objeto == -1 || grafo.gradoSaliente(sujeto) <= grafo.gradoEntrante(objeto)) )
+				recorrerAristas(nivel, sujeto, true, propiedad, objeto);
+			else if( objeto != -1 )
+				recorrerAristas(nivel, objeto, false, propiedad, sujeto);
 			else
-				return listaPropiedades.get(this.propiedad).compareTo(listaPropiedades.get(a.propiedad));
+				for( int v = 0; v < grafo.numNodos(); ++v )
+					recorrerAristas(nivel, v, true, propiedad, -1);
 		}
-		// Comparadora de igualdad de la arista
-		@Override
-		public boolean equals(final Object a) {
-			return (verticeObjetivo == ((Arista)a).verticeObjetivo) && (propiedad == ((Arista)a).propiedad);
+		// Prueba con el patrn del nivel las aristas de un nodo en un sentido, con el otro extremo fijo (o -1)
+		private void recorrerAristas( int nivel, int nodo, boolean saliente, int propiedad, int otro ) {
+			int inicio, fin, grupo;
+			if( propiedad != -1 ) {
+				grupo = saliente ? grafo.grupoSalientes(nodo, propiedad) : grafo.grupoEntrantes(nodo, propiedad);
+				if( grupo == -1 )
+					return;
+				inicio = saliente ? grafo.inicioGrupoSalientes(grupo) : grafo.inicioGrupoEntrantes(grupo);
+				fin = saliente ? grafo.finGrupoSalientes(grupo) : grafo.finGrupoEntrantes(grupo);
+			} else {
+				inicio = saliente ? grafo.inicioSalientes(nodo) : grafo.inicioEntrantes(nodo);
+				fin = saliente ? grafo.finSalientes(nodo) : grafo.finEntrantes(nodo);
+			}
+			int j = 3*orden[nivel], arista, extremo;
+			boolean libreSujeto = libre(terminos[j]), librePropiedad = libre(terminos[j+1]), libreObjeto = libre(terminos[j+2]);
+			for( int i = inicio; i < fin; ++i ) {
+				if( propiedad == -1 )
+					arista = i;
+				else
+					arista = saliente ? grafo.aristaAgrupadaSaliente(i) : grafo.aristaAgrupadaEntrante(i);
+				extremo = saliente ? grafo.destinoSaliente(arista) : grafo.origenEntrante(arista);
+				if( otro != -1 && extremo != otro )
+					continue;
+				if( asignar(terminos[j], saliente ? nodo : extremo)
+						&& asignar(terminos[j+1], saliente ? grafo.propiedadSaliente(arista) : grafo.propiedadEntrante(arista))
+						&& asignar(terminos[j+2], saliente ? extremo : nodo) )
+					resolver(nivel+1);
+				// Se deshacen las asignaciones de este nivel
+				if( libreSujeto )
+					valores[-terminos[j]-1] = -1;
+				if( librePropiedad )
+					valores[-terminos[j+1]-1] = -1;
+				if( libreObjeto )
+					valores[-terminos[j+2]-1] = -1;
+			}
+		}
+	}
+	
+	/**
+	 * Estructura del ndice de clases: cierre de superclases y entidades de cada clase, en el mismo orden en
+	 * que los devuelve RecorridoJerarquia. Los del nodo v ocupan las posiciones
+	 * inicio[v] .. inicio[v+1]-1 de cada array. Una vez construido, no se modifica.
+	 */
+	private static final class IndiceClases {
+		// Superclases de cada nodo, sin incluirlo a l mismo aunque haya ciclos
+		private final int[] inicioSuperClases, superClases;
+		// Entidades que son de cada clase (consulta 8)
+		private final int[] inicioEntidades, entidadesDeClase;
+		// Constructora
+		public IndiceClases( int[] inicioSuperClases, int[] superClases, int[] inicioEntidades, int[] entidadesDeClase ) {
+			this.inicioSuperClases = inicioSuperClases;
+			this.superClases = superClases;
+			this.inicioEntidades = inicioEntidades;
+			this.entidadesDeClase = entidadesDeClase;
+		}
+	}
+	
+	/**
+	 * Clase interna: descarga de todas las sentencias con varios hilos. Los nodos se reparten en tramos consecutivos
+	 * cuyas sentencias ocupan como mucho un buffer (salvo las de un nodo que no quepan solas en uno): como la longitud
+	 * de cada String se conoce, los tramos se calculan antes de codificar nada. Cada hilo toma un buffer libre y
+	 * despus el siguiente tramo, y lo codifica; el hilo que llama escribe los tramos en orden en el fichero y
+	 * devuelve sus buffers. Como el buffer se toma antes que el tramo, el siguiente tramo a escribir siempre tiene
+	 * buffer, y el nmero de buffers (dos por hilo) limita la memoria usada.
+	 * Si se comprime, cada hilo comprime adems su tramo como un miembro gzip independiente y devuelve el buffer:
+	 * los miembros escritos uno tras otro forman un nico fichero gzip vlido.
+	 * Un nodo cuyas sentencias no caben en un array no se codifica en un buffer: el hilo que escribe lo escribe
+	 * directamente en el fichero cuando le llega su turno, igual que descargar.
+	 */
+	private class DescargaParalela {
+		// Mximo de bytes de un tramo que se codifica en un array
+		private static final long maxTramo = Integer.MAX_VALUE - 8;
+		// Tramos: el t-simo son los nodos inicioTramo[t] .. inicioTramo[t+1]-1, y sus sentencias ocupan bytesTramo[t] bytes
+		private final int[] inicioTramo;
+		private final long[] bytesTramo;
+		// Tramos codificados y an no escritos (null si no se han codificado, secuencial si no caben en un array),
+		// y si se comprimen
+		private final byte[][] codificados;
+		private final byte[] secuencial = new byte[0];
+		private final boolean comprimir;
+		// Buffers libres, y siguiente tramo por codificar
+		private final ArrayBlockingQueue<byte[]> libres;
+		private final AtomicInteger siguiente = new AtomicInteger(0);
+		// Error producido en uno de los hilos
+		private volatile IOException error;
+		// Constructora
+		public DescargaParalela( int numBuffers, int tamBuffer, boolean comprimir ) {
+			this.comprimir = comprimir;
+			int[] longitudEntidad = entidades.longitudes(), longitudPropiedad = nombresPropiedades.longitudes();
+			ListaEnteros inicios = new ListaEnteros();
+			ListaEnterosLargos bytes = new ListaEnterosLargos();
+			long bytesNodo, bytesActual = 0;
+			for( int v = 0; v < grafo.numNodos(); ++v ) {
+				bytesNodo = 0;
+				for( int a = grafo.inicioSalientes(v); a < grafo.finSalientes(v); ++a )
+					bytesNodo += (long) grafo.repeticionesSaliente(a) * (longitudEntidad[v] + longitudPropiedad[grafo.propiedadSaliente(a)]
+							+ longitudEntidad[grafo.destinoSaliente(a)] + 2 + finSentencia.length);
+				if( inicios.isEmpty() || (bytesActual > 0 && bytesActual + bytesNodo > tamBuffer) ) {
+					if( !inicios.isEmpty() )
+						bytes.insertLast(bytesActual);
+					inicios.insertLast(v);
+					bytesActual = 0;
+				}
+				bytesActual += bytesNodo;
+			}
+			inicios.insertLast(grafo.numNodos());
+			bytes.insertLast(bytesActual);
+			inicioTramo = inicios.toArray();
+			bytesTramo = bytes.toArray();
+			codificados = new byte[bytesTramo.length][];
+			libres = new ArrayBlockingQueue<byte[]>(numBuffers);
+			for( int i = 0; i < numBuffers; ++i )
+				libres.add(new byte[tamBuffer]);
+		}
+		// Codifica tramos hasta que no quedan (lo ejecuta cada hilo)
+		private void codificarTramos() throws InterruptedException {
+			byte[] libre, buffer, comprimido;
+			int t;
+			while( error == null ) {
+				libre = libres.take();
+				t = siguiente.getAndIncrement();
+				if( t >= bytesTramo.length ) {
+					libres.put(libre);
+					return;
+				}
+				// Un tramo de un solo nodo puede no caber en un buffer, ni siquiera en un array
+				if( bytesTramo[t] > maxTramo ) {
+					libres.put(libre);
+					publicar(t, secuencial);
+					continue;
+				}
+				buffer = libre;
+				if( bytesTramo[t] > libre.length ) {
+					libres.put(libre);
+					buffer = new byte[(int) bytesTramo[t]];
+				}
+				codificar(t, buffer);
+				// Comprimido, el tramo queda en otro array y el buffer puede reutilizarse ya
+				if( comprimir ) {
+					comprimido = comprimirTramo(buffer, (int) bytesTramo[t]);
+					if( buffer == libre )
+						libres.put(libre);
+					buffer = comprimido;
+				}
+				publicar(t, buffer);
+			}
+		}
+		// Deja el tramo t listo para escribir y despierta al que escribe
+		private synchronized void publicar( int t, byte[] buffer ) {
+			codificados[t] = buffer;
+			notifyAll();
+		}
+		// Codifica las sentencias del tramo t en el buffer, igual que escribirRango
+		private void codificar( int t, byte[] buffer ) {
+			int p = 0, inicio, longitud, a, r;
+			for( int nodo = inicioTramo[t]; nodo < inicioTramo[t+1]; ++nodo ) {
+				for( a = grafo.inicioSalientes(nodo); a < grafo.finSalientes(nodo); ++a ) {
+					inicio = p;
+					p = entidades.copiar(nodo, buffer, p);
+					buffer[p++] = ' ';
+					p = nombresPropiedades.copiar(grafo.propiedadSaliente(a), buffer, p);
+					buffer[p++] = ' ';
+					p = entidades.copiar(grafo.destinoSaliente(a), buffer, p);
+					System.arraycopy(finSentencia, 0, buffer, p, finSentencia.length);
+					p += finSentencia.length;
+					longitud = p - inicio;
+					for( r = grafo.repeticionesSaliente(a); r > 1; --r ) {
+						System.arraycopy(buffer, inicio, buffer, p, longitud);
+						p += longitud;
+					}
+				}
+			}
+		}
+		// Comprime los primeros n bytes del buffer como un miembro gzip
+		private byte[] comprimirTramo( byte[] buffer, int n ) {
+			ByteArrayOutputStream comprimido = new ByteArrayOutputStream(n / 4 + 64);
+			try {
+				GZIPOutputStream gzip = new GZIPOutputStream(comprimido, 1 << 16);
+				gzip.write(buffer, 0, n);
+				gzip.close();
+			} catch (IOException e) {
+				// Un ByteArrayOutputStream no produce errores de entrada/salida
+				throw new IllegalStateException(e);
+			}
+			return comprimido.toByteArray();
+		}
+		// Escribe en el canal las sentencias de un tramo que no cabe en un array, sin cerrarlo
+		private void escribirSecuencial( int t, FileChannel canal ) throws IOException {
+			OutputStream salida = Channels.newOutputStream(canal);
+			if( comprimir ) {
+				GZIPOutputStream gzip = new GZIPOutputStream(salida, 1 << 16);
+				escribirRango(inicioTramo[t], inicioTramo[t+1], false, true, gzip);
+				gzip.finish();
+			} else {
+				escribirRango(inicioTramo[t], inicioTramo[t+1], false, true, salida);
+			}
+		}
+		// Espera a que el tramo t est codificado y lo devuelve
+		private synchronized byte[] esperar( int t ) throws InterruptedException, IOException {
+			while( codificados[t] == null && error == null )
+				wait();
+			if( error != null )
+				throw error;
+			byte[] buffer = codificados[t];
+			codificados[t] = null;
+			return buffer;
+		}
+		// Anota el error de un hilo y despierta al que escribe, que lo lanza como error de entrada/salida
+		private synchronized void fallar( Throwable e ) {
+			error = new IOException("Error al codificar las sentencias: " + e, e);
+			notifyAll();
+		}
+		// Codifica los tramos con el nmero de hilos indicado y los escribe en orden en el canal
+		public void escribir( FileChannel canal, int numHilos, int tamBuffer ) throws IOException {
+			Thread[] hilos = new Thread[numHilos];
+			for( int i = 0; i < hilos.length; ++i ) {
+				hilos[i] = new Thread() {
+					@Override
+					public void run() {
+						try {
+							codificarTramos();
+						} catch (InterruptedException e) {
+							// Descarga cancelada
+						} catch (RuntimeException e) {
+							fallar(e);
+						} catch (Error e) {
+							// Por ejemplo, falta de memoria para el buffer de un nodo grande
+							fallar(e);
+						}
+					}
+				};
+				hilos[i].start();
+			}
+			// Los tramos se copian a un buffer directo reutilizable, para que el canal no reserve uno temporal en cada escritura
+			ByteBuffer directo = ByteBuffer.allocateDirect(tamBuffer);
+			byte[] buffer;
+			int longitud, escritos, n;
+			try {
+				for( int t = 0; t < bytesTramo.length; ++t ) {
+					buffer = esperar(t);
+					if( buffer == secuencial ) {
+						escribirSecuencial(t, canal);
+						continue;
+					}
+					longitud = comprimir ? buffer.length : (int) bytesTramo[t];
+					for( escritos = 0; escritos < longitud; escritos += n ) {
+						n = Math.min(longitud - escritos, directo.capacity());
+						directo.clear();
+						directo.put(buffer, escritos, n);
+						directo.flip();
+						while( directo.hasRemaining() )
+							canal.write(directo);
+					}
+					if( !comprimir && buffer.length == tamBuffer )
+						libres.put(buffer);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Descarga interrumpida.");
+			} finally {
+				for( int i = 0; i < hilos.length; ++i )
+					hilos[i].interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Estructura de los cambios pendientes de aplicar al almacn: vistas modificables del grafo y de los diccionarios,
+	 * que mientras haya cambios sustituyen a los del almacn, y lo necesario para aplicarlos.
+	 * Se aplican todos a la vez cuando han cambiado demasiadas aristas del grafo, o antes de las operaciones que
+	 * necesitan el almacn compacto (ver aplicarCambios).
+	 */
+	private static final class CambiosPendientes {
+		// Grafo y diccionarios con los cambios; las entidades y propiedades nuevas toman los ndices siguientes a los del almacn
+		private final GrafoModificable grafo;
+		private final DiccionarioAmpliable entidades, propiedades;
+		// Nmero de aristas cambiadas del grafo a partir del cual se aplican los cambios
+		private final int limiteCambios;
+		// Si hay que reconstruir el ndice de clases al aplicar los cambios
+		private boolean reindexarClases = false;
+		// Constructora
+		public CambiosPendientes( GrafoCompacto grafo, DiccionarioCompacto entidades, DiccionarioCompacto propiedades ) {
+			this.grafo = new GrafoModificable(grafo);
+			this.entidades = new DiccionarioAmpliable(entidades);
+			this.propiedades = new DiccionarioAmpliable(propiedades);
+			limiteCambios = Math.max(minimoCambios, grafo.numAristas() / 8);
+		}
+	}
+	
+	/**
+	 * Clase interna: recorrido de dos saltos desde un nodo. El primero sigue las aristas salientes o
+	 * entrantes de un peso, y el segundo las aristas entrantes de otro peso; se devuelven los orgenes
+	 * del segundo salto. Los nodos intermedios y los devueltos comparten la marca de recorridos, as que una
+	 * entidad ya vista como intermedia no se devuelve (ni se sigue como intermedia si ya se ha devuelto).
+	 * Es la semntica de las consultas 10 y 11, que difiere de la de su camino de propiedades equivalente.
+	 */
+	private class RecorridoDosSaltos extends RecorridoMarcado {
+		// Atributos
+		private final boolean primeroSaliente;
+		private final int propiedadSegundo;
+		private int i = 0, finI = 0, j = 0, finJ = 0;
+		// Constructora
+		public RecorridoDosSaltos( int nodo, boolean saliente, int propiedadPrimero, int propiedadSegunda ) {
+			primeroSaliente = saliente;
+			propiedadSegundo = propiedadSegunda;
+			int grupo = saliente ? grafo.grupoSalientes(nodo, propiedadPrimero) : grafo.grupoEntrantes(nodo, propiedadPrimero);
+			if( grupo != -1 ) {
+				i = saliente ? grafo.inicioGrupoSalientes(grupo) : grafo.inicioGrupoEntrantes(grupo);
+				finI = saliente ? grafo.finGrupoSalientes(grupo) : grafo.finGrupoEntrantes(grupo);
+			}
+		}
+		protected String avanzar() {
+			int intermedio, origen, grupo;
+			while( true ) {
+				// Orgenes pendientes del segundo salto
+				while( j < finJ ) {
+					origen = grafo.origenEntrante(grafo.aristaAgrupadaEntrante(j++));
+					if( !marcas.marcado(origen) ) {
+						marcas.marcar(origen);
+						return entidades.obtenerString(origen);
+					}
+				}
+				// Siguiente nodo intermedio
+				if( i == finI )
+					return null;
+				intermedio = primeroSaliente ? grafo.destinoSaliente(grafo.aristaAgrupadaSaliente(i++))
+						: grafo.origenEntrante(grafo.aristaAgrupadaEntrante(i++));
+				if( !marcas.marcado(intermedio) ) {
+					marcas.marcar(intermedio);
+					grupo = grafo.grupoEntrantes(intermedio, propiedadSegundo);
+					if( grupo != -1 ) {
+						j = grafo.inicioGrupoEntrantes(grupo);
+						finJ = grafo.finGrupoEntrantes(grupo);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Clase interna: recorrido de un camino de propiedades desde un nodo. Cada paso sigue las aristas salientes
+	 * o entrantes de un peso desde todos los nodos de la frontera a la vez, y los extremos distintos que alcanza
+	 * forman la frontera del paso siguiente. El ltimo paso no se calcula en bloque: sus extremos se devuelven
+	 * a medida que se piden. Las marcas se limpian antes de cada paso, as que ninguna frontera tiene repetidos.
+	 */
+	private class RecorridoCamino extends RecorridoMarcado {
+		// Atributos
+		private final int propiedadUltimo;
+		private final boolean ultimoSaliente;
+		private ListaEnteros frontera = new ListaEnteros();
+		private int k = 0, i = 0, finI = 0;
+		// Constructora (al menos un paso)
+		public RecorridoCamino( int nodo, int[] propiedades, boolean[] salientes ) {
+			int ultimo = propiedades.length - 1;
+			ListaEnteros siguiente = new ListaEnteros(), auxiliar;
+			frontera.insertLast(nodo);
+			for( int paso = 0; paso < ultimo && !frontera.isEmpty(); ++paso ) {
+				marcas.limpiar();
+				expandir(frontera, propiedades[paso], salientes[paso], marcas, siguiente);
+				auxiliar = frontera;
+				frontera = siguiente;
+				siguiente = auxiliar;
+				siguiente.removeAll();
+			}
+			marcas.limpiar();
+			propiedadUltimo = propiedades[ultimo];
+			ultimoSaliente = salientes[ultimo];
+		}
+		protected String avanzar() {
+			int nodo, extremo, grupo;
+			while( true ) {
+				// Extremos pendientes del ltimo paso
+				while( i < finI ) {
+					extremo = ultimoSaliente ? grafo.destinoSaliente(grafo.aristaAgrupadaSaliente(i++))
+							: grafo.origenEntrante(grafo.aristaAgrupadaEntrante(i++));
+					if( !marcas.marcado(extremo) ) {
+						marcas.marcar(extremo);
+						return entidades.obtenerString(extremo);
+					}
+				}
+				// Siguiente nodo de la frontera
+				if( k == frontera.size() )
+					return null;
+				nodo = frontera.get(k++);
+				grupo = ultimoSaliente ? grafo.grupoSalientes(nodo, propiedadUltimo) : grafo.grupoEntrantes(nodo, propiedadUltimo);
+				if( grupo != -1 ) {
+					i = ultimoSaliente ? grafo.inicioGrupoSalientes(grupo) : grafo.inicioGrupoEntrantes(grupo);
+					finI = ultimoSaliente ? grafo.finGrupoSalientes(grupo) : grafo.finGrupoEntrantes(grupo);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Clase interna: recorrido de las entidades que son sujeto en todos los almacenes de una coleccin.
+	 * Se recorren los sujetos del almacn con menos sujetos y se buscan en los dems.
+	 */
+	private static class RecorridoSujetosEnTodos extends Recorrido {
+		// Atributos
+		private final Almacen[] almacenes;
+		private final Almacen menor;
+		private int nodo = 0;
+		// Constructora
+		public RecorridoSujetosEnTodos( Almacen[] coleccionAlmacenes ) {
+			almacenes = coleccionAlmacenes;
+			int m = 0;
+			for( int i = 0; i < almacenes.length; i++ )
+				if( almacenes[i].sujetos < almacenes[m].sujetos )
+					m = i;
+			menor = almacenes[m];
+		}
+		protected String avanzar() {
+			String sujeto;
+			boolean posibleSujetoComun;
+			int valor;
+			while( nodo < menor.grafo.numNodos() ) {
+				if( menor.grafo.gradoSaliente(nodo++) > 0 ) {
+					// En caso de ser un sujeto, se busca en el resto de los almacenes
+					sujeto = menor.entidades.obtenerString(nodo-1);
+					posibleSujetoComun = true;
+					for( int j = 0; j < almacenes.length && posibleSujetoComun; j++ ) {
+						valor = almacenes[j].entidades.obtenerValor(sujeto);
+						// No existe o no es sujeto en el almacn j -> se deja de buscar
+						posibleSujetoComun = valor != -1 && almacenes[j].grafo.gradoSaliente(valor) > 0;
+					}
+					if( posibleSujetoComun )
+						return sujeto;
+				}
+			}
+			return null;
 		}
 	}
 	
@@ -54,17 +749,34 @@ public class Almacen {
 			propiedadEncargadoDe = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#teacherOf>",
 			propiedadDepartamentoDe = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#subOrganizationOf>",
 			propiedadTrabajaPara = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#worksFor>";
+	// Nmero mnimo de aristas cambiadas del grafo a partir del cual se aplican los cambios pendientes
+	private static final int minimoCambios = 1 << 14;
+	// Cabecera de los ficheros binarios del almacn ("EDA" y versin del formato)
+	private static final int firmaBinario = 0x45444101;
+	// Final de cada sentencia escrita como bytes: " ." y el separador de lneas del sistema, como BufferedWriter.newLine
+	private static final byte[] finSentencia = (" ." + System.getProperty("line.separator")).getBytes(Charset.forName("US-ASCII"));
 	
 	/// ATRIBUTOS DE LA CLASE
-	// Dos listas de adyacencia para representar el grafo.
-	private ListaArray< ListaArray<Arista> > nodosEntrantes, nodosSalientes;
-	// Para cada nodo, ndices de las aristas siguiendo el orden lexicogrfico del enunciado
-	private ListaArray< ListaArray<Integer> > nodosSalientesOrdenados;
+	// Grafo en formato compacto, con las aristas salientes y entrantes de cada nodo
+	private GrafoCompacto grafo;
+	// Para cada nodo, posiciones de sus aristas salientes siguiendo el orden lexicogrfico del enunciado
+	private int[] aristasOrdenadas;
 	// Nmero de nodos (sujetos+objetos), de aristas (propiedades) y de sentencias; la suma de los tres primeros es el nmero de entidades
 	private int sujetos, objetos, propiedades, sentencias;
-	// Relaciones entre entidad e ndice correspondiente (Trie), y viceversa (array)
-	private Trie arbolSujetosObjetos, arbolPropiedades;
-	private ListaArray<String> listaSujetosObjetos, listaPropiedades;
+	// Relaciones entre entidad e ndice correspondiente, en ambos sentidos y en orden lexicogrfico
+	private DiccionarioCompacto entidades, nombresPropiedades;
+	// Indica si el almacn es de solo lectura y puede compartirse entre hilos
+	private volatile boolean congelado;
+	// ndice de clases para las consultas 7a, 7b y 8 (null si no se ha construido)
+	private volatile IndiceClases indiceClases;
+	// Estadsticas de cada propiedad y de los grados de los nodos
+	private CatalogoEstadisticas estadisticas;
+	// Sentencias aadidas y eliminadas que an no se han compactado en el grafo (null si no hay ninguna)
+	private CambiosPendientes cambios;
+	// Registro en el que se anotan los cambios antes de hacerlos (null si no se registran)
+	private RegistroCambios registro;
+	// Marcas de recorrido reutilizables de cada hilo, para las consultas que recorren el grafo (7a, 7b, 8, 10, 11 y los caminos de propiedades)
+	private final ThreadLocal<MarcasRecorrido> marcasDelHilo = new ThreadLocal<MarcasRecorrido>();
 	// Propiedades para trabajar con las clases/subclases/superclases
 	private int idPropiedadEs, idPropiedadSubClaseDe, idPropiedadCursa, idPropiedadEncargadoDe, idPropiedadDepartamentoDe, idPropiedadTrabajaPara;
 	
@@ -73,103 +785,273 @@ public class Almacen {
 	 * Constructora
 	 * Carga las sentencias en el almacn desde el fichero especificado.
 	 * @param nombreDeArchivo de texto desde el que leer las entidades
+	 * @param opciones - opciones de carga
 	 */
-	private Almacen( String nombreDeArchivo ) throws IOException {
+	private Almacen( String nombreDeArchivo, OpcionesCarga opciones ) throws IOException {
 		// Inicializa los atributos de la clase
-		nodosEntrantes = new ListaArray< ListaArray<Arista> >();
-		nodosSalientes = new ListaArray< ListaArray<Arista> >();
 		sujetos = objetos = propiedades = sentencias = 0;
-		arbolSujetosObjetos = new Trie();
-		arbolPropiedades = new Trie();
-		listaSujetosObjetos = new ListaArray<String>();
-		listaPropiedades = new ListaArray<String>();
 		// Variables auxiliares
-		int tempArista;
-		Arista a;
+		int tempArista, idSujeto, idPropiedad, idObjeto;
 		
-		// Lee las sentencias desde el fichero y las aade al trie y a la lista de nodos del grafo
-		Fichero.abrir(nombreDeArchivo,false,false);
-		String sentencia, sujeto, propiedad, objeto;
-		int idSujeto, idPropiedad, idObjeto;
-		StringTokenizer tokenizador;
-		sentencia = Fichero.leerSentencia();
-		while( sentencia != null ) {
-			tokenizador = new StringTokenizer(sentencia);
-			sujeto = tokenizador.nextToken();
-			propiedad = tokenizador.nextToken();
-			objeto = tokenizador.nextToken();
-			sentencias++;
-			
-			// Insertar sujeto en el trie
-			idSujeto = arbolSujetosObjetos.insertar(sujeto, sujetos+objetos);
-			if( idSujeto == sujetos+objetos ) {
-				// Agregar al array de int -> String
-				listaSujetosObjetos.insertLast(sujeto);
-				// Aadir su hueco en las listas de adyacencia
-				nodosEntrantes.insertLast( new ListaArray<Arista>() );
-				nodosSalientes.insertLast( new ListaArray<Arista>() );
-				// Incrementar contador
-				sujetos++;
-			}
-			// Insertar propiedad en el trie
-			idPropiedad = arbolPropiedades.insertar(propiedad, propiedades);
-			if( idPropiedad == propiedades ) {
-				// Agregar al array de int -> String
-				listaPropiedades.insertLast(propiedad);
-				// En caso de ser una propiedad especial, guardar su valor entero
-				if( propiedad.equals(propiedadEs) )
-					idPropiedadEs = idPropiedad;
-				else if( propiedad.equals(propiedadSubClaseDe) )
-					idPropiedadSubClaseDe = idPropiedad;
-				else if( propiedad.equals(propiedadCursa) )
-					idPropiedadCursa = idPropiedad;
-				else if( propiedad.equals(propiedadEncargadoDe) )
-					idPropiedadEncargadoDe = idPropiedad;
-				else if( propiedad.equals(propiedadDepartamentoDe) )
-					idPropiedadDepartamentoDe = idPropiedad;
-				else if( propiedad.equals(propiedadTrabajaPara) )
-					idPropiedadTrabajaPara = idPropiedad;
-				// Incrementar contador
-				propiedades++;
-			}
-			// Insertar objeto en el trie
-			idObjeto = arbolSujetosObjetos.insertar(objeto, sujetos+objetos);
-			if( idObjeto == sujetos+objetos ) {
-				// Agregar al array de int -> String
-				listaSujetosObjetos.insertLast(objeto);
-				// Aadir su hueco en las listas de adyacencia
-				nodosEntrantes.insertLast( new ListaArray<Arista>() );
-				nodosSalientes.insertLast( new ListaArray<Arista>() );
-				// Incrementar contador
-				objetos++;
-			}
-			
-			// Inserta la arista en la primera lista de adyacencia, o aade una repeticin
-			tempArista = nodosSalientes.get(idSujeto).find( new Arista(idObjeto,idPropiedad) );
-			if( tempArista == -1 )
-				nodosSalientes.get(idSujeto).insertLast( new Arista(idObjeto,idPropiedad) );
-			else
-				nodosSalientes.get(idSujeto).get(tempArista).repeticiones++;
-			
-			
-			// Lee la siguiente sentencia
-			sentencia = Fichero.leerSentencia();
-		}
+		// Lee las sentencias desde el fichero, codificando sus entidades y propiedades con enteros
+		// Con varios hilos, cada parte del fichero se codifica por separado y despus se fusionan en orden,
+		// de forma que los ndices son los mismos que al leer el fichero entero de principio a fin
+		CargaParcial[] partes = leerPartes(nombreDeArchivo, opciones);
+		CargaParcial carga = partes[0];
+		for( int i = 1; i < partes.length; ++i )
+			carga.fusionar(partes[i]);
+		sujetos = carga.sujetos;
+		objetos = carga.objetos;
+		propiedades = carga.listaPropiedades.size();
+		// Valores enteros de las propiedades especiales
+		idPropiedadEs = idPropiedad(carga, propiedadEs);
+		idPropiedadSubClaseDe = idPropiedad(carga, propiedadSubClaseDe);
+		idPropiedadCursa = idPropiedad(carga, propiedadCursa);
+		idPropiedadEncargadoDe = idPropiedad(carga, propiedadEncargadoDe);
+		idPropiedadDepartamentoDe = idPropiedad(carga, propiedadDepartamentoDe);
+		idPropiedadTrabajaPara = idPropiedad(carga, propiedadTrabajaPara);
 		
-		Fichero.cerrar();
+		// Aristas distintas, en el orden en que aparecen por primera vez: la k-sima es (origen[k], propiedad[k], destino[k])
+		int numNodos = sujetos+objetos;
+		ListaEnteros origen = new ListaEnteros(numNodos), propiedadArista = new ListaEnteros(numNodos),
+				destino = new ListaEnteros(numNodos), repeticiones = new ListaEnteros(numNodos);
+		// ndice de las aristas durante la carga: (sujeto, propiedad, objeto) -> nmero de arista
+		TablaDispersion indiceAristas = new TablaDispersion();
 		
-		// Crear la segunda lista de adyacencia a partir de la primera
-		for (int i = 0; i < nodosSalientes.size(); i++) {
-			for (int j = 0; j < nodosSalientes.get(i).size(); j++) {
-				a = nodosSalientes.get(i).get(j);
-				nodosEntrantes.get(a.verticeObjetivo).insertLast(new Arista(i, a.propiedad, a.repeticiones));
+		// Aade las aristas siguiendo el orden de las sentencias en el fichero
+		for( CargaParcial parte : partes ) {
+			for( int i = 0; i < parte.numSentencias; ++i ) {
+				idSujeto = parte.terna(i, 0);
+				idPropiedad = parte.terna(i, 1);
+				idObjeto = parte.terna(i, 2);
+				sentencias++;
+				// Inserta la arista si es nueva, o aade una repeticin
+				tempArista = indiceAristas.obtener(idSujeto, idPropiedad, idObjeto);
+				if( tempArista == -1 ) {
+					indiceAristas.insertar(idSujeto, idPropiedad, idObjeto, origen.size());
+					origen.insertLast(idSujeto);
+					propiedadArista.insertLast(idPropiedad);
+					destino.insertLast(idObjeto);
+					repeticiones.insertLast(1);
+				} else
+					repeticiones.replace(tempArista, repeticiones.get(tempArista) + 1);
 			}
 		}
 		
+		// Compactar los diccionarios: cada String se guarda una nica vez
+		entidades = new DiccionarioCompacto(carga.listaEntidades, carga.arbolEntidades.recorrerEnProfundidad());
+		nombresPropiedades = new DiccionarioCompacto(carga.listaPropiedades, carga.arbolPropiedades.recorrerEnProfundidad());
+		partes = null;
+		carga = null;
+		
+		// Compactar la lista de adyacencia: el grafo agrupa las aristas por origen, conservando su orden de aparicin,
+		// y crea las entrantes a partir de las salientes
+		indiceAristas = null;
+		grafo = new GrafoCompacto(numNodos, origen.size(), origen.toArray(), propiedadArista.toArray(),
+				destino.toArray(), repeticiones.toArray());
+		
 		// Ordenar las aristas salientes de cada nodo
-		nodosSalientesOrdenados = new ListaArray< ListaArray<Integer> >(nodosSalientes.size());
-		for( int i = 0; i < nodosSalientes.size(); ++i )
-			nodosSalientesOrdenados.set( i, nodosSalientes.get(i).sort() );
+		aristasOrdenadas = ordenarAristas();
+		estadisticas = new CatalogoEstadisticas(grafo, propiedades);
+		
+		if( opciones.indiceClases() )
+			indexarClases();
+	}
+	
+	/**
+	 * Constructora
+	 * Carga el almacn desde una copia binaria escrita por guardarBinario. Los diccionarios, el grafo y el
+	 * orden de las aristas se leen tal y como se guardaron, sin analizar texto ni ordenar.
+	 * @param entrada - buffer con el contenido del fichero binario
+	 */
+	private Almacen( ByteBuffer entrada ) throws IOException {
+		if( entrada.getInt() != firmaBinario )
+			throw new IOException("El fichero no es una copia binaria de un almacn.");
+		sujetos = entrada.getInt();
+		objetos = entrada.getInt();
+		propiedades = entrada.getInt();
+		sentencias = entrada.getInt();
+		idPropiedadEs = entrada.getInt();
+		idPropiedadSubClaseDe = entrada.getInt();
+		idPropiedadCursa = entrada.getInt();
+		idPropiedadEncargadoDe = entrada.getInt();
+		idPropiedadDepartamentoDe = entrada.getInt();
+		idPropiedadTrabajaPara = entrada.getInt();
+		entidades = new DiccionarioCompacto(entrada);
+		nombresPropiedades = new DiccionarioCompacto(entrada);
+		grafo = new GrafoCompacto(entrada);
+		aristasOrdenadas = Binario.leerArrayEnteros(entrada);
+		estadisticas = new CatalogoEstadisticas(grafo, propiedades);
+	}
+	
+	/**
+	 * Congela el almacn: a partir de ese momento es de solo lectura, y todas las consultas pueden
+	 * ejecutarse a la vez desde varios hilos sin bloqueos. Un hilo que comprueba congelado() y obtiene
+	 * true ve el almacn completo, aunque no lo haya cargado l.
+	 * @return el propio almacn
+	 */
+	public Almacen congelar() {
+		aplicarCambios();
+		congelado = true;
+		return this;
+	}
+	
+	/**
+	 * Comprueba si el almacn est congelado (es de solo lectura).
+	 * @return true si el almacn est congelado
+	 */
+	public boolean congelado() {
+		return congelado;
+	}
+	
+	/**
+	 * Construye el ndice de clases, si no se haba construido ya: para cada nodo, su cierre de superclases
+	 * y las entidades que son de esa clase. A partir de entonces las consultas 7a, 7b y 8 devuelven los mismos
+	 * resultados sin recorrer el grafo: la 8 solo recorre su resultado, y las 7a y 7b el cierre de cada clase
+	 * directa. El ndice no se guarda en la copia binaria; tras cargarBinario puede volver a construirse.
+	 * Puede llamarse aunque el almacn est congelado: las consultas que ya estn en curso no se ven afectadas.
+	 * @return el propio almacn
+	 */
+	public synchronized Almacen indexarClases() {
+		aplicarCambios();
+		if( indiceClases != null )
+			return this;
+		final int numNodos = grafo.numNodos();
+		int[] inicioSuperClases = new int[numNodos+1], inicioEntidades = new int[numNodos+1];
+		ListaEnteros superClases = new ListaEnteros(), entidadesDeClase = new ListaEnteros();
+		// Todos los recorridos comparten las marcas, que se limpian antes de empezar cada uno
+		MarcasRecorrido marcas = new MarcasRecorrido(numNodos);
+		RecorridoJerarquia profundidad, inverso;
+		int nodo;
+		for( int v = 0; v < numNodos; ++v ) {
+			inicioSuperClases[v] = superClases.size();
+			if( grafo.grupoSalientes(v, idPropiedadSubClaseDe) != -1 ) {
+				// El propio nodo se marca antes, como cuando se llega a l desde una arista
+				marcas.limpiar();
+				marcas.marcar(v);
+				profundidad = recorridoSuperClases(v, marcas);
+				while( (nodo = profundidad.siguienteNodo()) != -1 )
+					superClases.insertLast(nodo);
+			}
+			inicioEntidades[v] = entidadesDeClase.size();
+			if( grafo.grupoEntrantes(v, idPropiedadEs) != -1 || grafo.grupoEntrantes(v, idPropiedadSubClaseDe) != -1 ) {
+				marcas.limpiar();
+				inverso = recorridoEntidades(v, marcas);
+				while( (nodo = inverso.siguienteNodo()) != -1 )
+					entidadesDeClase.insertLast(nodo);
+			}
+		}
+		inicioSuperClases[numNodos] = superClases.size();
+		inicioEntidades[numNodos] = entidadesDeClase.size();
+		indiceClases = new IndiceClases(inicioSuperClases, superClases.toArray(), inicioEntidades, entidadesDeClase.toArray());
+		return this;
+	}
+	
+	// Lee el fichero en tantas partes como hilos indiquen las opciones, cada una en un hilo distinto
+	// Con un solo hilo se lee el fichero entero, con Fichero o proyectado en memoria segn las opciones
+	// Un fichero comprimido no puede proyectarse ni dividirse: se lee entero con Fichero, que lo descomprime en otro hilo
+	private static CargaParcial[] leerPartes( final String nombreDeArchivo, final OpcionesCarga opciones ) throws IOException {
+		boolean comprimido = Fichero.comprimido(nombreDeArchivo);
+		if( opciones.hilos() <= 1 || comprimido ) {
+			CargaParcial parte = new CargaParcial(opciones);
+			if( opciones.lecturaProyectada() && !comprimido )
+				parte.leer( new LectorProyectado(nombreDeArchivo) );
+			else
+				parte.leer(nombreDeArchivo);
+			return new CargaParcial[] { parte };
+		}
+		long[] limites = LectorProyectado.dividir(nombreDeArchivo, opciones.hilos());
+		CargaParcial[] partes = new CargaParcial[opciones.hilos()];
+		Thread[] hilos = new Thread[partes.length];
+		for( int i = 0; i < partes.length; ++i ) {
+			final CargaParcial parte = new CargaParcial(opciones);
+			final long desde = limites[i], hasta = limites[i+1];
+			partes[i] = parte;
+			hilos[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						parte.leer( new LectorProyectado(nombreDeArchivo, desde, hasta) );
+					} catch (IOException e) {
+						parte.error = e;
+					} catch (RuntimeException e) {
+						parte.error = new IOException(e);
+					}
+				}
+			};
+			hilos[i].start();
+		}
+		try {
+			for( int i = 0; i < hilos.length; ++i )
+				hilos[i].join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Carga interrumpida.");
+		}
+		for( int i = 0; i < partes.length; ++i )
+			if( partes[i].error != null )
+				throw partes[i].error;
+		return partes;
+	}
+	
+	// Valor entero de una de las propiedades especiales, o 0 si no aparece en el fichero
+	private static int idPropiedad( CargaParcial carga, String propiedad ) {
+		return Math.max(carga.arbolPropiedades.obtenerValor(propiedad), 0);
+	}
+	
+	// Valor entero de una de las propiedades especiales, o 0 si no aparece en el almacn
+	private int idPropiedad( String propiedad ) {
+		return Math.max(nombresPropiedades.obtenerValor(propiedad), 0);
+	}
+	
+	// Devuelve, para cada nodo, las posiciones de sus aristas salientes en orden lexicogrfico de (propiedad, objeto)
+	// Las claves son las posiciones de los Strings en los diccionarios (su rango), as que basta con comparar enteros:
+	// todas las aristas se ordenan a la vez con pasadas estables de ordenacin por cuentas por objeto, por propiedad
+	// y por origen, en tiempo lineal en el nmero de aristas y de entidades
+	private int[] ordenarAristas() {
+		final int n = grafo.numAristas();
+		int[] orden = new int[n], auxiliar = new int[n], clave = new int[n], origen = new int[n];
+		for( int i = 0; i < grafo.numNodos(); ++i )
+			for( int a = grafo.inicioSalientes(i); a < grafo.finSalientes(i); ++a )
+				origen[a] = i;
+		for( int a = 0; a < n; ++a ) {
+			orden[a] = a;
+			clave[a] = entidades.posicionDeValor(grafo.destinoSaliente(a));
+		}
+		ordenarPorCuentas(orden, auxiliar, clave, entidades.size());
+		for( int a = 0; a < n; ++a )
+			clave[a] = nombresPropiedades.posicionDeValor(grafo.propiedadSaliente(a));
+		ordenarPorCuentas(auxiliar, orden, clave, nombresPropiedades.size());
+		// Las aristas de cada nodo ocupan posiciones consecutivas del grafo, desde inicioSalientes
+		int[] siguiente = new int[grafo.numNodos()];
+		for( int i = 0; i < siguiente.length; ++i )
+			siguiente[i] = grafo.inicioSalientes(i);
+		for( int k = 0; k < n; ++k )
+			auxiliar[ siguiente[origen[orden[k]]]++ ] = orden[k];
+		return auxiliar;
+	}
+	
+	// Copia en salida los elementos de entrada ordenados de forma estable segn clave[elemento], que est en [0, numClaves)
+	private static void ordenarPorCuentas( int[] entrada, int[] salida, int[] clave, int numClaves ) {
+		int[] cuenta = new int[numClaves + 1];
+		for( int k = 0; k < entrada.length; ++k )
+			cuenta[ clave[entrada[k]] + 1 ]++;
+		for( int c = 1; c < numClaves; ++c )
+			cuenta[c] += cuenta[c-1];
+		for( int k = 0; k < entrada.length; ++k )
+			salida[ cuenta[clave[entrada[k]]]++ ] = entrada[k];
+	}
+	
+	// Construye la sentencia "sujeto propiedad objeto ." a partir de los ndices de sus entidades
+	private String sentencia( int sujeto, int propiedad, int objeto ) {
+		StringBuilder sb = new StringBuilder(128);
+		entidades.anadir(sujeto, sb);
+		sb.append(' ');
+		nombresPropiedades.anadir(propiedad, sb);
+		sb.append(' ');
+		entidades.anadir(objeto, sb);
+		sb.append(" .");
+		return sb.toString();
 	}
 	
 	/**
@@ -177,19 +1059,8 @@ public class Almacen {
 	 * @param sujeto - sujeto cuyas sentencias han de devolverse
 	 * @return Una lista enlazada de sentencias que tienen Sujeto como sujeto
 	 */
-	public ListaEnlazada<String> sentenciasPorSujeto( String sujeto ) {	
-		ListaEnlazada<String> coleccionSentencias = new ListaEnlazada<String>();
-		int index = arbolSujetosObjetos.obtenerValor(sujeto);
-		if( index != -1 ) {
-			// Si el sujeto no existe, devuelve una lista vaca
-			Arista prov;
-			for( int i = 0; i < nodosSalientes.get(index).size(); ++i ) {
-				prov = nodosSalientes.get(index).get(i);
-				for( int j = 0; j < prov.repeticiones; j++ )
-					coleccionSentencias.insertLast( listaSujetosObjetos.get(index) + " " +  listaPropiedades.get(prov.propiedad) + " " + listaSujetosObjetos.get(prov.verticeObjetivo) + " ." );				
-			}
-		}
-		return coleccionSentencias;
+	public ListaEnlazada<String> sentenciasPorSujeto( String sujeto ) {
+		return llenar( recorrerSentenciasPorSujeto(sujeto) );
 	}
 	
 	/**
@@ -198,17 +1069,7 @@ public class Almacen {
 	 * @return Una lista enlazada de sentencias sin repeticiones que tienen Sujeto como sujeto
 	 */
 	public ListaEnlazada<String> sentenciasDistintasPorSujeto( String sujeto ) {
-		ListaEnlazada<String> coleccionSentencias = new ListaEnlazada<String>();
-		int index = arbolSujetosObjetos.obtenerValor(sujeto);
-		if( index != -1 ) {
-			// Si el sujeto no existe, devuelve una lista vaca
-			Arista prov;
-			for( int i = 0; i < nodosSalientes.get(index).size(); ++i ) {
-				prov = nodosSalientes.get(index).get(i);
-				coleccionSentencias.insertLast( listaSujetosObjetos.get(index) + " " +  listaPropiedades.get(prov.propiedad) + " " + listaSujetosObjetos.get(prov.verticeObjetivo) + " ." );
-			}
-		}
-		return coleccionSentencias;
+		return llenar( recorrerSentenciasDistintasPorSujeto(sujeto) );
 	}
 	
 	/**
@@ -216,6 +1077,11 @@ public class Almacen {
 	 * @return Un array de las propiedades sin repeticiones que aparecen en el almacn
 	 */
 	public ListaArray<String> propiedadesDistintas() {
+		ListaArray<String> listaPropiedades = new ListaArray<String>(Math.max(propiedades, 1));
+		// Las propiedades cuyas sentencias se han eliminado siguen en el diccionario, pero no en el almacn
+		for( int i = 0; i < propiedades; ++i )
+			if( estadisticas.sentencias(i) > 0 )
+				listaPropiedades.insertLast( nombresPropiedades.obtenerString(i) );
 		return listaPropiedades;
 	}
 	
@@ -225,12 +1091,7 @@ public class Almacen {
 	 * @return Una lista enlazada de strings sin repeticiones que son sujeto y a la vez objeto en el almacn
 	 */
 	public ListaEnlazada<String> entidadesSujetoObjeto() {
-		ListaEnlazada<String> coleccionEntidades = new ListaEnlazada<String>();
-		for( int i = 0; i < nodosSalientes.size(); i++ )
-			if( !nodosSalientes.get(i).isEmpty() && !nodosEntrantes.get(i).isEmpty() )
-				coleccionEntidades.insertLast( listaSujetosObjetos.get(i) );
-		
-		return coleccionEntidades;
+		return llenar( recorrerEntidadesSujetoObjeto() );
 	}
 	
 	/**
@@ -239,40 +1100,7 @@ public class Almacen {
 	 * @return Una lista enlazada de entidades que son sujeto en todos y cada uno de los almacenes
 	 */
 	public static ListaEnlazada<String> entidadesSujetoEnTodos(Almacen[] coleccionAlmacenes) {
-		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
-		int menor = 0, i, j, valor;
-		boolean posibleSujetoComun;
-		String sujeto;
-
-		// Se busca el ndice del almacn que tiene menor nmero de sujetos
-		for (i = 0; i < coleccionAlmacenes.length; i++)
-			if (coleccionAlmacenes[i].sujetos < coleccionAlmacenes[menor].sujetos)
-				menor = i;
-
-		for (i = 0; i < coleccionAlmacenes[menor].nodosSalientes.size(); i++) {
-			// Recorrer todas las entidades del almacn
-			if (!coleccionAlmacenes[menor].nodosSalientes.get(i).isEmpty()) {
-				// En caso de ser un sujeto, se busca en el resto de los almacenes
-				sujeto = coleccionAlmacenes[menor].listaSujetosObjetos.get(i);
-				posibleSujetoComun = true;
-				j = 0;
-				while (j < coleccionAlmacenes.length && posibleSujetoComun) {
-					valor = coleccionAlmacenes[j].arbolSujetosObjetos.obtenerValor(sujeto);
-					if (valor == -1 || coleccionAlmacenes[j].nodosSalientes.get(valor).isEmpty()) {
-						// No existe o no es sujeto en el almacn j -> se deja de buscar
-						posibleSujetoComun = false;
-					}
-					j++;
-				}
-
-				if (posibleSujetoComun) {
-					// Es sujeto en todos los almacenes
-					resultado.insertLast(sujeto);
-				}
-			}
-		}
-
-		return resultado;
+		return llenar( recorrerEntidadesSujetoEnTodos(coleccionAlmacenes) );
 	}
 	
 	/**
@@ -280,18 +1108,11 @@ public class Almacen {
 	 * @return Un array con las sentencias del almacn segn el orden descrito en el enunciado
 	 */
 	public ListaArray<String> sentenciasOrdenadas() {
-		ListaArray<Integer> valores = arbolSujetosObjetos.recorrerEnProfundidad();
-		ListaArray<String> sentenciasEnOrden = new ListaArray<String>(sentencias);
-		int nodo;
-		Arista arista;
-		for( int i = 0; i < valores.size(); ++i ) {
-			nodo = valores.get(i);
-			for( int j = 0; j < nodosSalientesOrdenados.get(nodo).size(); ++j ) {
-				arista = nodosSalientes.get(nodo).get( nodosSalientesOrdenados.get(nodo).get(j) );
-				for( int k = 0; k < arista.repeticiones; ++k )
-					sentenciasEnOrden.insertLast( listaSujetosObjetos.get(nodo) + " " + listaPropiedades.get(arista.propiedad) + " " + listaSujetosObjetos.get(arista.verticeObjetivo) + " ." );
-			}
-		}
+		aplicarCambios();
+		ListaArray<String> sentenciasEnOrden = new ListaArray<String>(Math.max(sentencias, 1));
+		Iterator<String> recorrido = recorrerSentenciasOrdenadas();
+		while( recorrido.hasNext() )
+			sentenciasEnOrden.insertLast( recorrido.next() );
 		return sentenciasEnOrden;
 	}
 	
@@ -301,16 +1122,7 @@ public class Almacen {
 	 * @return una lista enlazada de las clases del parmetro sujeto
 	 */
 	public ListaEnlazada<String> clasesDe(String sujeto) {
-		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
-		int idSujeto = arbolSujetosObjetos.obtenerValor(sujeto);
-		if (idSujeto != -1) {
-			boolean recorridos[] = new boolean[sujetos+objetos];
-			for( int i = 0; i < sujetos+objetos; ++i )
-				recorridos[i] = false;
-			// Bsqueda en profundidad
-			DFS( idSujeto, idPropiedadEs, recorridos, resultado );
-		}
-		return resultado;
+		return llenar( recorrerClasesDe(sujeto) );
 	}
 	
 	/**
@@ -319,16 +1131,7 @@ public class Almacen {
 	 * @return una lista enlazada de las superclases del parmetro clase
 	 */
 	public ListaEnlazada<String> superClasesDe(String clase) {
-		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
-		int idClase = arbolSujetosObjetos.obtenerValor(clase);
-		if (idClase != -1) {
-			boolean recorridos[] = new boolean[sujetos+objetos];
-			for( int i = 0; i < sujetos+objetos; ++i )
-				recorridos[i] = false;
-			// Bsqueda en profundidad
-			DFS( idClase, idPropiedadSubClaseDe, recorridos, resultado );
-		}
-		return resultado;
+		return llenar( recorrerSuperClasesDe(clase) );
 	}
 	
 	/**
@@ -337,26 +1140,28 @@ public class Almacen {
 	 * @return una lista enlazada de las entidades que son del parmetro clase
 	 */
 	public ListaEnlazada<String> entidadesDeClase(String clase) {
-		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
-		int idClase = arbolSujetosObjetos.obtenerValor(clase);
-		if (idClase != -1) {
-			boolean recorridos[] = new boolean[sujetos+objetos];
-			for( int i = 0; i < sujetos+objetos; ++i )
-				recorridos[i] = false;
-			// Bsqueda en profundidad hacia atrs
-			DFSinversa( idClase, recorridos, resultado );
-		}
-		return resultado;
+		return llenar( recorrerEntidadesDeClase(clase) );
 	}
 	
 	/**
 	 * 9a) Cargar sentencias en un almacn, tomadas de archivos de texto de nuestro directorio.
+	 * Los ficheros con extensin .gz se descomprimen con gzip en un hilo aparte mientras se leen.
 	 * @param nombreDeArchivo - fichero del que se toman las sentencias para el almacn
 	 * @return un almacn de sentencias a partir del contenido del fichero
 	 */
 	public static Almacen cargar(String nombreDeArchivo) {
+		return cargar(nombreDeArchivo, new OpcionesCarga());
+	}
+	
+	/**
+	 * 9a) Cargar sentencias en un almacn, eligiendo las opciones de carga.
+	 * @param nombreDeArchivo - fichero del que se toman las sentencias para el almacn
+	 * @param opciones - opciones de carga (estructuras a utilizar)
+	 * @return un almacn de sentencias a partir del contenido del fichero
+	 */
+	public static Almacen cargar(String nombreDeArchivo, OpcionesCarga opciones) {
 		try {
-			return new Almacen(nombreDeArchivo);
+			return new Almacen(nombreDeArchivo, opciones);
 		} catch (IOException e) {
 			System.err.println("Error: Imposible acceder al fichero especificado.");
 			return null;
@@ -365,58 +1170,112 @@ public class Almacen {
 	
 	/**
 	 * 9b) Descargar las sentencias de un almacn en un archivo de texto de nuestro directorio.
+	 * Las sentencias se escriben en UTF-8 directamente desde los diccionarios, sin crear un String por lnea.
+	 * Si el fichero tiene extensin .gz, se escribe comprimido con gzip.
 	 * @param nombreDeArchivo - fichero en el que se van a escribir las sentencias del almacn
 	 */
 	public void descargar(String nombreDeArchivo) {
 		try {
-			Arista arista;
-			Fichero.abrir(nombreDeArchivo, true, false);
-			for (int i = 0; i < nodosSalientes.size(); ++i) {
-				for (int j = 0; j < nodosSalientes.get(i).size(); ++j) {
-					arista = nodosSalientes.get(i).get(j);
-					for (int k = 0; k < arista.repeticiones; ++k)
-						Fichero.escribirSentencia( listaSujetosObjetos.get(i) + " " + listaPropiedades.get(arista.propiedad) + " " + listaSujetosObjetos.get(arista.verticeObjetivo) + " ." );
-				}
+			OutputStream salida = Fichero.abrirSalida(nombreDeArchivo, false);
+			escribirSentencias(salida);
+			salida.close();
+		} catch (IOException e) {
+			System.err.println("Error: Imposible acceder al fichero especificado.");
+			return;
+		}
+	}
+	
+	/**
+	 * 9b) Descargar las sentencias de un almacn, en el mismo orden que descargar, codificndolas con varios hilos.
+	 * Las sentencias de cada tramo de nodos se codifican en UTF-8 en un buffer grande, copiando los bytes de cada
+	 * String de los diccionarios, y los tramos se escriben en orden en el fichero con un FileChannel.
+	 * Si el fichero est comprimido (extensin .gz), cada hilo comprime tambin sus tramos.
+	 * @param nombreDeArchivo - fichero en el que se van a escribir las sentencias del almacn
+	 * @param opciones - nmero de hilos y tamao de los buffers
+	 */
+	public void descargar(String nombreDeArchivo, OpcionesDescarga opciones) {
+		aplicarCambios();
+		try {
+			FileOutputStream salida = new FileOutputStream(nombreDeArchivo);
+			try {
+				new DescargaParalela(2 * opciones.hilos(), opciones.tamBuffer(), Fichero.comprimido(nombreDeArchivo)).escribir(salida.getChannel(), opciones.hilos(), opciones.tamBuffer());
+			} finally {
+				salida.close();
 			}
-			Fichero.cerrar();
 		} catch (IOException e) {
 			System.err.println("Error: Imposible acceder al fichero especificado.");
 			return;
 		}
 	}
 	
+	/**
+	 * Guardar el almacn en un fichero binario, para poder cargarlo despus con cargarBinario sin
+	 * volver a leer las sentencias.
+	 * @param nombreDeArchivo - fichero en el que se va a escribir la copia binaria del almacn
+	 */
+	public void guardarBinario(String nombreDeArchivo) {
+		aplicarCambios();
+		try {
+			DataOutputStream salida = new DataOutputStream( new BufferedOutputStream( new FileOutputStream(nombreDeArchivo), 1 << 16 ) );
+			escribirBinario(salida);
+			salida.close();
+		} catch (IOException e) {
+			System.err.println("Error: Imposible acceder al fichero especificado.");
+			return;
+		}
+	}
+	
+	// Escribe la copia binaria del almacn en el flujo, sin cerrarlo
+	private void escribirBinario( DataOutputStream salida ) throws IOException {
+		salida.writeInt(firmaBinario);
+		salida.writeInt(sujetos);
+		salida.writeInt(objetos);
+		salida.writeInt(propiedades);
+		salida.writeInt(sentencias);
+		salida.writeInt(idPropiedadEs);
+		salida.writeInt(idPropiedadSubClaseDe);
+		salida.writeInt(idPropiedadCursa);
+		salida.writeInt(idPropiedadEncargadoDe);
+		salida.writeInt(idPropiedadDepartamentoDe);
+		salida.writeInt(idPropiedadTrabajaPara);
+		entidades.guardar(salida);
+		nombresPropiedades.guardar(salida);
+		grafo.guardar(salida);
+		Binario.escribirArray(salida, aristasOrdenadas);
+		salida.flush();
+	}
+	
+	/**
+	 * Cargar un almacn desde un fichero binario escrito por guardarBinario.
+	 * El fichero se proyecta en memoria y se lee secuencialmente.
+	 * @param nombreDeArchivo - fichero binario del que se toma el almacn
+	 * @return el almacn guardado en el fichero
+	 */
+	public static Almacen cargarBinario(String nombreDeArchivo) {
+		try {
+			RandomAccessFile fichero = new RandomAccessFile(nombreDeArchivo, "r");
+			FileChannel canal = fichero.getChannel();
+			ByteBuffer entrada = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+			// La proyeccin sigue siendo vlida despus de cerrar el fichero
+			fichero.close();
+			return new Almacen(entrada);
+		} catch (IOException e) {
+			System.err.println("Error: Imposible acceder al fichero especificado.");
+			return null;
+		} catch (RuntimeException e) {
+			// Fichero truncado o con un formato distinto
+			System.err.println("Error: El fichero especificado no es una copia binaria vlida.");
+			return null;
+		}
+	}
+	
 	/**
 	 * 10) Coleccin de estudiantes distintos que cursan alguna asignatura de la que es encargado un determinado profesor.
 	 * @param profesor - profesor encargado de las asignaturas de las que se buscan los estudiantes
 	 * @return una lista enlazada de las entidades que son estudiantes de asignaturas que imparte el parmetro profesor
 	 */
 	public ListaEnlazada<String> estudiantesDelProfesor(String profesor) {
-		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
-		int idProfesor = arbolSujetosObjetos.obtenerValor(profesor);
-		if( idProfesor != -1 ) {
-			Arista a;
-			int nodoAsignatura;
-			boolean recorridos[] = new boolean[sujetos+objetos];
-			for (int i = 0; i < sujetos+objetos; ++i)
-				recorridos[i] = false;
-			// Bsqueda las aristas salientes de idProfesor con peso 'encargadoDe'
-			for (int i = 0; i < nodosSalientes.get(idProfesor).size(); ++i) {
-				a = nodosSalientes.get(idProfesor).get(i);
-				if (a.propiedad == idPropiedadEncargadoDe && !recorridos[a.verticeObjetivo]) {
-					nodoAsignatura = a.verticeObjetivo;
-					recorridos[nodoAsignatura] = true;
-					// El nodo es una asignatura, buscar las aristas entrantes con peso 'cursa'
-					for (int j = 0; j < nodosEntrantes.get(nodoAsignatura).size(); ++j) {
-						a = nodosEntrantes.get(nodoAsignatura).get(j);
-						if (a.propiedad == idPropiedadCursa && !recorridos[a.verticeObjetivo]) {
-							recorridos[a.verticeObjetivo] = true;
-							resultado.insertLast( listaSujetosObjetos.get(a.verticeObjetivo) );
-						}
-					}
-				}
-			}
-		}
-		return resultado;
+		return llenar( recorrerEstudiantesDelProfesor(profesor) );
 	}
 	
 	/**
@@ -425,64 +1284,825 @@ public class Almacen {
 	 * @return una lista enlazada de las entidades que son profesores que trabajan en algn departamento del parmetro universidad
 	 */
 	public ListaEnlazada<String> profesoresDeUniversidad(String universidad) {
-		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
-		int idUniversidad = arbolSujetosObjetos.obtenerValor(universidad);
-		if (idUniversidad != -1) {
-			Arista a;
-			int nodoDepartamento;
-			boolean recorridos[] = new boolean[sujetos+objetos];
-			for (int i = 0; i < sujetos+objetos; ++i)
-				recorridos[i] = false;
-			// Bsqueda las aristas entrantes de idUniversidad con peso 'departamentoDe'
-			for (int i = 0; i < nodosEntrantes.get(idUniversidad).size(); i++) {
-				a = nodosEntrantes.get(idUniversidad).get(i);
-				if (a.propiedad == idPropiedadDepartamentoDe && !recorridos[a.verticeObjetivo]) {
-					nodoDepartamento = a.verticeObjetivo;
-					recorridos[nodoDepartamento] = true;
-					// El nodo es un departamento, buscar las aristas entrantes con peso 'trabajaPara'
-					for (int j = 0; j < nodosEntrantes.get(nodoDepartamento).size(); j++) {
-						a = nodosEntrantes.get(nodoDepartamento).get(j);
-						if (a.propiedad == idPropiedadTrabajaPara && !recorridos[a.verticeObjetivo]) {
-							recorridos[a.verticeObjetivo] = true;
-							resultado.insertLast(listaSujetosObjetos.get(a.verticeObjetivo));
-						}
-					}
+		return llenar( recorrerProfesoresDeUniversidad(universidad) );
+	}
+	
+	/**
+	 * Coleccin de entidades distintas que se alcanzan desde una entidad siguiendo un camino de propiedades.
+	 * Generaliza las consultas 10 y 11: cada paso se da a la vez desde todas las entidades alcanzadas en el
+	 * anterior, sin repetir ninguna. Por ejemplo, la 11 sigue el camino entrante(subOrganizationOf).entrante(worksFor).
+	 * A diferencia de esas consultas, cada paso tiene sus propias marcas: una entidad alcanzada en un paso intermedio
+	 * (por ejemplo, un departamento que trabaja para otro) tambin se devuelve si la alcanza el ltimo paso, as que
+	 * el resultado puede incluir entidades que la consulta no devuelve.
+	 * @param origen - entidad desde la que se sigue el camino
+	 * @param camino - pasos que se siguen, en orden
+	 * @return una lista enlazada de las entidades alcanzadas con el ltimo paso del camino
+	 */
+	public ListaEnlazada<String> seguirCamino(String origen, CaminoPropiedades camino) {
+		return llenar( recorrerCamino(origen, camino) );
+	}
+	
+	/**
+	 * Soluciones de una consulta de patrones de sentencias con variables (ver ConsultaPatrones).
+	 * Los patrones no se resuelven en el orden en que se dan: primero va el que encaja con menos aristas segn
+	 * las estadsticas de su propiedad (aristas, sujetos y objetos distintos), y cada uno se busca desde los extremos
+	 * que ya tienen valor. Cada solucin aparece una sola vez.
+	 * @param consulta - patrones que deben cumplir las soluciones
+	 * @return una lista enlazada con las soluciones: cada una es un vector con el valor de cada variable, en el orden de la consulta
+	 */
+	public ListaEnlazada<ListaArray<String>> resolver(ConsultaPatrones consulta) {
+		int n = consulta.numPatrones();
+		int[] terminos = new int[3*n];
+		String termino;
+		for( int j = 0; j < n; ++j ) {
+			for( int k = 0; k < 3; ++k ) {
+				termino = consulta.termino(j, k);
+				if( ConsultaPatrones.esVariable(termino) ) {
+					terminos[3*j+k] = -(consulta.indiceVariable(termino) + 1);
+				} else {
+					terminos[3*j+k] = (k == 1) ? nombresPropiedades.obtenerValor(termino) : entidades.obtenerValor(termino);
+					// Con una constante que no est en el almacn no hay soluciones
+					if( terminos[3*j+k] == -1 )
+						return new ListaEnlazada<ListaArray<String>>();
 				}
 			}
 		}
+		int[] orden = ordenarPatrones(terminos, consulta.numVariables());
+		ResolucionPatrones resolucion = new ResolucionPatrones(terminos, orden, consulta.numVariables());
+		resolucion.resolver(0);
+		return resolucion.soluciones;
+	}
+	
+	
+	/// MODIFICACIN
+	// Las sentencias aadidas o eliminadas no reconstruyen el almacn: se hacen sobre vistas modificables del grafo
+	// (GrafoModificable) y de los diccionarios (DiccionarioAmpliable), que las consultas usan como si fueran los
+	// originales, y las estadsticas se actualizan con cada cambio. Un cambio cuesta la bsqueda de sus entidades en
+	// los diccionarios ms un tiempo constante o logartmico, sea cual sea el nmero de aristas de su sujeto y de su
+	// objeto (ver GrafoModificable). Al eliminar la ltima repeticin de una sentencia, la ltima del sujeto ocupa su
+	// lugar. Los cambios se aplican (se compactan el grafo y los diccionarios, en tiempo lineal) cuando las aristas
+	// cambiadas superan una fraccin de las del grafo, de forma que su coste se reparte entre los cambios, o antes de
+	// las operaciones que necesitan el orden lexicogrfico o escriben el almacn completo: las consultas ordenadas, las
+	// descargas, la copia binaria, congelar e indexarClases. El ndice de clases se descarta con el primer cambio y se
+	// reconstruye al aplicarlos. Los recorridos perezosos empezados antes de un cambio no deben seguir usndose.
+	
+	/**
+	 * Aade una sentencia al almacn, como si estuviera al final del fichero del que se carg: si ya estaba,
+	 * se aade una repeticin. Las entidades y la propiedad nuevas toman los ndices siguientes a los del almacn.
+	 * @param sujeto - sujeto de la sentencia
+	 * @param propiedad - propiedad de la sentencia
+	 * @param objeto - objeto de la sentencia
+	 * @throws IllegalStateException si el almacn est congelado
+	 */
+	public void insertar( String sujeto, String propiedad, String objeto ) {
+		CambiosPendientes c = cambiosPendientes();
+		if( registro != null )
+			registro.anotar(true, sujeto, propiedad, objeto);
+		int idSujeto = codificarEntidad(c, sujeto, true);
+		int idPropiedad = codificarPropiedad(c, propiedad);
+		int idObjeto = codificarEntidad(c, objeto, false);
+		int repeticiones = c.grafo.repeticiones(idSujeto, idPropiedad, idObjeto);
+		c.grafo.cambiarRepeticiones(idSujeto, idPropiedad, idObjeto, repeticiones + 1);
+		sentencias++;
+		estadisticas.anadirSentencias(idPropiedad, 1);
+		if( repeticiones == 0 )
+			estadisticas.anadirArista(idPropiedad, aristasGrupo(idSujeto, idPropiedad, true), aristasGrupo(idObjeto, idPropiedad, false),
+					grafo.gradoSaliente(idSujeto), grafo.gradoEntrante(idObjeto));
+		cambioHecho(c);
+	}
+	
+	/**
+	 * Elimina una repeticin de una sentencia del almacn. Cuando no le quedan repeticiones, la sentencia deja de
+	 * estar en el almacn; sus entidades se conservan aunque ya no aparezcan en ninguna otra sentencia.
+	 * @param sujeto - sujeto de la sentencia
+	 * @param propiedad - propiedad de la sentencia
+	 * @param objeto - objeto de la sentencia
+	 * @return true si la sentencia estaba en el almacn, o false si no estaba (y el almacn no cambia)
+	 * @throws IllegalStateException si el almacn est congelado
+	 */
+	public boolean eliminar( String sujeto, String propiedad, String objeto ) {
+		comprobarModificable();
+		int idSujeto = entidades.obtenerValor(sujeto), idPropiedad = nombresPropiedades.obtenerValor(propiedad), idObjeto = entidades.obtenerValor(objeto);
+		if( idSujeto == -1 || idPropiedad == -1 || idObjeto == -1 )
+			return false;
+		int repeticiones = grafo.repeticiones(idSujeto, idPropiedad, idObjeto);
+		if( repeticiones == 0 )
+			return false;
+		CambiosPendientes c = cambiosPendientes();
+		if( registro != null )
+			registro.anotar(false, sujeto, propiedad, objeto);
+		c.grafo.cambiarRepeticiones(idSujeto, idPropiedad, idObjeto, repeticiones - 1);
+		sentencias--;
+		estadisticas.anadirSentencias(idPropiedad, -1);
+		if( repeticiones == 1 )
+			estadisticas.eliminarArista(idPropiedad, aristasGrupo(idSujeto, idPropiedad, true), aristasGrupo(idObjeto, idPropiedad, false),
+					grafo.gradoSaliente(idSujeto), grafo.gradoEntrante(idObjeto));
+		cambioHecho(c);
+		return true;
+	}
+	
+	/**
+	 * Aade varias sentencias al almacn, como insertar. Cada una es una lnea "sujeto propiedad objeto ." como
+	 * las de los ficheros de sentencias (por ejemplo, las de otro almacn con recorrerSentencias).
+	 * @param sentencias - recorrido de las sentencias a aadir
+	 * @return el nmero de sentencias aadidas
+	 * @throws IllegalStateException si el almacn est congelado
+	 */
+	public int insertarSentencias( Iterator<String> sentencias ) {
+		StringTokenizer tokenizador;
+		int n = 0;
+		while( sentencias.hasNext() ) {
+			tokenizador = new StringTokenizer(sentencias.next());
+			insertar(tokenizador.nextToken(), tokenizador.nextToken(), tokenizador.nextToken());
+			n++;
+		}
+		return n;
+	}
+	
+	/**
+	 * Elimina una repeticin de cada una de varias sentencias, como eliminar. Las que no estn se ignoran.
+	 * @param sentencias - recorrido de las sentencias a eliminar, en el formato de insertarSentencias
+	 * @return el nmero de sentencias eliminadas
+	 * @throws IllegalStateException si el almacn est congelado
+	 */
+	public int eliminarSentencias( Iterator<String> sentencias ) {
+		StringTokenizer tokenizador;
+		int n = 0;
+		while( sentencias.hasNext() ) {
+			tokenizador = new StringTokenizer(sentencias.next());
+			if( eliminar(tokenizador.nextToken(), tokenizador.nextToken(), tokenizador.nextToken()) )
+				n++;
+		}
+		return n;
+	}
+	
+	/**
+	 * Aade al almacn las sentencias de un fichero de texto, como si se aadieran al final del fichero del
+	 * que se carg. Si se produce un error de lectura, las sentencias ledas hasta entonces quedan aadidas.
+	 * @param nombreDeArchivo - fichero del que se toman las sentencias
+	 * @return el nmero de sentencias aadidas, o -1 si no se ha podido leer el fichero
+	 * @throws IllegalStateException si el almacn est congelado
+	 */
+	public int insertarFichero( String nombreDeArchivo ) {
+		comprobarModificable();
+		StringTokenizer tokenizador;
+		String sentencia;
+		int n = 0;
+		try {
+			Fichero fichero = new Fichero(nombreDeArchivo, false, false);
+			sentencia = fichero.leer();
+			while( sentencia != null ) {
+				tokenizador = new StringTokenizer(sentencia);
+				insertar(tokenizador.nextToken(), tokenizador.nextToken(), tokenizador.nextToken());
+				n++;
+				sentencia = fichero.leer();
+			}
+			fichero.close();
+		} catch (IOException e) {
+			System.err.println("Error: Imposible acceder al fichero especificado.");
+			return -1;
+		}
+		return n;
+	}
+	
+	/**
+	 * Carga un almacn desde una copia, de texto o binaria (escrita por guardarBinario), y le aplica las operaciones
+	 * de su registro de cambios. A partir de entonces, cada insercin y eliminacin se anota en el registro antes de
+	 * hacerse; las anotaciones se escriben en grupos de RegistroCambios.tamGrupoPorDefecto operaciones, o antes con
+	 * confirmarCambios. Si el registro no existe, se crea.
+	 * @param copia - fichero con la ltima copia del almacn
+	 * @param nombreRegistro - fichero del registro de cambios
+	 * @return el almacn con los cambios registrados, o null si no se ha podido cargar
+	 */
+	public static Almacen recuperar(String copia, String nombreRegistro) {
+		return recuperar(copia, nombreRegistro, RegistroCambios.tamGrupoPorDefecto);
+	}
+	
+	/**
+	 * Carga un almacn desde una copia y le aplica las operaciones de su registro de cambios, como recuperar,
+	 * eligiendo el nmero de operaciones de cada grupo: 1 confirma cada operacin al anotarla.
+	 * @param copia - fichero con la ltima copia del almacn
+	 * @param nombreRegistro - fichero del registro de cambios
+	 * @param tamGrupo - nmero de operaciones que se escriben juntas
+	 * @return el almacn con los cambios registrados, o null si no se ha podido cargar
+	 */
+	public static Almacen recuperar(String copia, String nombreRegistro, int tamGrupo) {
+		boolean binaria;
+		try {
+			DataInputStream cabecera = new DataInputStream(new FileInputStream(copia));
+			try {
+				binaria = cabecera.readInt() == firmaBinario;
+			} catch (EOFException e) {
+				binaria = false;
+			} finally {
+				cabecera.close();
+			}
+		} catch (IOException e) {
+			System.err.println("Error: Imposible acceder al fichero especificado.");
+			return null;
+		}
+		Almacen almacen = binaria ? cargarBinario(copia) : cargar(copia);
+		if( almacen == null )
+			return null;
+		try {
+			almacen.registro = RegistroCambios.abrir(almacen, nombreRegistro, copia, binaria, tamGrupo);
+		} catch (IOException e) {
+			System.err.println("Error: Imposible recuperar el registro de cambios: " + e.getMessage());
+			return null;
+		}
+		return almacen;
+	}
+	
+	/**
+	 * Escribe en el registro de cambios las operaciones anotadas y las fuerza al disco: al volver, todos los
+	 * cambios hechos hasta el momento son duraderos.
+	 * @return true si se han escrito, o si el almacn no tiene registro; false si se ha producido un error
+	 */
+	public boolean confirmarCambios() {
+		if( registro == null )
+			return true;
+		try {
+			registro.confirmar();
+			return true;
+		} catch (IOException e) {
+			System.err.println("Error: Imposible escribir en el registro de cambios.");
+			return false;
+		}
+	}
+	
+	/**
+	 * Compacta el registro de cambios: escribe el contenido actual del almacn en una copia nueva, con el mismo
+	 * formato que la anterior, y vaca el registro. La copia se escribe en un fichero temporal que despus
+	 * sustituye a la anterior, de forma que si el proceso se interrumpe siempre queda una copia completa con su
+	 * registro. Tras sustituir la copia, el registro anterior ya no corresponde a ella y no vuelve a aplicarse.
+	 * @return true si se ha compactado, false si el almacn no tiene registro o se ha producido un error
+	 */
+	public boolean compactar() {
+		if( registro == null )
+			return false;
+		aplicarCambios();
+		File copia = new File(registro.copia()), temporal = new File(registro.copia() + ".tmp");
+		try {
+			FileOutputStream fichero = new FileOutputStream(temporal);
+			try {
+				if( registro.copiaBinaria() ) {
+					escribirBinario( new DataOutputStream( new BufferedOutputStream(fichero, 1 << 16) ) );
+				} else if( Fichero.comprimido(registro.copia()) ) {
+					GZIPOutputStream comprimido = new GZIPOutputStream(fichero, 1 << 16);
+					escribirSentencias(comprimido);
+					comprimido.finish();
+				} else {
+					escribirSentencias(fichero);
+				}
+				fichero.getFD().sync();
+			} finally {
+				fichero.close();
+			}
+			Files.move(temporal.toPath(), copia.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			registro.reiniciar();
+			return true;
+		} catch (IOException e) {
+			System.err.println("Error: Imposible compactar el registro de cambios.");
+			return false;
+		}
+	}
+	
+	/**
+	 * Confirma los cambios anotados y cierra el registro de cambios. Los cambios posteriores no se registran.
+	 * @return true si se ha cerrado sin errores, o si el almacn no tiene registro
+	 */
+	public boolean cerrarRegistro() {
+		if( registro == null )
+			return true;
+		try {
+			registro.close();
+			return true;
+		} catch (IOException e) {
+			System.err.println("Error: Imposible escribir en el registro de cambios.");
+			return false;
+		} finally {
+			registro = null;
+		}
+	}
+	
+	
+	/// ESTADSTICAS
+	// Se calculan al cargar el almacn con una pasada por el grafo, y se actualizan con cada sentencia aadida o
+	// eliminada, sin volver a recorrerlo. Sirven para ordenar los patrones de las
+	// consultas, reservar memoria para los resultados antes de calcularlos o localizar nodos con muchas aristas.
+	
+	/**
+	 * Estadsticas de una propiedad: sentencias, sujetos y objetos distintos, y abanicos de salida y entrada.
+	 * @param propiedad - propiedad de la que se piden las estadsticas
+	 * @return las estadsticas de la propiedad, o null si no aparece en el almacn
+	 */
+	public EstadisticasPropiedad estadisticasPropiedad(String propiedad) {
+		int idPropiedad = nombresPropiedades.obtenerValor(propiedad);
+		return (idPropiedad == -1) ? null : estadisticas.propiedad(idPropiedad, propiedad);
+	}
+	
+	/**
+	 * Histograma de los grados de salida de los nodos, contando las sentencias distintas de cada uno.
+	 * La posicin 0 es el nmero de nodos sin sentencias como sujeto, y la posicin k > 0 el de nodos
+	 * con entre 2^(k-1) y 2^k - 1 sentencias distintas como sujeto.
+	 * @return un array nuevo con el nmero de nodos de cada grupo de grados
+	 */
+	public int[] histogramaGradoSalida() {
+		return estadisticas.histograma(true);
+	}
+	
+	/**
+	 * Histograma de los grados de entrada de los nodos, contando las sentencias distintas de cada uno.
+	 * Las posiciones son como las de histogramaGradoSalida, contando las sentencias en las que el nodo es objeto.
+	 * @return un array nuevo con el nmero de nodos de cada grupo de grados
+	 */
+	public int[] histogramaGradoEntrada() {
+		return estadisticas.histograma(false);
+	}
+	
+	/**
+	 * Entidades con muchas sentencias distintas como sujeto o como objeto, que hacen ms lentas las consultas
+	 * que pasan por ellas.
+	 * @param gradoMinimo - nmero mnimo de sentencias distintas como sujeto o como objeto
+	 * @return un vector con las entidades cuyo grado de salida o de entrada es al menos gradoMinimo
+	 */
+	public ListaArray<String> entidadesConGradoMinimo(int gradoMinimo) {
+		ListaArray<String> resultado = new ListaArray<String>();
+		for( int v = 0; v < grafo.numNodos(); ++v )
+			if( grafo.gradoSaliente(v) >= gradoMinimo || grafo.gradoEntrante(v) >= gradoMinimo )
+				resultado.insertLast(entidades.obtenerString(v));
 		return resultado;
 	}
 	
 	
-	// Bsqueda en profundidad desde "nodo" recorriendo solo las aristas de peso "propiedad"
-	// Los nodos que se recorren se guardan en "resultado"
-	private void DFS( int nodo, int propiedad, boolean[] recorridos, ListaEnlazada<String> resultado ) {
-		Arista a;
-		for (int i = 0; i < nodosSalientes.get(nodo).size(); ++i) {
-			a = nodosSalientes.get(nodo).get(i);
-			if (a.propiedad == propiedad && !recorridos[a.verticeObjetivo]) {
-				recorridos[a.verticeObjetivo] = true;
-				resultado.insertLast(listaSujetosObjetos.get(a.verticeObjetivo));
-				DFS(a.verticeObjetivo, idPropiedadSubClaseDe, recorridos, resultado);
+	/// RECORRIDOS PEREZOSOS
+	// Devuelven los mismos resultados, en el mismo orden, que las consultas correspondientes, pero cada
+	// elemento se calcula cuando se pide al iterador. Sirven para escribir resultados grandes con memoria constante.
+	
+	/**
+	 * 1) Recorrido de las sentencias del almacn que tienen un sujeto determinado.
+	 * @param sujeto - sujeto cuyas sentencias han de devolverse
+	 * @return un iterador sobre las sentencias que tienen Sujeto como sujeto
+	 */
+	public Iterator<String> recorrerSentenciasPorSujeto( String sujeto ) {
+		int index = entidades.obtenerValor(sujeto);
+		// Si el sujeto no existe, el recorrido es vaco
+		if( index == -1 )
+			return Collections.<String>emptyIterator();
+		return new RecorridoSentencias(index, index+1, false, true);
+	}
+	
+	/**
+	 * 2) Recorrido de las sentencias distintas del almacn que tienen un sujeto determinado.
+	 * @param sujeto - sujeto cuyas sentencias han de devolverse
+	 * @return un iterador sobre las sentencias sin repeticiones que tienen Sujeto como sujeto
+	 */
+	public Iterator<String> recorrerSentenciasDistintasPorSujeto( String sujeto ) {
+		int index = entidades.obtenerValor(sujeto);
+		if( index == -1 )
+			return Collections.<String>emptyIterator();
+		return new RecorridoSentencias(index, index+1, false, false);
+	}
+	
+	/**
+	 * 3) Recorrido de las propiedades distintas que aparecen en las sentencias del almacn.
+	 * @return un iterador sobre las propiedades sin repeticiones
+	 */
+	public Iterator<String> recorrerPropiedadesDistintas() {
+		return new Recorrido() {
+			private int propiedad = 0;
+			protected String avanzar() {
+				while( propiedad < propiedades && estadisticas.sentencias(propiedad) == 0 )
+					propiedad++;
+				return (propiedad < propiedades) ? nombresPropiedades.obtenerString(propiedad++) : null;
+			}
+		};
+	}
+	
+	/**
+	 * 4) Recorrido de las entidades distintas que son sujeto de alguna sentencia y tambin objeto de alguna sentencia.
+	 * @return un iterador sobre las entidades que son sujeto y a la vez objeto en el almacn
+	 */
+	public Iterator<String> recorrerEntidadesSujetoObjeto() {
+		return new Recorrido() {
+			private int nodo = 0;
+			protected String avanzar() {
+				while( nodo < grafo.numNodos() ) {
+					if( grafo.gradoSaliente(nodo) > 0 && grafo.gradoEntrante(nodo) > 0 )
+						return entidades.obtenerString(nodo++);
+					nodo++;
+				}
+				return null;
+			}
+		};
+	}
+	
+	/**
+	 * 5) Recorrido de las entidades que son sujeto en todos y cada uno de los almacenes.
+	 * @param coleccionAlmacenes - almacenes a intersectar
+	 * @return un iterador sobre las entidades que son sujeto en todos y cada uno de los almacenes
+	 */
+	public static Iterator<String> recorrerEntidadesSujetoEnTodos( Almacen[] coleccionAlmacenes ) {
+		return new RecorridoSujetosEnTodos(coleccionAlmacenes);
+	}
+	
+	/**
+	 * 6) Recorrido ordenado de todas las sentencias que aparecen en el almacn.
+	 * @return un iterador sobre las sentencias del almacn segn el orden descrito en el enunciado
+	 */
+	public Iterator<String> recorrerSentenciasOrdenadas() {
+		aplicarCambios();
+		// Las entidades se recorren segn su posicin en el diccionario, que sigue el orden lexicogrfico
+		return new RecorridoSentencias(0, entidades.size(), true, true);
+	}
+	
+	/**
+	 * 7a) Recorrido de las clases de un sujeto.
+	 * @param sujeto - sujeto del que se buscan las clases
+	 * @return un iterador sobre las clases del parmetro sujeto
+	 */
+	public Iterator<String> recorrerClasesDe( String sujeto ) {
+		int idSujeto = entidades.obtenerValor(sujeto);
+		if( idSujeto == -1 )
+			return Collections.<String>emptyIterator();
+		IndiceClases indice = indiceClases;
+		if( indice != null )
+			return new RecorridoCierre(indice, idSujeto, idPropiedadEs);
+		return new RecorridoJerarquia(idSujeto, true, -1, idPropiedadEs, -1, idPropiedadSubClaseDe, true, null);
+	}
+	
+	/**
+	 * 7b) Recorrido de las clases que son superclase de una clase.
+	 * @param clase - clase de la que se buscan las superclases
+	 * @return un iterador sobre las superclases del parmetro clase
+	 */
+	public Iterator<String> recorrerSuperClasesDe( String clase ) {
+		int idClase = entidades.obtenerValor(clase);
+		if( idClase == -1 )
+			return Collections.<String>emptyIterator();
+		IndiceClases indice = indiceClases;
+		if( indice != null )
+			return new RecorridoCierre(indice, idClase, idPropiedadSubClaseDe);
+		return recorridoSuperClases(idClase, null);
+	}
+	
+	/**
+	 * 8) Recorrido de las entidades que son de una determinada clase.
+	 * @param clase - clase de la que se buscan las entidades
+	 * @return un iterador sobre las entidades que son del parmetro clase
+	 */
+	public Iterator<String> recorrerEntidadesDeClase( String clase ) {
+		final int idClase = entidades.obtenerValor(clase);
+		if( idClase == -1 )
+			return Collections.<String>emptyIterator();
+		final IndiceClases indice = indiceClases;
+		if( indice != null ) {
+			// Las entidades de la clase estn precalculadas, en orden
+			final int fin = indice.inicioEntidades[idClase+1];
+			return new Recorrido() {
+				private int posicion = indice.inicioEntidades[idClase];
+				protected String avanzar() {
+					return (posicion < fin) ? entidades.obtenerString(indice.entidadesDeClase[posicion++]) : null;
+				}
+			};
+		}
+		return recorridoEntidades(idClase, null);
+	}
+	
+	/**
+	 * 9b) Recorrido de todas las sentencias del almacn, en el orden en el que las escribe descargar.
+	 * @return un iterador sobre todas las sentencias del almacn, con sus repeticiones
+	 */
+	public Iterator<String> recorrerSentencias() {
+		return new RecorridoSentencias(0, grafo.numNodos(), false, true);
+	}
+	
+	/**
+	 * 10) Recorrido de los estudiantes distintos que cursan alguna asignatura de la que es encargado un determinado profesor.
+	 * @param profesor - profesor encargado de las asignaturas de las que se buscan los estudiantes
+	 * @return un iterador sobre las entidades que son estudiantes de asignaturas que imparte el parmetro profesor
+	 */
+	public Iterator<String> recorrerEstudiantesDelProfesor( String profesor ) {
+		int idProfesor = entidades.obtenerValor(profesor);
+		if( idProfesor == -1 )
+			return Collections.<String>emptyIterator();
+		// Aristas salientes de idProfesor con peso 'encargadoDe', y despus entrantes con peso 'cursa'
+		return new RecorridoDosSaltos(idProfesor, true, idPropiedadEncargadoDe, idPropiedadCursa);
+	}
+	
+	/**
+	 * 11) Recorrido de los profesores distintos que trabajan para algn departamento de una universidad.
+	 * @param universidad - universidad de la que buscar profesores que trabajan para algn departamento suyo
+	 * @return un iterador sobre las entidades que son profesores que trabajan en algn departamento del parmetro universidad
+	 */
+	public Iterator<String> recorrerProfesoresDeUniversidad( String universidad ) {
+		int idUniversidad = entidades.obtenerValor(universidad);
+		if( idUniversidad == -1 )
+			return Collections.<String>emptyIterator();
+		// Aristas entrantes de idUniversidad con peso 'departamentoDe', y despus entrantes con peso 'trabajaPara'
+		return new RecorridoDosSaltos(idUniversidad, false, idPropiedadDepartamentoDe, idPropiedadTrabajaPara);
+	}
+	
+	/**
+	 * Recorrido de las entidades distintas que se alcanzan desde una entidad siguiendo un camino de propiedades.
+	 * @param origen - entidad desde la que se sigue el camino
+	 * @param camino - pasos que se siguen, en orden
+	 * @return un iterador sobre las entidades del resultado, en el orden en que se alcanzan
+	 */
+	public Iterator<String> recorrerCamino( String origen, CaminoPropiedades camino ) {
+		int idOrigen = entidades.obtenerValor(origen);
+		if( idOrigen == -1 )
+			return Collections.<String>emptyIterator();
+		if( camino.longitud() == 0 )
+			return Collections.singletonList(entidades.obtenerString(idOrigen)).iterator();
+		int[] propiedadesCamino = new int[camino.longitud()];
+		boolean[] salientes = new boolean[camino.longitud()];
+		for( int paso = 0; paso < camino.longitud(); ++paso ) {
+			// Con una propiedad que no est en el almacn no se alcanza ninguna entidad
+			propiedadesCamino[paso] = nombresPropiedades.obtenerValor(camino.propiedad(paso));
+			if( propiedadesCamino[paso] == -1 )
+				return Collections.<String>emptyIterator();
+			salientes[paso] = camino.esSaliente(paso);
+		}
+		return new RecorridoCamino(idOrigen, propiedadesCamino, salientes);
+	}
+	
+	
+	/// ESCRITURA DIRECTA
+	// Escriben en un flujo de salida las mismas sentencias, en el mismo orden, que las consultas correspondientes,
+	// una por lnea y en UTF-8. Los bytes se copian de los diccionarios a un buffer reutilizable y las repeticiones
+	// se escriben copiando la lnea ya escrita, de modo que no se crea ningn String ni objeto por sentencia.
+	// No cierran el flujo de salida.
+	
+	/**
+	 * 1) Escribir las sentencias del almacn que tienen un sujeto determinado.
+	 * @param sujeto - sujeto cuyas sentencias han de escribirse
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void escribirSentenciasPorSujeto( String sujeto, OutputStream salida ) throws IOException {
+		int index = entidades.obtenerValor(sujeto);
+		if( index != -1 )
+			escribirRango(index, index+1, false, true, salida);
+	}
+	
+	/**
+	 * 2) Escribir las sentencias distintas del almacn que tienen un sujeto determinado.
+	 * @param sujeto - sujeto cuyas sentencias han de escribirse
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void escribirSentenciasDistintasPorSujeto( String sujeto, OutputStream salida ) throws IOException {
+		int index = entidades.obtenerValor(sujeto);
+		if( index != -1 )
+			escribirRango(index, index+1, false, false, salida);
+	}
+	
+	/**
+	 * 6) Escribir las sentencias del almacn ordenadas alfabticamente.
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void escribirSentenciasOrdenadas( OutputStream salida ) throws IOException {
+		aplicarCambios();
+		escribirRango(0, entidades.size(), true, true, salida);
+	}
+	
+	/**
+	 * 9) Escribir todas las sentencias del almacn, en el orden en que las escribe descargar.
+	 * @param salida - flujo en el que escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void escribirSentencias( OutputStream salida ) throws IOException {
+		aplicarCambios();
+		escribirRango(0, grafo.numNodos(), false, true, salida);
+	}
+	
+	
+	// Escribe las sentencias de los nodos de las posiciones [desde, hasta), igual que RecorridoSentencias
+	private void escribirRango( int desde, int hasta, boolean enOrden, boolean conRepeticiones, OutputStream salida ) throws IOException {
+		// Una lnea nunca ocupa ms de maxLinea bytes, y el buffer tiene sitio al menos para dos
+		final int maxLinea = 2 * entidades.longitudMaxima() + nombresPropiedades.longitudMaxima() + 2 + finSentencia.length;
+		BufferSalida buffer = new BufferSalida(salida, Math.max(1 << 16, 2 * maxLinea));
+		final byte[] array = buffer.array();
+		int nodo, a, inicio, p;
+		for( int posicion = desde; posicion < hasta; ++posicion ) {
+			nodo = enOrden ? entidades.valorEnPosicion(posicion) : posicion;
+			for( int arista = grafo.inicioSalientes(nodo); arista < grafo.finSalientes(nodo); ++arista ) {
+				a = enOrden ? aristasOrdenadas[arista] : arista;
+				buffer.reservar(maxLinea);
+				inicio = buffer.posicion();
+				p = entidades.copiar(nodo, array, inicio);
+				array[p++] = ' ';
+				p = nombresPropiedades.copiar(grafo.propiedadSaliente(a), array, p);
+				array[p++] = ' ';
+				p = entidades.copiar(grafo.destinoSaliente(a), array, p);
+				System.arraycopy(finSentencia, 0, array, p, finSentencia.length);
+				buffer.posicion(p + finSentencia.length);
+				if( conRepeticiones )
+					buffer.repetir(inicio, grafo.repeticionesSaliente(a) - 1);
 			}
 		}
+		buffer.volcar();
+		salida.flush();
+	}
+	
+	// Lanza una excepcin si el almacn no puede modificarse
+	private void comprobarModificable() {
+		if( congelado )
+			throw new IllegalStateException("El almacn est congelado: no puede modificarse.");
+	}
+	
+	// Devuelve los cambios pendientes, crendolos si no hay: desde entonces el grafo y los diccionarios del almacn son sus vistas
+	private CambiosPendientes cambiosPendientes() {
+		comprobarModificable();
+		if( cambios == null ) {
+			cambios = new CambiosPendientes(grafo, entidades, nombresPropiedades);
+			grafo = cambios.grafo;
+			entidades = cambios.entidades;
+			nombresPropiedades = cambios.propiedades;
+		}
+		return cambios;
 	}
 	
-	// Bsqueda en profundidad hacia atrs desde "nodo", recorriendo por nodosEntrantes
-	// Se lanza la bsqueda otra vez si el peso de la arista es 'subClaseDe', o se aade
-	// el nodo al resultado si el peso es 'es'
-	private void DFSinversa( int nodo, boolean[] recorridos, ListaEnlazada<String> resultado ) {
-		Arista a;
-		for (int i = 0; i < nodosEntrantes.get(nodo).size(); ++i) {
-			a = nodosEntrantes.get(nodo).get(i);
-			if (a.propiedad == idPropiedadEs && !recorridos[a.verticeObjetivo]) {
-				recorridos[a.verticeObjetivo] = true;
-				resultado.insertLast(listaSujetosObjetos.get(a.verticeObjetivo));
-			} else if (a.propiedad == idPropiedadSubClaseDe && !recorridos[a.verticeObjetivo]) {
-				recorridos[a.verticeObjetivo] = true;
-				DFSinversa(a.verticeObjetivo, recorridos, resultado);
+	// ndice de una entidad, asignndole el siguiente si es nueva (como al cargar el fichero)
+	private int codificarEntidad( CambiosPendientes c, String entidad, boolean comoSujeto ) {
+		final int nuevo = c.entidades.size();
+		int valor = c.entidades.insertar(entidad);
+		if( valor == nuevo ) {
+			c.grafo.anadirNodo();
+			estadisticas.anadirNodo();
+			if( comoSujeto )
+				sujetos++;
+			else
+				objetos++;
+		}
+		return valor;
+	}
+	
+	// ndice de una propiedad, asignndole el siguiente si es nueva
+	private int codificarPropiedad( CambiosPendientes c, String propiedad ) {
+		final int nuevo = c.propiedades.size();
+		int valor = c.propiedades.insertar(propiedad);
+		if( valor == nuevo ) {
+			propiedades++;
+			estadisticas.ampliarPropiedades(propiedades);
+			// Una propiedad especial puede aparecer ahora por primera vez
+			idPropiedadEs = idPropiedad(propiedadEs);
+			idPropiedadSubClaseDe = idPropiedad(propiedadSubClaseDe);
+			idPropiedadCursa = idPropiedad(propiedadCursa);
+			idPropiedadEncargadoDe = idPropiedad(propiedadEncargadoDe);
+			idPropiedadDepartamentoDe = idPropiedad(propiedadDepartamentoDe);
+			idPropiedadTrabajaPara = idPropiedad(propiedadTrabajaPara);
+		}
+		return valor;
+	}
+	
+	// Nmero de aristas de un nodo con una propiedad, salientes o entrantes
+	private int aristasGrupo( int nodo, int propiedad, boolean salientes ) {
+		int grupo = salientes ? grafo.grupoSalientes(nodo, propiedad) : grafo.grupoEntrantes(nodo, propiedad);
+		if( grupo == -1 )
+			return 0;
+		return salientes ? grafo.finGrupoSalientes(grupo) - grafo.inicioGrupoSalientes(grupo)
+				: grafo.finGrupoEntrantes(grupo) - grafo.inicioGrupoEntrantes(grupo);
+	}
+	
+	// Tras un cambio: el ndice de clases deja de valer hasta que se aplican los cambios, y estos se aplican si
+	// han cambiado demasiadas aristas del grafo
+	private void cambioHecho( CambiosPendientes c ) {
+		if( indiceClases != null ) {
+			indiceClases = null;
+			c.reindexarClases = true;
+		}
+		if( c.grafo.aristasCambiadas() > c.limiteCambios )
+			aplicarCambios();
+	}
+	
+	// Aplica los cambios pendientes, si los hay: compacta los diccionarios y el grafo, que conservan los ndices y
+	// el orden de las aristas salientes de sus vistas, ordena de nuevo las aristas y reconstruye el ndice de clases si lo haba.
+	// Las estadsticas ya estn al da
+	private void aplicarCambios() {
+		final CambiosPendientes c = cambios;
+		if( c == null )
+			return;
+		cambios = null;
+		entidades = c.entidades.compactar();
+		nombresPropiedades = c.propiedades.compactar();
+		grafo = c.grafo.compactar();
+		aristasOrdenadas = ordenarAristas();
+		if( c.reindexarClases )
+			indexarClases();
+	}
+	
+	// Toma las marcas de recorrido del hilo actual, limpias, o crea otras si el hilo no tiene (o las est usando)
+	private MarcasRecorrido tomarMarcas() {
+		MarcasRecorrido marcas = marcasDelHilo.get();
+		// Las marcas de antes de aadir entidades se quedan pequeas
+		if( marcas == null || marcas.size() < grafo.numNodos() )
+			return new MarcasRecorrido(grafo.numNodos());
+		marcasDelHilo.set(null);
+		marcas.limpiar();
+		return marcas;
+	}
+	
+	// Devuelve unas marcas de recorrido al hilo actual, para que las use su siguiente recorrido
+	private void devolverMarcas( MarcasRecorrido marcas ) {
+		marcasDelHilo.set(marcas);
+	}
+	
+	// Superclases de una clase: sus aristas 'subClaseDe' salientes y, desde cada destino, las suyas
+	private RecorridoJerarquia recorridoSuperClases( int idClase, MarcasRecorrido marcas ) {
+		return new RecorridoJerarquia(idClase, true, -1, idPropiedadSubClaseDe, -1, idPropiedadSubClaseDe, true, marcas);
+	}
+	
+	// Entidades de una clase: orgenes de sus aristas 'es' entrantes, bajando por las 'subClaseDe' entrantes
+	private RecorridoJerarquia recorridoEntidades( int idClase, MarcasRecorrido marcas ) {
+		return new RecorridoJerarquia(idClase, false, idPropiedadEs, idPropiedadSubClaseDe, idPropiedadEs, idPropiedadSubClaseDe, false, marcas);
+	}
+	
+	// Aade a destino los extremos no marcados de las aristas de un peso de los nodos de la frontera, y los marca
+	private void expandir( ListaEnteros frontera, int propiedad, boolean saliente, MarcasRecorrido marcas, ListaEnteros destino ) {
+		int nodo, grupo, extremo, fin;
+		for( int k = 0; k < frontera.size(); ++k ) {
+			nodo = frontera.get(k);
+			grupo = saliente ? grafo.grupoSalientes(nodo, propiedad) : grafo.grupoEntrantes(nodo, propiedad);
+			if( grupo == -1 )
+				continue;
+			fin = saliente ? grafo.finGrupoSalientes(grupo) : grafo.finGrupoEntrantes(grupo);
+			for( int i = saliente ? grafo.inicioGrupoSalientes(grupo) : grafo.inicioGrupoEntrantes(grupo); i < fin; ++i ) {
+				extremo = saliente ? grafo.destinoSaliente(grafo.aristaAgrupadaSaliente(i))
+						: grafo.origenEntrante(grafo.aristaAgrupadaEntrante(i));
+				if( !marcas.marcado(extremo) ) {
+					marcas.marcar(extremo);
+					destino.insertLast(extremo);
+				}
+			}
+		}
+	}
+	
+	// Orden en el que se resuelven los patrones: en cada paso, el que encaja con menos aristas estimadas
+	// teniendo en cuenta las variables a las que ya dan valor los patrones anteriores
+	private int[] ordenarPatrones( int[] terminos, int numVariables ) {
+		int n = terminos.length / 3, mejor;
+		int[] orden = new int[n];
+		boolean[] usado = new boolean[n], conValor = new boolean[numVariables];
+		double menor, estimacion;
+		for( int nivel = 0; nivel < n; ++nivel ) {
+			mejor = -1;
+			menor = 0;
+			for( int j = 0; j < n; ++j ) {
+				if( usado[j] )
+					continue;
+				estimacion = estimarAristas(terminos, 3*j, conValor);
+				if( mejor == -1 || estimacion < menor ) {
+					mejor = j;
+					menor = estimacion;
+				}
 			}
+			orden[nivel] = mejor;
+			usado[mejor] = true;
+			for( int k = 3*mejor; k < 3*mejor+3; ++k )
+				if( terminos[k] < 0 )
+					conValor[-terminos[k]-1] = true;
 		}
+		return orden;
 	}
 	
+	// Nmero estimado de aristas que encajan con el patrn que empieza en la posicin j de los trminos,
+	// para unos valores dados de las variables que ya tienen valor
+	private double estimarAristas( int[] terminos, int j, boolean[] conValor ) {
+		boolean conSujeto = terminos[j] >= 0 || conValor[-terminos[j]-1],
+				conPropiedad = terminos[j+1] >= 0 || conValor[-terminos[j+1]-1],
+				conObjeto = terminos[j+2] >= 0 || conValor[-terminos[j+2]-1];
+		double aristas, sujetosDistintos, objetosDistintos;
+		if( terminos[j+1] >= 0 ) {
+			aristas = estadisticas.aristas(terminos[j+1]);
+			sujetosDistintos = estadisticas.sujetos(terminos[j+1]);
+			objetosDistintos = estadisticas.objetos(terminos[j+1]);
+		} else {
+			// Propiedad variable: todas las aristas, o las de una propiedad media si ya tiene valor
+			aristas = conPropiedad ? (double) grafo.numAristas() / Math.max(propiedades, 1) : grafo.numAristas();
+			sujetosDistintos = sujetos;
+			objetosDistintos = grafo.numNodos();
+		}
+		if( aristas == 0 )
+			return 0;
+		if( conSujeto && conObjeto )
+			return aristas / sujetosDistintos / objetosDistintos;
+		if( conSujeto )
+			return aristas / sujetosDistintos;
+		if( conObjeto )
+			return aristas / objetosDistintos;
+		return aristas;
+	}
+	
+	// Devuelve una lista enlazada con todos los elementos del recorrido
+	private static ListaEnlazada<String> llenar( Iterator<String> recorrido ) {
+		ListaEnlazada<String> resultado = new ListaEnlazada<String>();
+		while( recorrido.hasNext() )
+			resultado.insertLast( recorrido.next() );
+		return resultado;
+	}
+	
+
 }
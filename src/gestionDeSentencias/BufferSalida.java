@@ -0,0 +1,106 @@
+package gestionDeSentencias;
+
+import java.io.*;
+
+/**
+ * Buffer de salida reutilizable:
+ * Acumula bytes en un array de tamao fijo y lo vuelca en el flujo de salida cuando se llena, de modo que
+ * las sentencias pueden escribirse byte a byte directamente en el array, sin crear un String por lnea.
+ * @author Daniel, Ivn, Asier
+ */
+final class BufferSalida implements Closeable {
+
+	// Flujo en el que se vuelca el buffer
+	private final OutputStream salida;
+	// Bytes pendientes de volcar: buffer[0..longitud)
+	private final byte[] buffer;
+	private int longitud;
+
+
+	/**
+	 * Constructora
+	 * @param salida - flujo en el que escribir
+	 * @param capacidad - tamao del buffer en bytes
+	 */
+	BufferSalida( OutputStream salida, int capacidad ) {
+		this.salida = salida;
+		buffer = new byte[capacidad];
+		longitud = 0;
+	}
+
+	/**
+	 * Asegura que caben n bytes ms en el buffer, volcndolo si es necesario.
+	 * n no puede ser mayor que la capacidad del buffer.
+	 * @param n - nmero de bytes que se van a escribir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	void reservar( int n ) throws IOException {
+		if( longitud + n > buffer.length )
+			volcar();
+	}
+
+	/**
+	 * Devuelve el array del buffer, para escribir en l a partir de posicion() los bytes reservados.
+	 * @return el array del buffer
+	 */
+	byte[] array() {
+		return buffer;
+	}
+
+	/**
+	 * Devuelve la posicin del array en la que se escribir el siguiente byte.
+	 * @return la posicin actual
+	 */
+	int posicion() {
+		return longitud;
+	}
+
+	/**
+	 * Fija la posicin actual, despus de haber escrito directamente en el array.
+	 * @param posicion - posicin siguiente al ltimo byte escrito
+	 */
+	void posicion( int posicion ) {
+		longitud = posicion;
+	}
+
+	/**
+	 * Escribe tantas copias ms como se indique de los ltimos bytes escritos, desde la posicin inicio.
+	 * Si no caben, vuelca todo lo anterior a la ltima copia y la mueve al principio del buffer, as que
+	 * el buffer debe tener sitio para dos copias.
+	 * @param inicio - posicin del array en la que empiezan los bytes a repetir
+	 * @param veces - nmero de copias a aadir
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	void repetir( int inicio, int veces ) throws IOException {
+		final int n = longitud - inicio;
+		for( ; veces > 0; --veces ) {
+			if( longitud + n > buffer.length ) {
+				salida.write(buffer, 0, longitud - n);
+				System.arraycopy(buffer, longitud - n, buffer, 0, n);
+				longitud = n;
+			}
+			System.arraycopy(buffer, longitud - n, buffer, longitud, n);
+			longitud += n;
+		}
+	}
+
+	/**
+	 * Escribe en el flujo de salida los bytes pendientes.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	void volcar() throws IOException {
+		salida.write(buffer, 0, longitud);
+		longitud = 0;
+	}
+
+	/**
+	 * Vuelca los bytes pendientes y cierra el flujo de salida.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	@Override
+	public void close() throws IOException {
+		volcar();
+		salida.close();
+	}
+
+}
@@ -0,0 +1,80 @@
+package gestionDeSentencias;
+
+import estructurasDeDatos.ListaArray;
+
+/**
+ * Camino de propiedades:
+ * Secuencia de pasos que se siguen desde una entidad del almacn (ver Almacen.seguirCamino). Cada paso recorre
+ * las aristas de una propiedad, en el sentido de sujeto a objeto (saliente) o de objeto a sujeto (entrante).
+ * Por ejemplo, la consulta 10 sigue el camino saliente(teacherOf).entrante(takesCourse), aunque no devuelve
+ * las entidades que ya ha visto como asignaturas (ver Almacen.seguirCamino).
+ * Los mtodos de modificacin devuelven el propio objeto, para poder encadenarlos.
+ * @author Daniel, Ivn, Asier
+ */
+public class CaminoPropiedades {
+
+	// Propiedad de cada paso
+	private final ListaArray<String> propiedades;
+	// Sentido de cada paso: true si va de sujeto a objeto
+	private final ListaArray<Boolean> salientes;
+
+
+	/**
+	 * Constructora: camino vaco, que solo alcanza la propia entidad de partida
+	 */
+	public CaminoPropiedades() {
+		propiedades = new ListaArray<String>();
+		salientes = new ListaArray<Boolean>();
+	}
+
+	/**
+	 * Aade al final del camino un paso de sujeto a objeto: desde cada entidad, los objetos de sus sentencias
+	 * con la propiedad indicada.
+	 * @param propiedad - propiedad de las aristas que se siguen
+	 * @return el propio camino
+	 */
+	public CaminoPropiedades saliente( String propiedad ) {
+		propiedades.insertLast(propiedad);
+		salientes.insertLast(true);
+		return this;
+	}
+
+	/**
+	 * Aade al final del camino un paso de objeto a sujeto: desde cada entidad, los sujetos de las sentencias
+	 * que la tienen como objeto con la propiedad indicada.
+	 * @param propiedad - propiedad de las aristas que se siguen
+	 * @return el propio camino
+	 */
+	public CaminoPropiedades entrante( String propiedad ) {
+		propiedades.insertLast(propiedad);
+		salientes.insertLast(false);
+		return this;
+	}
+
+	/**
+	 * Devuelve el nmero de pasos del camino.
+	 * @return la longitud del camino
+	 */
+	public int longitud() {
+		return propiedades.size();
+	}
+
+	/**
+	 * Devuelve la propiedad de un paso del camino.
+	 * @param paso - nmero de paso, empezando a contar desde cero
+	 * @return la propiedad cuyas aristas sigue el paso
+	 */
+	public String propiedad( int paso ) {
+		return propiedades.get(paso);
+	}
+
+	/**
+	 * Comprueba el sentido de un paso del camino.
+	 * @param paso - nmero de paso, empezando a contar desde cero
+	 * @return true si el paso va de sujeto a objeto, false si va de objeto a sujeto
+	 */
+	public boolean esSaliente( int paso ) {
+		return salientes.get(paso);
+	}
+
+}
@@ -0,0 +1,149 @@
+package gestionDeSentencias;
+
+import java.io.*;
+import java.util.StringTokenizer;
+import estructurasDeDatos.*;
+
+/**
+ * Carga de una parte del fichero de sentencias:
+ * Codifica las entidades y propiedades de las sentencias ledas con enteros propios de la parte, asignados
+ * por orden de primera aparicin, y guarda cada sentencia como una terna de esos enteros.
+ * Varias partes consecutivas de un fichero pueden cargarse a la vez en hilos distintos y despus fusionarse
+ * en orden: el resultado es el mismo que si se hubiera ledo el fichero entero en una sola parte.
+ * @author Daniel, Ivn, Asier
+ */
+class CargaParcial {
+
+	// Relaciones entre entidad/propiedad e ndice correspondiente (Trie o TrieRadix), y viceversa (array)
+	final Diccionario arbolEntidades, arbolPropiedades;
+	final ListaArray<String> listaEntidades, listaPropiedades;
+	// Indica, para cada entidad, si apareci por primera vez como sujeto (o como objeto)
+	final ListaArray<Boolean> primeroComoSujeto;
+	// Sentencias ledas: la i-sima es (ternas[3i], ternas[3i+1], ternas[3i+2])
+	final ListaEnteros ternas;
+	int numSentencias, sujetos, objetos;
+	// Traduccin de los ndices de la parte a los de la parte en la que se ha fusionado (null si no se ha fusionado)
+	int[] traduccionEntidades, traduccionPropiedades;
+	// Error producido durante la lectura en otro hilo
+	IOException error;
+
+
+	/**
+	 * Constructora
+	 * @param opciones - opciones de carga (tipo de diccionario)
+	 */
+	CargaParcial( OpcionesCarga opciones ) {
+		if( opciones.trieRadix() ) {
+			arbolEntidades = new TrieRadix();
+			arbolPropiedades = new TrieRadix();
+		} else {
+			arbolEntidades = new Trie();
+			arbolPropiedades = new Trie();
+		}
+		listaEntidades = new ListaArray<String>();
+		listaPropiedades = new ListaArray<String>();
+		primeroComoSujeto = new ListaArray<Boolean>();
+		ternas = new ListaEnteros(3 * 1024);
+		numSentencias = sujetos = objetos = 0;
+	}
+
+	/**
+	 * Lee todas las sentencias del fichero, lnea a lnea.
+	 * @param nombreDeArchivo - fichero de texto desde el que leer las sentencias
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	void leer( String nombreDeArchivo ) throws IOException {
+		StringTokenizer tokenizador;
+		String sentencia;
+		Fichero fichero = new Fichero(nombreDeArchivo,false,false);
+		sentencia = fichero.leer();
+		while( sentencia != null ) {
+			tokenizador = new StringTokenizer(sentencia);
+			anadir(tokenizador.nextToken(), tokenizador.nextToken(), tokenizador.nextToken());
+			sentencia = fichero.leer();
+		}
+		fichero.close();
+	}
+
+	/**
+	 * Lee todas las sentencias restantes del lector proyectado, y lo cierra.
+	 * @param lector - lector desde el que leer las sentencias
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	void leer( LectorProyectado lector ) throws IOException {
+		while( lector.siguienteSentencia() )
+			anadir(lector.sujeto(), lector.propiedad(), lector.objeto());
+		lector.cerrar();
+	}
+
+	/**
+	 * Aade una sentencia. Solo se crea un String cuando la entidad o la propiedad es nueva.
+	 * @param sujeto - sujeto de la sentencia
+	 * @param propiedad - propiedad de la sentencia
+	 * @param objeto - objeto de la sentencia
+	 */
+	void anadir( CharSequence sujeto, CharSequence propiedad, CharSequence objeto ) {
+		ternas.insertLast( codificarEntidad(sujeto, true) );
+		ternas.insertLast( codificarPropiedad(propiedad) );
+		ternas.insertLast( codificarEntidad(objeto, false) );
+		numSentencias++;
+	}
+
+	/**
+	 * Fusiona en esta parte las entidades y propiedades de otra parte posterior del fichero, en su orden
+	 * de aparicin, y rellena la traduccin de sus ndices a los de esta parte.
+	 * @param otra - parte a fusionar
+	 */
+	void fusionar( CargaParcial otra ) {
+		otra.traduccionEntidades = new int[otra.listaEntidades.size()];
+		for( int i = 0; i < otra.listaEntidades.size(); ++i )
+			otra.traduccionEntidades[i] = codificarEntidad(otra.listaEntidades.get(i), otra.primeroComoSujeto.get(i));
+		otra.traduccionPropiedades = new int[otra.listaPropiedades.size()];
+		for( int i = 0; i < otra.listaPropiedades.size(); ++i )
+			otra.traduccionPropiedades[i] = codificarPropiedad(otra.listaPropiedades.get(i));
+	}
+
+	/**
+	 * Devuelve la entidad de la sentencia i-sima en la posicin indicada (0 sujeto, 2 objeto), o la
+	 * propiedad (1), con los ndices de la parte en la que se ha fusionado esta.
+	 * @param i - nmero de sentencia dentro de la parte
+	 * @param parte - 0, 1 o 2
+	 * @return el ndice correspondiente
+	 */
+	int terna( final int i, final int parte ) {
+		int valor = ternas.get(3*i + parte);
+		if( parte == 1 )
+			return (traduccionPropiedades == null) ? valor : traduccionPropiedades[valor];
+		else
+			return (traduccionEntidades == null) ? valor : traduccionEntidades[valor];
+	}
+
+
+	// Devuelve el ndice de la entidad, asignndole el siguiente si es nueva
+	private int codificarEntidad( final CharSequence entidad, final boolean comoSujeto ) {
+		int valor = arbolEntidades.obtenerValor(entidad);
+		if( valor == -1 ) {
+			String nueva = entidad.toString();
+			valor = arbolEntidades.insertar(nueva, listaEntidades.size());
+			listaEntidades.insertLast(nueva);
+			primeroComoSujeto.insertLast(comoSujeto);
+			if( comoSujeto )
+				sujetos++;
+			else
+				objetos++;
+		}
+		return valor;
+	}
+
+	// Devuelve el ndice de la propiedad, asignndole el siguiente si es nueva
+	private int codificarPropiedad( final CharSequence propiedad ) {
+		int valor = arbolPropiedades.obtenerValor(propiedad);
+		if( valor == -1 ) {
+			String nueva = propiedad.toString();
+			valor = arbolPropiedades.insertar(nueva, listaPropiedades.size());
+			listaPropiedades.insertLast(nueva);
+		}
+		return valor;
+	}
+
+}
@@ -0,0 +1,246 @@
+package gestionDeSentencias;
+
+import java.util.Arrays;
+import estructurasDeDatos.GrafoCompacto;
+
+/**
+ * Catlogo de estadsticas de un almacn:
+ * Para cada propiedad, nmero de sentencias, de aristas distintas, de sujetos y objetos distintos y mximo
+ * de aristas de un mismo sujeto u objeto; para los nodos, histogramas de su grado de salida y de entrada.
+ * Se calcula con una pasada por el grafo, y despus se mantiene al da con operaciones de coste constante
+ * (amortizado) cuando se aaden o eliminan sentencias. Para ello se guarda, por propiedad, cuntos nodos tienen
+ * al menos c aristas con ella, de modo que los sujetos, los objetos y los mximos se mantienen exactos.
+ * Los histogramas agrupan los grados en potencias de 2: la posicin 0 cuenta los nodos de grado 0, y la
+ * posicin k > 0 los de grado entre 2^(k-1) y 2^k - 1.
+ * @author Daniel, Ivn, Asier
+ */
+final class CatalogoEstadisticas {
+
+	// Nmero de posiciones de los histogramas de grados (cubre todos los int positivos)
+	static final int posicionesHistograma = 33;
+
+	// Por propiedad: sentencias (con repeticiones) y aristas distintas
+	private int[] sentencias, aristas;
+	// Por propiedad p y nmero c > 0: nodos con al menos c aristas salientes (sujetos) o entrantes (objetos) con p.
+	// La posicin 1 es el nmero de sujetos u objetos distintos
+	private int[][] nodosSalientes, nodosEntrantes;
+	// Por propiedad: mximo de aristas de un sujeto (salientes) o de un objeto (entrantes)
+	private int[] maximoSalientes, maximoEntrantes;
+	// Nmero de nodos de cada grupo de grados, de salida y de entrada
+	private final int[] histogramaSalientes, histogramaEntrantes;
+
+
+	/**
+	 * Constructora
+	 * Calcula las estadsticas de todas las aristas del grafo.
+	 * @param grafo - grafo del almacn
+	 * @param numPropiedades - nmero de propiedades distintas
+	 */
+	CatalogoEstadisticas( GrafoCompacto grafo, int numPropiedades ) {
+		sentencias = new int[numPropiedades];
+		aristas = new int[numPropiedades];
+		nodosSalientes = new int[numPropiedades][];
+		nodosEntrantes = new int[numPropiedades][];
+		maximoSalientes = new int[numPropiedades];
+		maximoEntrantes = new int[numPropiedades];
+		histogramaSalientes = new int[posicionesHistograma];
+		histogramaEntrantes = new int[posicionesHistograma];
+		for( int p = 0; p < numPropiedades; ++p ) {
+			nodosSalientes[p] = new int[2];
+			nodosEntrantes[p] = new int[2];
+		}
+		// ltimo nodo contado para cada propiedad y aristas que lleva: las aristas de un nodo se recorren seguidas
+		int[] ultimo = new int[numPropiedades], cuenta = new int[numPropiedades];
+		int p;
+		Arrays.fill(ultimo, -1);
+		for( int v = 0; v < grafo.numNodos(); ++v ) {
+			histogramaSalientes[posicion(grafo.gradoSaliente(v))]++;
+			for( int a = grafo.inicioSalientes(v); a < grafo.finSalientes(v); ++a ) {
+				p = grafo.propiedadSaliente(a);
+				sentencias[p] += grafo.repeticionesSaliente(a);
+				aristas[p]++;
+				if( ultimo[p] != v ) {
+					ultimo[p] = v;
+					cuenta[p] = 0;
+				}
+				contar(nodosSalientes, maximoSalientes, p, ++cuenta[p]);
+			}
+		}
+		Arrays.fill(ultimo, -1);
+		for( int v = 0; v < grafo.numNodos(); ++v ) {
+			histogramaEntrantes[posicion(grafo.gradoEntrante(v))]++;
+			for( int a = grafo.inicioEntrantes(v); a < grafo.finEntrantes(v); ++a ) {
+				p = grafo.propiedadEntrante(a);
+				if( ultimo[p] != v ) {
+					ultimo[p] = v;
+					cuenta[p] = 0;
+				}
+				contar(nodosEntrantes, maximoEntrantes, p, ++cuenta[p]);
+			}
+		}
+	}
+
+	/**
+	 * Devuelve la posicin del histograma que corresponde a un grado.
+	 * @param grado - nmero de aristas de un nodo
+	 * @return 0 si el grado es 0, o el nmero de bits del grado
+	 */
+	static int posicion( int grado ) {
+		return 32 - Integer.numberOfLeadingZeros(grado);
+	}
+
+	/**
+	 * Devuelve el nmero de propiedades del catlogo.
+	 * @return el nmero de propiedades
+	 */
+	int numPropiedades() {
+		return sentencias.length;
+	}
+
+	/**
+	 * Devuelve las estadsticas de una propiedad.
+	 * @param propiedad - valor de la propiedad
+	 * @param nombre - nombre de la propiedad
+	 * @return las estadsticas de la propiedad en este momento
+	 */
+	EstadisticasPropiedad propiedad( int propiedad, String nombre ) {
+		return new EstadisticasPropiedad(nombre, sentencias[propiedad], aristas[propiedad], sujetos(propiedad),
+				objetos(propiedad), maximoSalientes[propiedad], maximoEntrantes[propiedad]);
+	}
+
+	/**
+	 * Devuelve el nmero de sentencias de una propiedad, contando las repetidas.
+	 * @param propiedad - valor de la propiedad
+	 * @return el nmero de sentencias
+	 */
+	int sentencias( int propiedad ) {
+		return sentencias[propiedad];
+	}
+
+	/**
+	 * Devuelve el nmero de aristas distintas de una propiedad.
+	 * @param propiedad - valor de la propiedad
+	 * @return el nmero de aristas
+	 */
+	int aristas( int propiedad ) {
+		return aristas[propiedad];
+	}
+
+	/**
+	 * Devuelve el nmero de sujetos distintos de una propiedad.
+	 * @param propiedad - valor de la propiedad
+	 * @return el nmero de sujetos
+	 */
+	int sujetos( int propiedad ) {
+		return nodosSalientes[propiedad][1];
+	}
+
+	/**
+	 * Devuelve el nmero de objetos distintos de una propiedad.
+	 * @param propiedad - valor de la propiedad
+	 * @return el nmero de objetos
+	 */
+	int objetos( int propiedad ) {
+		return nodosEntrantes[propiedad][1];
+	}
+
+	/**
+	 * Devuelve una copia del histograma de grados de salida o de entrada.
+	 * @param salientes - true para el de salida, false para el de entrada
+	 * @return el nmero de nodos de cada grupo de grados
+	 */
+	int[] histograma( boolean salientes ) {
+		return (salientes ? histogramaSalientes : histogramaEntrantes).clone();
+	}
+
+	/**
+	 * Ampla el catlogo hasta el nmero de propiedades indicado; las nuevas no tienen sentencias.
+	 * @param numPropiedades - nuevo nmero de propiedades distintas
+	 */
+	void ampliarPropiedades( int numPropiedades ) {
+		final int anterior = sentencias.length;
+		if( numPropiedades <= anterior )
+			return;
+		sentencias = Arrays.copyOf(sentencias, numPropiedades);
+		aristas = Arrays.copyOf(aristas, numPropiedades);
+		nodosSalientes = Arrays.copyOf(nodosSalientes, numPropiedades);
+		nodosEntrantes = Arrays.copyOf(nodosEntrantes, numPropiedades);
+		maximoSalientes = Arrays.copyOf(maximoSalientes, numPropiedades);
+		maximoEntrantes = Arrays.copyOf(maximoEntrantes, numPropiedades);
+		for( int p = anterior; p < numPropiedades; ++p ) {
+			nodosSalientes[p] = new int[2];
+			nodosEntrantes[p] = new int[2];
+		}
+	}
+
+	/**
+	 * Aade un nodo sin aristas.
+	 */
+	void anadirNodo() {
+		histogramaSalientes[0]++;
+		histogramaEntrantes[0]++;
+	}
+
+	/**
+	 * Suma (o resta, si es negativo) repeticiones a las sentencias de una propiedad.
+	 * @param propiedad - valor de la propiedad
+	 * @param repeticiones - nmero de sentencias aadidas
+	 */
+	void anadirSentencias( int propiedad, int repeticiones ) {
+		sentencias[propiedad] += repeticiones;
+	}
+
+	/**
+	 * Cuenta una arista distinta nueva, ya aadida al grafo (sus sentencias se cuentan con anadirSentencias).
+	 * @param propiedad - peso de la arista
+	 * @param salientesSujeto - aristas del sujeto con esa propiedad, contando la nueva
+	 * @param entrantesObjeto - aristas del objeto con esa propiedad, contando la nueva
+	 * @param gradoSujeto - grado de salida del sujeto, contando la nueva arista
+	 * @param gradoObjeto - grado de entrada del objeto, contando la nueva arista
+	 */
+	void anadirArista( int propiedad, int salientesSujeto, int entrantesObjeto, int gradoSujeto, int gradoObjeto ) {
+		aristas[propiedad]++;
+		contar(nodosSalientes, maximoSalientes, propiedad, salientesSujeto);
+		contar(nodosEntrantes, maximoEntrantes, propiedad, entrantesObjeto);
+		mover(histogramaSalientes, gradoSujeto - 1, gradoSujeto);
+		mover(histogramaEntrantes, gradoObjeto - 1, gradoObjeto);
+	}
+
+	/**
+	 * Descuenta una arista distinta, ya eliminada del grafo (sus sentencias se descuentan con anadirSentencias).
+	 * @param propiedad - peso de la arista
+	 * @param salientesSujeto - aristas del sujeto con esa propiedad que quedan
+	 * @param entrantesObjeto - aristas del objeto con esa propiedad que quedan
+	 * @param gradoSujeto - grado de salida del sujeto que queda
+	 * @param gradoObjeto - grado de entrada del objeto que queda
+	 */
+	void eliminarArista( int propiedad, int salientesSujeto, int entrantesObjeto, int gradoSujeto, int gradoObjeto ) {
+		aristas[propiedad]--;
+		descontar(nodosSalientes, maximoSalientes, propiedad, salientesSujeto + 1);
+		descontar(nodosEntrantes, maximoEntrantes, propiedad, entrantesObjeto + 1);
+		mover(histogramaSalientes, gradoSujeto + 1, gradoSujeto);
+		mover(histogramaEntrantes, gradoObjeto + 1, gradoObjeto);
+	}
+
+
+	// Cuenta que un nodo ha llegado a tener c aristas con la propiedad p
+	private static void contar( int[][] nodos, int[] maximo, int p, int c ) {
+		if( c == nodos[p].length )
+			nodos[p] = Arrays.copyOf(nodos[p], 2 * c);
+		nodos[p][c]++;
+		maximo[p] = Math.max(maximo[p], c);
+	}
+
+	// Descuenta que un nodo ha dejado de tener c aristas con la propiedad p (ahora tiene c-1)
+	private static void descontar( int[][] nodos, int[] maximo, int p, int c ) {
+		if( --nodos[p][c] == 0 && maximo[p] == c )
+			maximo[p]--;
+	}
+
+	// Pasa un nodo del grupo de un grado al de otro en un histograma
+	private static void mover( int[] histograma, int gradoAnterior, int gradoNuevo ) {
+		histograma[posicion(gradoAnterior)]--;
+		histograma[posicion(gradoNuevo)]++;
+	}
+
+}
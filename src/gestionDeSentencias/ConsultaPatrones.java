@@ -0,0 +1,189 @@
+package gestionDeSentencias;
+
+import estructurasDeDatos.ListaArray;
+
+/**
+ * Consulta de patrones de sentencias:
+ * Conjuncin de patrones (sujeto, propiedad, objeto) en los que cada trmino es una entidad, una propiedad o
+ * una variable (empieza por '?'). Una solucin asigna un valor a cada variable de forma que todos los patrones
+ * son sentencias del almacn (ver Almacen.resolver). Por ejemplo, los estudiantes de las asignaturas de un
+ * profesor son las soluciones de
+ *   ?c <...#teacherOf> ?a . ?e <...#takesCourse> ?a
+ * con ?c sustituida por el profesor. Los patrones se aaden uno a uno o se leen de un texto con analizar.
+ * Los mtodos de modificacin devuelven el propio objeto, para poder encadenarlos.
+ * @author Daniel, Ivn, Asier
+ */
+public class ConsultaPatrones {
+
+	// Trminos de los patrones: los del patrn j ocupan las posiciones 3j (sujeto), 3j+1 (propiedad) y 3j+2 (objeto)
+	private final ListaArray<String> terminos;
+	// Variables distintas, en el orden en que aparecen por primera vez
+	private final ListaArray<String> variables;
+	// Indica, para cada variable, si aparece como propiedad (y entonces no puede aparecer como sujeto u objeto)
+	private final ListaArray<Boolean> variablesPropiedad;
+
+
+	/**
+	 * Constructora: consulta sin patrones, con una nica solucin vaca
+	 */
+	public ConsultaPatrones() {
+		terminos = new ListaArray<String>();
+		variables = new ListaArray<String>();
+		variablesPropiedad = new ListaArray<Boolean>();
+	}
+
+	/**
+	 * Lee una consulta de un texto con patrones separados por puntos. Cada trmino es una entidad o propiedad
+	 * entre '<' y '>', un literal entre comillas (con lo que le siga hasta el siguiente espacio) o una variable.
+	 * @param texto - patrones de la consulta, por ejemplo "?x <...#type> <...#Student> . ?x <...#name> ?n"
+	 * @return la consulta con los patrones del texto
+	 * @throws IllegalArgumentException si el texto no tiene ese formato
+	 */
+	public static ConsultaPatrones analizar( String texto ) {
+		ConsultaPatrones consulta = new ConsultaPatrones();
+		String[] patron = new String[3];
+		int n = 0, i = 0, fin;
+		char c;
+		while( true ) {
+			while( i < texto.length() && Character.isWhitespace(texto.charAt(i)) )
+				i++;
+			if( i == texto.length() )
+				break;
+			c = texto.charAt(i);
+			if( c == '.' && n == 3 ) {
+				// Final de un patrn
+				consulta.patron(patron[0], patron[1], patron[2]);
+				n = 0;
+				i++;
+				continue;
+			}
+			if( n == 3 )
+				throw new IllegalArgumentException("Se esperaba '.' en la posicin " + i + " de la consulta");
+			if( c == '<' ) {
+				fin = texto.indexOf('>', i);
+				if( fin == -1 )
+					throw new IllegalArgumentException("Falta '>' tras la posicin " + i + " de la consulta");
+				fin++;
+			} else if( c == '"' ) {
+				fin = texto.indexOf('"', i+1);
+				if( fin == -1 )
+					throw new IllegalArgumentException("Faltan comillas de cierre tras la posicin " + i + " de la consulta");
+				while( fin < texto.length() && !Character.isWhitespace(texto.charAt(fin)) )
+					fin++;
+			} else if( c == '?' ) {
+				fin = i+1;
+				while( fin < texto.length() && (Character.isLetterOrDigit(texto.charAt(fin)) || texto.charAt(fin) == '_') )
+					fin++;
+				if( fin == i+1 )
+					throw new IllegalArgumentException("Variable sin nombre en la posicin " + i + " de la consulta");
+			} else {
+				throw new IllegalArgumentException("Trmino no vlido en la posicin " + i + " de la consulta");
+			}
+			patron[n++] = texto.substring(i, fin);
+			i = fin;
+		}
+		// El punto tras el ltimo patrn es opcional
+		if( n == 3 )
+			consulta.patron(patron[0], patron[1], patron[2]);
+		else if( n > 0 )
+			throw new IllegalArgumentException("El ltimo patrn de la consulta est incompleto");
+		return consulta;
+	}
+
+	/**
+	 * Comprueba si un trmino es una variable.
+	 * @param termino - trmino de un patrn
+	 * @return true si el trmino empieza por '?'
+	 */
+	public static boolean esVariable( String termino ) {
+		return termino.length() > 1 && termino.charAt(0) == '?';
+	}
+
+	/**
+	 * Aade un patrn a la consulta.
+	 * @param sujeto - entidad o variable
+	 * @param propiedad - propiedad o variable
+	 * @param objeto - entidad o variable
+	 * @return la propia consulta
+	 * @throws IllegalArgumentException si una misma variable aparece como propiedad y como sujeto u objeto
+	 */
+	public ConsultaPatrones patron( String sujeto, String propiedad, String objeto ) {
+		if( esVariable(propiedad) && (propiedad.equals(sujeto) || propiedad.equals(objeto)) )
+			throw new IllegalArgumentException("La variable " + propiedad + " aparece como propiedad y como entidad");
+		comprobar(sujeto, false);
+		comprobar(propiedad, true);
+		comprobar(objeto, false);
+		registrar(sujeto, false);
+		registrar(propiedad, true);
+		registrar(objeto, false);
+		terminos.insertLast(sujeto);
+		terminos.insertLast(propiedad);
+		terminos.insertLast(objeto);
+		return this;
+	}
+
+	/**
+	 * Devuelve el nmero de patrones de la consulta.
+	 * @return el nmero de patrones
+	 */
+	public int numPatrones() {
+		return terminos.size() / 3;
+	}
+
+	/**
+	 * Devuelve un trmino de un patrn.
+	 * @param patron - nmero de patrn, empezando a contar desde cero
+	 * @param posicion - 0 para el sujeto, 1 para la propiedad y 2 para el objeto
+	 * @return el trmino
+	 */
+	public String termino( int patron, int posicion ) {
+		return terminos.get(3*patron + posicion);
+	}
+
+	/**
+	 * Devuelve el nmero de variables distintas de la consulta.
+	 * @return el nmero de variables
+	 */
+	public int numVariables() {
+		return variables.size();
+	}
+
+	/**
+	 * Devuelve el nombre de una variable. Las variables se numeran en el orden en que aparecen por primera vez,
+	 * que es tambin el orden de los valores de cada solucin.
+	 * @param indice - nmero de la variable, empezando a contar desde cero
+	 * @return el nombre de la variable, con el '?' inicial
+	 */
+	public String variable( int indice ) {
+		return variables.get(indice);
+	}
+
+	/**
+	 * Busca el nmero de una variable.
+	 * @param nombre - nombre de la variable, con el '?' inicial
+	 * @return el nmero de la variable, o -1 si no aparece en la consulta
+	 */
+	public int indiceVariable( String nombre ) {
+		for( int i = 0; i < variables.size(); ++i )
+			if( variables.get(i).equals(nombre) )
+				return i;
+		return -1;
+	}
+
+
+	// Comprueba que, si el trmino es una variable que ya aparece en la consulta, lo hace en el mismo papel
+	private void comprobar( String termino, boolean comoPropiedad ) {
+		int indice = esVariable(termino) ? indiceVariable(termino) : -1;
+		if( indice != -1 && variablesPropiedad.get(indice) != comoPropiedad )
+			throw new IllegalArgumentException("La variable " + termino + " aparece como propiedad y como entidad");
+	}
+
+	// Aade el trmino a las variables si es una variable nueva
+	private void registrar( String termino, boolean comoPropiedad ) {
+		if( esVariable(termino) && indiceVariable(termino) == -1 ) {
+			variables.insertLast(termino);
+			variablesPropiedad.insertLast(comoPropiedad);
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+package gestionDeSentencias;
+
+/**
+ * Estadsticas de una propiedad del almacn:
+ * Nmero de sentencias y de aristas distintas con la propiedad, de sujetos y objetos distintos que aparecen en
+ * ellas, y nmero de aristas de cada sujeto (abanico de salida) y de cada objeto (abanico de entrada).
+ * Son una foto del almacn en el momento en que se piden (ver Almacen.estadisticasPropiedad).
+ * @author Daniel, Ivn, Asier
+ */
+public class EstadisticasPropiedad {
+
+	// Nombre de la propiedad
+	private final String nombre;
+	// Sentencias (con repeticiones), aristas distintas, sujetos y objetos distintos
+	private final int sentencias, aristas, sujetos, objetos;
+	// Mximo de aristas de un mismo sujeto y de un mismo objeto
+	private final int maximoSalida, maximoEntrada;
+
+
+	/**
+	 * Constructora
+	 * @param nombre - nombre de la propiedad
+	 * @param sentencias - nmero de sentencias, con repeticiones
+	 * @param aristas - nmero de sentencias distintas
+	 * @param sujetos - nmero de sujetos distintos
+	 * @param objetos - nmero de objetos distintos
+	 * @param maximoSalida - mximo de sentencias distintas de un sujeto
+	 * @param maximoEntrada - mximo de sentencias distintas de un objeto
+	 */
+	EstadisticasPropiedad( String nombre, int sentencias, int aristas, int sujetos, int objetos, int maximoSalida, int maximoEntrada ) {
+		this.nombre = nombre;
+		this.sentencias = sentencias;
+		this.aristas = aristas;
+		this.sujetos = sujetos;
+		this.objetos = objetos;
+		this.maximoSalida = maximoSalida;
+		this.maximoEntrada = maximoEntrada;
+	}
+
+	/**
+	 * Devuelve el nombre de la propiedad.
+	 * @return la propiedad
+	 */
+	public String nombre() {
+		return nombre;
+	}
+
+	/**
+	 * Devuelve el nmero de sentencias con la propiedad, contando las repetidas.
+	 * @return el nmero de sentencias
+	 */
+	public int sentencias() {
+		return sentencias;
+	}
+
+	/**
+	 * Devuelve el nmero de sentencias distintas con la propiedad.
+	 * @return el nmero de aristas del grafo con la propiedad
+	 */
+	public int aristas() {
+		return aristas;
+	}
+
+	/**
+	 * Devuelve el nmero de sujetos distintos de las sentencias con la propiedad.
+	 * @return el nmero de sujetos
+	 */
+	public int sujetos() {
+		return sujetos;
+	}
+
+	/**
+	 * Devuelve el nmero de objetos distintos de las sentencias con la propiedad.
+	 * @return el nmero de objetos
+	 */
+	public int objetos() {
+		return objetos;
+	}
+
+	/**
+	 * Devuelve el mximo de sentencias distintas con la propiedad que tiene un mismo sujeto.
+	 * @return el abanico de salida mximo
+	 */
+	public int maximoSalida() {
+		return maximoSalida;
+	}
+
+	/**
+	 * Devuelve el mximo de sentencias distintas con la propiedad que tiene un mismo objeto.
+	 * @return el abanico de entrada mximo
+	 */
+	public int maximoEntrada() {
+		return maximoEntrada;
+	}
+
+	/**
+	 * Devuelve el nmero medio de sentencias distintas con la propiedad de cada sujeto que la tiene.
+	 * @return el abanico de salida medio, o 0 si no hay sentencias
+	 */
+	public double mediaSalida() {
+		return (sujetos == 0) ? 0 : (double) aristas / sujetos;
+	}
+
+	/**
+	 * Devuelve el nmero medio de sentencias distintas con la propiedad de cada objeto que la tiene.
+	 * @return el abanico de entrada medio, o 0 si no hay sentencias
+	 */
+	public double mediaEntrada() {
+		return (objetos == 0) ? 0 : (double) aristas / objetos;
+	}
+
+	@Override
+	public String toString() {
+		return nombre + ": " + sentencias + " sentencias, " + aristas + " distintas, " + sujetos + " sujetos, "
+				+ objetos + " objetos, salida mx. " + maximoSalida + " (media " + String.format("%.2f", mediaSalida())
+				+ "), entrada mx. " + maximoEntrada + " (media " + String.format("%.2f", mediaEntrada()) + ")";
+	}
+
+}
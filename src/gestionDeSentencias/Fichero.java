@@ -1,49 +1,59 @@
 package gestionDeSentencias;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Gestin de ficheros:
- * Proporciona mtodos estticos para leer y escribir sentencias usando ficheros de texto.
+ * Proporciona mtodos para leer y escribir sentencias usando ficheros de texto.
+ * Cada objeto Fichero tiene su propio lector o escritor, de modo que varios hilos pueden usar ficheros
+ * distintos a la vez. Los mtodos estticos trabajan sobre un nico fichero compartido por todo el programa,
+ * y por tanto no deben usarse desde varios hilos a la vez.
+ * Los ficheros con extensin .gz se leen y escriben comprimidos con gzip. Al leerlos, se descomprimen en un hilo
+ * aparte (ver LecturaAnticipada), de modo que quien procesa las lneas no espera a la descompresin.
+ * Los ficheros se leen y escriben siempre en UTF-8, como las dems formas de cargar y descargar un almacn,
+ * sea cual sea la codificacin por defecto de la plataforma.
  * @author Daniel, Ivn, Asier
  */
-public final class Fichero {
+public final class Fichero implements Closeable {
 
+	// Codificacin de los ficheros de texto
+	private static final Charset utf8 = Charset.forName("UTF-8");
+	// Fichero compartido que usan los mtodos estticos
+	private static Fichero compartido;
+	
 	// Indica si se ha abierto el fichero para lectura (f) o para escritura (t)
-	private static boolean modoEscritura;
+	private final boolean modoEscritura;
 	// Atributos para lectura y escritura
-	private static BufferedReader lectura;
-	private static BufferedWriter escritura;
-	
-	/**
-	 * Constructora privada: la clase no se instancia
-	 */
-	private Fichero() {}
-	
+	private BufferedReader lectura;
+	private BufferedWriter escritura;
 	
 	/**
+	 * Constructora
 	 * Abre el fichero indicado para su posterior lectura/escritura.
-	 * Si hay un fichero abierto que an no se ha cerrado, no hace nada.
 	 * @param fichero - ruta del fichero a acceder
 	 * @param escribir - true si se quiere abrir en modo escritura
 	 * @param mantener - true si se desea mantener el contenido de un archivo ya existente (solo afecta si escribir = true)
 	 * @throws IOException En caso de producirse un error de entrada/salida
 	 */
-	public static void abrir( String fichero, boolean escribir, boolean mantener ) throws IOException {
+	public Fichero( String fichero, boolean escribir, boolean mantener ) throws IOException {
 		modoEscritura = escribir;
 		if( escribir )
-			escritura = new BufferedWriter( new FileWriter(fichero,mantener) );
+			escritura = new BufferedWriter( new OutputStreamWriter(abrirSalida(fichero,mantener), utf8) );
 		else
-			lectura = new BufferedReader( new FileReader(fichero) );
+			lectura = new BufferedReader( new InputStreamReader(abrirEntrada(fichero), utf8) );
 	}
 	
 	/**
-	 * Devuelve una sentencia del fichero que se est leyendo.
-	 * Si el fichero fue abierto en modo escritura, o no se ha abierto, devuelve un puntero nulo.
+	 * Devuelve una sentencia del fichero.
+	 * Si el fichero fue abierto en modo escritura, devuelve un puntero nulo.
 	 * @return Una lnea del fichero, null si se ha alcanzado el final
 	 * @throws IOException En caso de producirse un error de entrada/salida
 	 */
-	public static String leerSentencia() throws IOException {
+	public String leer() throws IOException {
 		if( modoEscritura )
 			return null;
 		else
@@ -51,12 +61,12 @@ public final class Fichero {
 	}
 	
 	/**
-	 * Escribe una sentencia dada como parmetro en el fichero abierto.
-	 * Si el fichero fue abierto en modo lectura, o no se ha abierto, no hace nada.
+	 * Escribe una sentencia dada como parmetro en el fichero.
+	 * Si el fichero fue abierto en modo lectura, no hace nada.
 	 * @param Sentencia a escribir en una lnea
 	 * @throws IOException En caso de producirse un error de entrada/salida
 	 */
-	public static void escribirSentencia( String Sentencia ) throws IOException {
+	public void escribir( String Sentencia ) throws IOException {
 		if( modoEscritura ) {
 			escritura.write(Sentencia);
 			escritura.newLine();
@@ -64,15 +74,115 @@ public final class Fichero {
 	}
 	
 	/**
-	 * Cierra el fichero que se est utilizando.
-	 * Si no hay ningn fichero abierto, no hace nada.
+	 * Escribe en el fichero, una por lnea, todas las sentencias que devuelve el iterador, a medida que las devuelve.
+	 * Si el fichero fue abierto en modo lectura, no hace nada.
+	 * @param sentencias - iterador sobre las sentencias a escribir
 	 * @throws IOException En caso de producirse un error de entrada/salida
 	 */
-	public static void cerrar() throws IOException {
+	public void escribir( Iterator<String> sentencias ) throws IOException {
+		while( modoEscritura && sentencias.hasNext() )
+			escribir( sentencias.next() );
+	}
+	
+	/**
+	 * Cierra el fichero.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	@Override
+	public void close() throws IOException {
 		if( modoEscritura )
 			escritura.close();
 		else
 			lectura.close();
 	}
 	
+	
+	/**
+	 * Comprueba si un fichero est comprimido con gzip, segn su extensin.
+	 * @param fichero - ruta del fichero
+	 * @return true si el nombre termina en .gz
+	 */
+	public static boolean comprimido( String fichero ) {
+		return fichero.toLowerCase().endsWith(".gz");
+	}
+	
+	/**
+	 * Abre un fichero para leer sus bytes. Si est comprimido, se descomprime en un hilo aparte a medida que se lee.
+	 * @param fichero - ruta del fichero a leer
+	 * @return un flujo con el contenido (descomprimido) del fichero
+	 * @throws IOException En caso de producirse un error de entrada/salida, o si el fichero no est en formato gzip
+	 */
+	public static InputStream abrirEntrada( String fichero ) throws IOException {
+		InputStream entrada = new FileInputStream(fichero);
+		if( !comprimido(fichero) )
+			return entrada;
+		try {
+			return new LecturaAnticipada( new GZIPInputStream(entrada, 1 << 16) );
+		} catch (IOException e) {
+			entrada.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Abre un fichero para escribir bytes, comprimindolos si el fichero est comprimido. Al mantener el contenido
+	 * de un fichero comprimido, lo nuevo se aade como otro miembro gzip, que se lee a continuacin del anterior.
+	 * @param fichero - ruta del fichero a escribir
+	 * @param mantener - true si se desea mantener el contenido de un archivo ya existente
+	 * @return un flujo que escribe (comprimiendo) en el fichero; hay que cerrarlo para terminar la compresin
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static OutputStream abrirSalida( String fichero, boolean mantener ) throws IOException {
+		OutputStream salida = new FileOutputStream(fichero, mantener);
+		return comprimido(fichero) ? new GZIPOutputStream(salida, 1 << 16) : salida;
+	}
+	
+	
+	/**
+	 * Abre el fichero compartido indicado para su posterior lectura/escritura.
+	 * @param fichero - ruta del fichero a acceder
+	 * @param escribir - true si se quiere abrir en modo escritura
+	 * @param mantener - true si se desea mantener el contenido de un archivo ya existente (solo afecta si escribir = true)
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static void abrir( String fichero, boolean escribir, boolean mantener ) throws IOException {
+		compartido = new Fichero(fichero, escribir, mantener);
+	}
+	
+	/**
+	 * Devuelve una sentencia del fichero compartido que se est leyendo.
+	 * Si el fichero fue abierto en modo escritura, o no se ha abierto, devuelve un puntero nulo.
+	 * @return Una lnea del fichero, null si se ha alcanzado el final
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static String leerSentencia() throws IOException {
+		if( compartido == null )
+			return null;
+		else
+			return compartido.leer();
+	}
+	
+	/**
+	 * Escribe una sentencia dada como parmetro en el fichero compartido.
+	 * Si el fichero fue abierto en modo lectura, o no se ha abierto, no hace nada.
+	 * @param Sentencia a escribir en una lnea
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static void escribirSentencia( String Sentencia ) throws IOException {
+		if( compartido != null )
+			compartido.escribir(Sentencia);
+	}
+	
+	/**
+	 * Cierra el fichero compartido que se est utilizando.
+	 * Si no hay ningn fichero abierto, no hace nada.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static void cerrar() throws IOException {
+		if( compartido != null ) {
+			compartido.close();
+			compartido = null;
+		}
+	}
+	
 }
@@ -0,0 +1,277 @@
+package gestionDeSentencias;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Lector de sentencias sobre un fichero proyectado en memoria:
+ * Recorre el fichero lnea a lnea sin crear un String por lnea, y separa el sujeto, la propiedad y el
+ * objeto como rangos de bytes del propio fichero. Cada parte se ofrece como una vista (CharSequence) que se
+ * reutiliza en la siguiente sentencia, de modo que solo se crea un String cuando se pide expresamente.
+ * Las lneas se separan y trocean igual que con Fichero.leerSentencia y StringTokenizer, y el texto se
+ * interpreta en UTF-8. Los ficheros grandes se proyectan por ventanas, siempre alineadas al inicio de una lnea.
+ * @author Daniel, Ivn, Asier
+ */
+public final class LectorProyectado {
+
+	/**
+	 * Clase interna: vista de una de las partes de la sentencia actual.
+	 * Si sus bytes son ASCII se leen directamente del fichero proyectado; si no, se descodifican en un
+	 * array de caracteres que se reutiliza.
+	 */
+	private final class Parte implements CharSequence {
+		// Atributos
+		private int inicio, longitud;
+		private boolean ascii;
+		private char[] caracteres = new char[64];
+		// Apunta la vista al rango [desde, hasta) de la ventana actual
+		private void asignar(final int desde, final int hasta, final boolean soloAscii) {
+			ascii = soloAscii;
+			if( ascii ) {
+				inicio = desde;
+				longitud = hasta - desde;
+			} else {
+				longitud = descodificar(desde, hasta);
+			}
+		}
+		// Descodifica el rango en UTF-8 y devuelve el nmero de caracteres obtenidos
+		private int descodificar(int i, final int fin) {
+			if( caracteres.length < fin - i )
+				caracteres = new char[fin - i];
+			int n = 0, b, c, extra;
+			while( i < fin ) {
+				b = ventana.get(i++) & 0xFF;
+				if( b < 0x80 ) {
+					caracteres[n++] = (char) b;
+					continue;
+				}
+				// Cabecera de un carcter multibyte: nmero de bytes de continuacin y bits de datos
+				if( b >= 0xF0 && b < 0xF8 ) { extra = 3; c = b & 0x07; }
+				else if( b >= 0xE0 ) { extra = 2; c = b & 0x0F; }
+				else if( b >= 0xC0 ) { extra = 1; c = b & 0x1F; }
+				else { caracteres[n++] = '\uFFFD'; continue; }
+				while( extra > 0 && i < fin && (ventana.get(i) & 0xC0) == 0x80 ) {
+					c = (c << 6) | (ventana.get(i++) & 0x3F);
+					extra--;
+				}
+				if( extra > 0 || b >= 0xF8 )
+					caracteres[n++] = '\uFFFD';
+				else if( c >= 0x10000 ) {
+					caracteres[n++] = Character.highSurrogate(c);
+					caracteres[n++] = Character.lowSurrogate(c);
+				} else
+					caracteres[n++] = (char) c;
+			}
+			return n;
+		}
+		@Override
+		public int length() {
+			return longitud;
+		}
+		@Override
+		public char charAt(final int indice) {
+			return ascii ? (char) ventana.get(inicio + indice) : caracteres[indice];
+		}
+		@Override
+		public CharSequence subSequence(final int desde, final int hasta) {
+			return toString().substring(desde, hasta);
+		}
+		@Override
+		public String toString() {
+			if( !ascii )
+				return new String(caracteres, 0, longitud);
+			char[] copia = new char[longitud];
+			for( int i = 0; i < longitud; ++i )
+				copia[i] = (char) ventana.get(inicio + i);
+			return new String(copia);
+		}
+	}
+
+	// Tamao mximo de la ventana proyectada (ninguna lnea puede ser ms larga)
+	private final static int tamVentana = 1 << 28;
+
+	// Atributos del fichero y de la ventana proyectada actual
+	private final RandomAccessFile fichero;
+	private final FileChannel canal;
+	private final long finLectura;
+	private MappedByteBuffer ventana;
+	private long inicioVentana;
+	private int posicion, limite;
+	// Partes de la sentencia actual
+	private final Parte sujeto, propiedad, objeto;
+
+
+	/**
+	 * Constructora
+	 * Abre el fichero indicado y proyecta su primera ventana.
+	 * @param nombreDeArchivo - ruta del fichero a leer
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public LectorProyectado( String nombreDeArchivo ) throws IOException {
+		this(nombreDeArchivo, 0, -1);
+	}
+
+	/**
+	 * Constructora
+	 * Abre el fichero indicado para leer solo las lneas del rango de bytes [desde, hasta).
+	 * El rango debe empezar al inicio de una lnea, como los que devuelve dividir.
+	 * @param nombreDeArchivo - ruta del fichero a leer
+	 * @param desde - posicin del fichero en la que empezar a leer
+	 * @param hasta - posicin del fichero en la que terminar de leer, o -1 para leer hasta el final
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public LectorProyectado( String nombreDeArchivo, long desde, long hasta ) throws IOException {
+		fichero = new RandomAccessFile(nombreDeArchivo, "r");
+		canal = fichero.getChannel();
+		finLectura = (hasta == -1) ? canal.size() : hasta;
+		sujeto = new Parte();
+		propiedad = new Parte();
+		objeto = new Parte();
+		proyectar(desde);
+	}
+
+	/**
+	 * Divide el fichero en rangos de tamao parecido que empiezan y terminan en un inicio de lnea,
+	 * para poder leerlos por separado. Algunos rangos pueden quedar vacos si el fichero es pequeo.
+	 * @param nombreDeArchivo - ruta del fichero a dividir
+	 * @param partes - nmero de rangos
+	 * @return un array de partes+1 posiciones: el rango i es [limites[i], limites[i+1])
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public static long[] dividir( String nombreDeArchivo, int partes ) throws IOException {
+		RandomAccessFile fichero = new RandomAccessFile(nombreDeArchivo, "r");
+		long tam = fichero.length(), posicion;
+		long[] limites = new long[partes + 1];
+		int b;
+		limites[partes] = tam;
+		for( int i = 1; i < partes; ++i ) {
+			// Avanzar desde el punto de corte hasta el inicio de la lnea siguiente
+			posicion = Math.max(tam * i / partes, limites[i-1]);
+			if( posicion > 0 && posicion < tam ) {
+				fichero.seek(posicion - 1);
+				b = fichero.read();
+				while( b != -1 && b != '\n' && b != '\r' )
+					b = fichero.read();
+				// Un "\r" seguido de "\n" es un nico final de lnea
+				if( b == '\r' ) {
+					b = fichero.read();
+					if( b != -1 && b != '\n' )
+						fichero.seek(fichero.getFilePointer() - 1);
+				}
+				posicion = Math.min(fichero.getFilePointer(), tam);
+			}
+			limites[i] = posicion;
+		}
+		fichero.close();
+		return limites;
+	}
+
+	/**
+	 * Avanza a la siguiente sentencia del fichero. Las lneas en blanco se ignoran.
+	 * @return true si hay una sentencia nueva, false si se ha alcanzado el final del fichero
+	 * @throws IOException Si una lnea no tiene sujeto, propiedad y objeto, o se produce un error de entrada/salida
+	 */
+	public boolean siguienteSentencia() throws IOException {
+		int fin, partes, desde, i;
+		boolean ascii;
+		while( true ) {
+			// Buscar el final de la lnea; si no est en la ventana, se proyecta otra desde el inicio de la lnea
+			fin = posicion;
+			while( fin < limite && !finDeLinea(ventana.get(fin)) )
+				fin++;
+			// (tambin si termina en "\r" al final de la ventana, por si le sigue un "\n")
+			if( (fin == limite || (fin == limite - 1 && ventana.get(fin) == '\r')) && inicioVentana + limite < finLectura ) {
+				if( posicion == 0 )
+					throw new IOException("Lnea demasiado larga en la posicin " + inicioVentana + " del fichero.");
+				proyectar(inicioVentana + posicion);
+				continue;
+			}
+			if( posicion >= limite )
+				return false;
+			
+			// Separar las tres primeras partes de la lnea
+			partes = 0;
+			i = posicion;
+			while( partes < 3 ) {
+				while( i < fin && esSeparador(ventana.get(i)) )
+					i++;
+				if( i == fin )
+					break;
+				desde = i;
+				ascii = true;
+				while( i < fin && !esSeparador(ventana.get(i)) ) {
+					if( ventana.get(i) < 0 )
+						ascii = false;
+					i++;
+				}
+				(partes == 0 ? sujeto : partes == 1 ? propiedad : objeto).asignar(desde, i, ascii);
+				partes++;
+			}
+			
+			// Saltar el final de lnea ("\n", "\r" o "\r\n")
+			posicion = fin;
+			if( posicion < limite && ventana.get(posicion) == '\r' )
+				posicion++;
+			if( posicion < limite && ventana.get(posicion) == '\n' )
+				posicion++;
+			
+			if( partes == 3 )
+				return true;
+			if( partes > 0 )
+				throw new IOException("Sentencia incompleta en la posicin " + (inicioVentana + fin) + " del fichero.");
+		}
+	}
+
+	/**
+	 * Devuelve el sujeto de la sentencia actual. La vista deja de ser vlida al avanzar de sentencia.
+	 * @return el sujeto de la sentencia actual
+	 */
+	public CharSequence sujeto() {
+		return sujeto;
+	}
+
+	/**
+	 * Devuelve la propiedad de la sentencia actual. La vista deja de ser vlida al avanzar de sentencia.
+	 * @return la propiedad de la sentencia actual
+	 */
+	public CharSequence propiedad() {
+		return propiedad;
+	}
+
+	/**
+	 * Devuelve el objeto de la sentencia actual. La vista deja de ser vlida al avanzar de sentencia.
+	 * @return el objeto de la sentencia actual
+	 */
+	public CharSequence objeto() {
+		return objeto;
+	}
+
+	/**
+	 * Cierra el fichero.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public void cerrar() throws IOException {
+		fichero.close();
+	}
+
+
+	// Proyecta la ventana que empieza en la posicin indicada del fichero
+	private void proyectar(final long desde) throws IOException {
+		inicioVentana = desde;
+		limite = (int) Math.min(tamVentana, finLectura - desde);
+		ventana = canal.map(FileChannel.MapMode.READ_ONLY, desde, limite);
+		posicion = 0;
+	}
+
+	// Caracteres que terminan una lnea, como en BufferedReader.readLine
+	private static boolean finDeLinea(final byte b) {
+		return b == '\n' || b == '\r';
+	}
+
+	// Separadores por defecto de StringTokenizer (excepto los de final de lnea, que ya no aparecen)
+	private static boolean esSeparador(final byte b) {
+		return b == ' ' || b == '\t' || b == '\f';
+	}
+
+}
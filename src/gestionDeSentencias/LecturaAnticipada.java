@@ -0,0 +1,148 @@
+package gestionDeSentencias;
+
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Lectura anticipada de un flujo de entrada:
+ * Un hilo aparte lee el flujo original por bloques (por ejemplo, descomprimindolo) y los deja en una cola, de la
+ * que los toma el hilo que lee. As, el flujo original se lee a la vez que se procesa lo ledo, y quien procesa
+ * solo espera si va ms rpido que la lectura. Los bloques se reutilizan, y su nmero limita la memoria usada.
+ * @author Daniel, Ivn, Asier
+ */
+final class LecturaAnticipada extends InputStream {
+
+	// Tamao de cada bloque y nmero de bloques
+	private static final int tamBloque = 1 << 18, numBloques = 4;
+
+	// Bloque de bytes ledos: datos[0..longitud), o el final del flujo si longitud es -1
+	private static final class Bloque {
+		private final byte[] datos = new byte[tamBloque];
+		private int longitud;
+	}
+
+	// Flujo original, y hilo que lo lee
+	private final InputStream origen;
+	private final Thread lector;
+	// Bloques ledos por consumir, y bloques libres para seguir leyendo
+	private final ArrayBlockingQueue<Bloque> leidos, libres;
+	// Bloque que se est consumiendo, y posicin en l
+	private Bloque actual;
+	private int posicion;
+	// Error producido al leer el flujo original, que se lanza al llegar a su final
+	private volatile IOException error;
+
+
+	/**
+	 * Constructora
+	 * Empieza a leer el flujo original en otro hilo.
+	 * @param origen - flujo del que leer
+	 */
+	LecturaAnticipada( InputStream origen ) {
+		this.origen = origen;
+		leidos = new ArrayBlockingQueue<Bloque>(numBloques);
+		libres = new ArrayBlockingQueue<Bloque>(numBloques);
+		for( int i = 0; i < numBloques; ++i )
+			libres.add(new Bloque());
+		lector = new Thread() {
+			@Override
+			public void run() {
+				leerOrigen();
+			}
+		};
+		lector.setDaemon(true);
+		lector.start();
+	}
+
+	// Llena bloques libres con el flujo original hasta su final (lo ejecuta el hilo lector)
+	private void leerOrigen() {
+		Bloque bloque;
+		int n;
+		try {
+			do {
+				bloque = libres.take();
+				bloque.longitud = 0;
+				try {
+					while( bloque.longitud < tamBloque && (n = origen.read(bloque.datos, bloque.longitud, tamBloque - bloque.longitud)) != -1 )
+						bloque.longitud += n;
+				} catch (IOException e) {
+					error = e;
+				}
+				// Un bloque vaco marca el final del flujo
+				if( bloque.longitud == 0 )
+					bloque.longitud = -1;
+				leidos.put(bloque);
+			} while( bloque.longitud == tamBloque );
+			if( bloque.longitud != -1 ) {
+				bloque = libres.take();
+				bloque.longitud = -1;
+				leidos.put(bloque);
+			}
+		} catch (InterruptedException e) {
+			// Lectura cancelada al cerrar
+		}
+	}
+
+	// Pasa al siguiente bloque si el actual se ha consumido; devuelve false al final del flujo
+	private boolean siguienteBloque() throws IOException {
+		if( actual != null && posicion < actual.longitud )
+			return true;
+		if( actual != null && actual.longitud == -1 )
+			return false;
+		try {
+			if( actual != null )
+				libres.put(actual);
+			actual = leidos.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Lectura interrumpida.");
+		}
+		posicion = 0;
+		if( actual.longitud == -1 ) {
+			if( error != null )
+				throw error;
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if( !siguienteBloque() )
+			return -1;
+		return actual.datos[posicion++] & 0xFF;
+	}
+
+	@Override
+	public int read( byte[] b, int desde, int n ) throws IOException {
+		if( n == 0 )
+			return 0;
+		if( !siguienteBloque() )
+			return -1;
+		n = Math.min(n, actual.longitud - posicion);
+		System.arraycopy(actual.datos, posicion, b, desde, n);
+		posicion += n;
+		return n;
+	}
+
+	@Override
+	public int available() {
+		return (actual == null || actual.longitud == -1) ? 0 : actual.longitud - posicion;
+	}
+
+	/**
+	 * Detiene el hilo lector y cierra el flujo original.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	@Override
+	public void close() throws IOException {
+		lector.interrupt();
+		try {
+			lector.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		origen.close();
+	}
+
+}
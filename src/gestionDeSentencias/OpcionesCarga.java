@@ -0,0 +1,108 @@
+package gestionDeSentencias;
+
+/**
+ * Opciones de carga de un almacn:
+ * Permiten elegir las estructuras y el modo con los que se cargan las sentencias desde un fichero.
+ * Los mtodos de modificacin devuelven el propio objeto, para poder encadenarlos.
+ * @author Daniel, Ivn, Asier
+ */
+public class OpcionesCarga {
+
+	// Indica si los diccionarios de entidades y propiedades se construyen como TrieRadix en lugar de Trie
+	private boolean trieRadix;
+	// Indica si el fichero se lee proyectado en memoria (LectorProyectado) en lugar de lnea a lnea con Fichero
+	private boolean lecturaProyectada;
+	// Nmero de hilos con los que se lee el fichero
+	private int hilos;
+	// Indica si al terminar la carga se construye el ndice de clases (ver Almacen.indexarClases)
+	private boolean indiceClases;
+	
+	
+	/**
+	 * Constructora: opciones por defecto
+	 */
+	public OpcionesCarga() {
+		trieRadix = false;
+		lecturaProyectada = false;
+		hilos = 1;
+		indiceClases = false;
+	}
+	
+	/**
+	 * Indica si se usa un rbol de prefijos comprimido (TrieRadix) para codificar las entidades y propiedades.
+	 * Ocupa mucha menos memoria que un Trie cuando los Strings son largos.
+	 * @param activar - true para usar TrieRadix, false para usar Trie
+	 * @return las propias opciones
+	 */
+	public OpcionesCarga trieRadix( boolean activar ) {
+		trieRadix = activar;
+		return this;
+	}
+	
+	/**
+	 * Comprueba si se usa un rbol de prefijos comprimido para codificar las entidades y propiedades.
+	 * @return true si se usa TrieRadix
+	 */
+	public boolean trieRadix() {
+		return trieRadix;
+	}
+	
+	/**
+	 * Indica si el fichero se lee proyectado en memoria, troceando las sentencias sin crear Strings intermedios.
+	 * Solo se crea un String por cada entidad o propiedad nueva; conviene para ficheros grandes.
+	 * @param activar - true para leer con LectorProyectado, false para leer con Fichero
+	 * @return las propias opciones
+	 */
+	public OpcionesCarga lecturaProyectada( boolean activar ) {
+		lecturaProyectada = activar;
+		return this;
+	}
+	
+	/**
+	 * Comprueba si el fichero se lee proyectado en memoria.
+	 * @return true si se usa LectorProyectado
+	 */
+	public boolean lecturaProyectada() {
+		return lecturaProyectada;
+	}
+	
+	/**
+	 * Indica con cuntos hilos se lee el fichero. Con ms de uno, el fichero se divide en partes (por lneas)
+	 * que se leen proyectadas en memoria a la vez; los ndices y los resultados son los mismos que con uno.
+	 * Los ficheros comprimidos (.gz) no pueden dividirse, y se leen con un hilo ms el que los descomprime.
+	 * @param numHilos - nmero de hilos (1 para leer el fichero entero en el hilo que llama)
+	 * @return las propias opciones
+	 */
+	public OpcionesCarga hilos( int numHilos ) {
+		hilos = Math.max(numHilos, 1);
+		return this;
+	}
+	
+	/**
+	 * Devuelve el nmero de hilos con los que se lee el fichero.
+	 * @return el nmero de hilos
+	 */
+	public int hilos() {
+		return hilos;
+	}
+	
+	/**
+	 * Indica si al terminar la carga se construye el ndice de clases, con el que las consultas 7a, 7b y 8
+	 * se responden sin recorrer el grafo. Ocupa memoria adicional (ver Almacen.indexarClases).
+	 * @param activar - true para construir el ndice de clases
+	 * @return las propias opciones
+	 */
+	public OpcionesCarga indiceClases( boolean activar ) {
+		indiceClases = activar;
+		return this;
+	}
+	
+	/**
+	 * Comprueba si al terminar la carga se construye el ndice de clases.
+	 * @return true si se construye el ndice de clases
+	 */
+	public boolean indiceClases() {
+		return indiceClases;
+	}
+	
+}
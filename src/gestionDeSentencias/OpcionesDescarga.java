@@ -0,0 +1,62 @@
+package gestionDeSentencias;
+
+/**
+ * Opciones de descarga de un almacn:
+ * Permiten elegir con cuntos hilos se codifican las sentencias y el tamao de los buffers con los que se
+ * escriben (ver Almacen.descargar). Los mtodos de modificacin devuelven el propio objeto, para poder encadenarlos.
+ * @author Daniel, Ivn, Asier
+ */
+public class OpcionesDescarga {
+
+	// Nmero de hilos que codifican las sentencias
+	private int hilos;
+	// Tamao en bytes de cada buffer de sentencias codificadas
+	private int tamBuffer;
+	
+	
+	/**
+	 * Constructora: opciones por defecto (un hilo por procesador y buffers de 4 MB)
+	 */
+	public OpcionesDescarga() {
+		hilos = Runtime.getRuntime().availableProcessors();
+		tamBuffer = 1 << 22;
+	}
+	
+	/**
+	 * Indica con cuntos hilos se codifican las sentencias. Cada hilo codifica un tramo de nodos en su buffer
+	 * mientras el hilo que llama escribe en orden los tramos ya codificados.
+	 * @param numHilos - nmero de hilos que codifican
+	 * @return las propias opciones
+	 */
+	public OpcionesDescarga hilos( int numHilos ) {
+		hilos = Math.max(numHilos, 1);
+		return this;
+	}
+	
+	/**
+	 * Devuelve el nmero de hilos que codifican las sentencias.
+	 * @return el nmero de hilos
+	 */
+	public int hilos() {
+		return hilos;
+	}
+	
+	/**
+	 * Indica el tamao de los buffers. Se usan dos por hilo, ms uno directo para escribir en el fichero.
+	 * @param bytes - tamao de cada buffer, en bytes (al menos 64 KB)
+	 * @return las propias opciones
+	 */
+	public OpcionesDescarga tamBuffer( int bytes ) {
+		tamBuffer = Math.max(bytes, 1 << 16);
+		return this;
+	}
+	
+	/**
+	 * Devuelve el tamao de los buffers.
+	 * @return el tamao de cada buffer, en bytes
+	 */
+	public int tamBuffer() {
+		return tamBuffer;
+	}
+	
+}
@@ -0,0 +1,235 @@
+package gestionDeSentencias;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.StringTokenizer;
+
+/**
+ * Registro de cambios de un almacn (write-ahead log):
+ * Fichero de texto en UTF-8 al que solo se aaden lneas. La primera identifica la copia del almacn (de texto
+ * o binaria) sobre la que se aplican las dems, y cada una de las siguientes es una operacin: "+ sentencia"
+ * para una insercin y "- sentencia" para una eliminacin.
+ * Las operaciones se anotan en memoria y se escriben en grupo (group commit): el grupo se escribe y se fuerza
+ * al disco con una sola sincronizacin cuando llega a tamGrupo operaciones o cuando se confirma. Una operacin
+ * solo es duradera cuando se ha confirmado su grupo.
+ * Al recuperar el almacn, las lneas incompletas del final (de una escritura interrumpida) se descartan.
+ * @author Daniel, Ivn, Asier
+ */
+public final class RegistroCambios implements Closeable {
+
+	// Operaciones por grupo si no se indica otro tamao
+	public static final int tamGrupoPorDefecto = 1024;
+	private static final Charset utf8 = Charset.forName("UTF-8");
+
+	// Copia del almacn sobre la que se aplica el registro, e indica si es binaria
+	private final String copia;
+	private final boolean copiaBinaria;
+	// Fichero del registro, abierto para aadir al final
+	private final RandomAccessFile fichero;
+	private final FileChannel canal;
+	// Grupo de operaciones anotadas y an no escritas
+	private final ByteArrayOutputStream grupo;
+	private final int tamGrupo;
+	private int operacionesGrupo;
+	// Error al escribir un grupo completo, que se lanza al confirmar
+	private IOException error;
+
+
+	// Constructora
+	private RegistroCambios( String nombre, String copia, boolean copiaBinaria, int tamGrupo ) throws IOException {
+		this.copia = copia;
+		this.copiaBinaria = copiaBinaria;
+		this.tamGrupo = Math.max(tamGrupo, 1);
+		fichero = new RandomAccessFile(nombre, "rw");
+		canal = fichero.getChannel();
+		grupo = new ByteArrayOutputStream(1 << 16);
+		operacionesGrupo = 0;
+	}
+
+	/**
+	 * Abre el registro de cambios de una copia, aplica al almacn las operaciones completas que contiene y lo deja
+	 * listo para anotar las siguientes. Si el registro no existe, o se escribi para otra versin de la copia
+	 * (porque despus se compact), se empieza uno nuevo.
+	 * @param almacen - almacn recin cargado desde la copia
+	 * @param nombre - fichero del registro
+	 * @param copia - fichero desde el que se ha cargado el almacn
+	 * @param copiaBinaria - true si la copia es binaria (ver Almacen.guardarBinario)
+	 * @param tamGrupo - nmero de operaciones que se escriben juntas
+	 * @return el registro abierto
+	 * @throws IOException En caso de producirse un error de entrada/salida, o si el registro est daado
+	 */
+	static RegistroCambios abrir( Almacen almacen, String nombre, String copia, boolean copiaBinaria, int tamGrupo ) throws IOException {
+		long valido = reproducir(almacen, new File(nombre), cabecera(copia));
+		RegistroCambios registro = new RegistroCambios(nombre, copia, copiaBinaria, tamGrupo);
+		if( valido == -1 ) {
+			registro.reiniciar();
+		} else {
+			registro.canal.truncate(valido);
+			registro.canal.position(valido);
+		}
+		return registro;
+	}
+
+	/**
+	 * Devuelve el fichero de la copia sobre la que se aplica el registro.
+	 * @return el nombre de la copia
+	 */
+	public String copia() {
+		return copia;
+	}
+
+	/**
+	 * Indica si la copia sobre la que se aplica el registro es binaria.
+	 * @return true si la copia es binaria, false si es de texto
+	 */
+	public boolean copiaBinaria() {
+		return copiaBinaria;
+	}
+
+	/**
+	 * Devuelve el nmero de operaciones anotadas que an no se han escrito.
+	 * @return el nmero de operaciones del grupo actual
+	 */
+	public synchronized int pendientes() {
+		return operacionesGrupo;
+	}
+
+	/**
+	 * Anota una operacin en el grupo actual, y lo escribe si est completo. Si la escritura falla, el error
+	 * se lanza en la siguiente confirmacin.
+	 * @param insercion - true para una insercin, false para una eliminacin
+	 * @param sujeto - sujeto de la sentencia
+	 * @param propiedad - propiedad de la sentencia
+	 * @param objeto - objeto de la sentencia
+	 */
+	synchronized void anotar( boolean insercion, String sujeto, String propiedad, String objeto ) {
+		byte[] linea = ((insercion ? "+ " : "- ") + sujeto + " " + propiedad + " " + objeto + " .\n").getBytes(utf8);
+		grupo.write(linea, 0, linea.length);
+		if( ++operacionesGrupo >= tamGrupo ) {
+			try {
+				confirmar();
+			} catch (IOException e) {
+				error = e;
+			}
+		}
+	}
+
+	/**
+	 * Escribe las operaciones anotadas y fuerza su escritura en el disco. Al volver, todas las operaciones
+	 * anotadas hasta el momento son duraderas. Si la escritura falla, el registro se recorta hasta donde estaba,
+	 * sin dejar parte del grupo escrita, y el grupo sigue pendiente para la siguiente confirmacin.
+	 * @throws IOException En caso de producirse un error de entrada/salida, ahora o al escribir un grupo anterior
+	 */
+	public synchronized void confirmar() throws IOException {
+		if( error != null ) {
+			IOException anterior = error;
+			error = null;
+			throw anterior;
+		}
+		if( operacionesGrupo == 0 )
+			return;
+		ByteBuffer datos = ByteBuffer.wrap(grupo.toByteArray());
+		final long inicio = canal.position();
+		try {
+			while( datos.hasRemaining() )
+				canal.write(datos);
+			canal.force(true);
+		} catch (IOException e) {
+			// Un grupo escrito a medias se repetira (o se mezclara con el siguiente) al reintentarlo
+			try {
+				canal.truncate(inicio);
+				canal.position(inicio);
+			} catch (IOException f) {
+				// Se lanza el error original
+			}
+			throw e;
+		}
+		grupo.reset();
+		operacionesGrupo = 0;
+	}
+
+	/**
+	 * Vaca el registro y lo asocia a la versin actual de la copia, descartando las operaciones anotadas.
+	 * Se usa despus de escribir en la copia todo el contenido del almacn (ver Almacen.compactar).
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	synchronized void reiniciar() throws IOException {
+		grupo.reset();
+		operacionesGrupo = 0;
+		error = null;
+		canal.truncate(0);
+		canal.position(0);
+		canal.write(ByteBuffer.wrap((cabecera(copia) + "\n").getBytes(utf8)));
+		canal.force(true);
+	}
+
+	/**
+	 * Confirma las operaciones anotadas y cierra el registro.
+	 * @throws IOException En caso de producirse un error de entrada/salida
+	 */
+	public synchronized void close() throws IOException {
+		try {
+			confirmar();
+		} finally {
+			fichero.close();
+		}
+	}
+
+
+	// Primera lnea del registro de una copia: su tamao y su fecha de modificacin, que cambian al compactar
+	private static String cabecera( String copia ) {
+		File fichero = new File(copia);
+		return "# " + fichero.length() + " " + fichero.lastModified();
+	}
+
+	// Aplica al almacn las operaciones completas del registro, y devuelve la longitud en bytes que ocupan
+	// (con la cabecera), o -1 si el registro no existe o no corresponde a la copia
+	private static long reproducir( Almacen almacen, File fichero, String cabecera ) throws IOException {
+		if( !fichero.exists() )
+			return -1;
+		InputStream entrada = new BufferedInputStream(new FileInputStream(fichero), 1 << 16);
+		ByteArrayOutputStream linea = new ByteArrayOutputStream(256);
+		long leidos = 0, valido = -1;
+		int b;
+		try {
+			while( (b = entrada.read()) != -1 ) {
+				leidos++;
+				if( b != '\n' ) {
+					linea.write(b);
+					continue;
+				}
+				String texto = linea.toString("UTF-8");
+				linea.reset();
+				if( valido == -1 ) {
+					if( !texto.equals(cabecera) ) {
+						System.err.println("Aviso: El registro de cambios no corresponde a la copia del almacn; se descarta.");
+						return -1;
+					}
+				} else {
+					aplicar(almacen, texto);
+				}
+				valido = leidos;
+			}
+		} finally {
+			entrada.close();
+		}
+		return valido;
+	}
+
+	// Aplica al almacn la operacin de una lnea del registro
+	private static void aplicar( Almacen almacen, String linea ) throws IOException {
+		StringTokenizer tokenizador = new StringTokenizer(linea);
+		if( tokenizador.countTokens() < 4 )
+			throw new IOException("Registro de cambios daado: " + linea);
+		String operacion = tokenizador.nextToken();
+		if( operacion.equals("+") )
+			almacen.insertar(tokenizador.nextToken(), tokenizador.nextToken(), tokenizador.nextToken());
+		else if( operacion.equals("-") )
+			almacen.eliminar(tokenizador.nextToken(), tokenizador.nextToken(), tokenizador.nextToken());
+		else
+			throw new IOException("Registro de cambios daado: " + linea);
+	}
+
+}
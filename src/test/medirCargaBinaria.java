@@ -0,0 +1,46 @@
+package test;
+
+import estructurasDeDatos.ListaArray;
+import gestionDeSentencias.Almacen;
+
+/**
+ * Programa de pruebas para comparar el tiempo de carga desde el fichero de texto y desde la copia binaria.
+ * Comprueba adems que ambos almacenes devuelven las mismas sentencias ordenadas.
+ */
+public class medirCargaBinaria {
+
+	public static void main(String[] args) {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt", binario = "data/out/A.bin";
+		long t;
+		
+		// Carga desde el fichero de texto
+		t = System.nanoTime();
+		Almacen texto = Almacen.cargar(fichero);
+		t = System.nanoTime() - t;
+		if( texto == null )
+			return;
+		System.out.println("Carga desde " + fichero + ": " + t / 1e6 + " ms");
+		
+		// Guardar la copia binaria
+		t = System.nanoTime();
+		texto.guardarBinario(binario);
+		t = System.nanoTime() - t;
+		System.out.println("Copia binaria guardada en " + t / 1e6 + " ms");
+		
+		// Carga desde la copia binaria
+		t = System.nanoTime();
+		Almacen copia = Almacen.cargarBinario(binario);
+		t = System.nanoTime() - t;
+		if( copia == null )
+			return;
+		System.out.println("Carga desde " + binario + ": " + t / 1e6 + " ms");
+		
+		// Comparar las sentencias ordenadas de ambos almacenes
+		ListaArray<String> a = texto.sentenciasOrdenadas(), b = copia.sentenciasOrdenadas();
+		boolean iguales = a.size() == b.size();
+		for( int i = 0; i < a.size() && iguales; ++i )
+			iguales = a.get(i).equals(b.get(i));
+		System.out.println("Los dos almacenes contienen las mismas sentencias: " + iguales);
+	}
+
+}
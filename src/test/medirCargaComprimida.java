@@ -0,0 +1,102 @@
+package test;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.Fichero;
+import gestionDeSentencias.OpcionesDescarga;
+
+/**
+ * Programa de pruebas para medir el tiempo de carga desde un fichero comprimido con gzip y desde el original,
+ * y el de descarga con y sin compresin. Comprueba adems que los almacenes y los ficheros tienen el mismo contenido.
+ */
+public class medirCargaComprimida {
+
+	public static void main(String[] args) throws IOException {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt", comprimido = "data/out/C.txt.gz",
+				referencia = "data/out/C1.txt", descargado = "data/out/C2.txt.gz";
+		int repeticiones = 5;
+
+		// Copia comprimida del fichero
+		copiar(fichero, comprimido);
+		long bytes = new File(fichero).length(), bytesComprimido = new File(comprimido).length();
+		System.out.println("Fichero: " + bytes + " bytes, comprimido: " + bytesComprimido + " bytes ("
+				+ String.format("%.1f", 100.0 * bytesComprimido / bytes) + "%)");
+
+		// Carga desde el original y desde el comprimido (la primera de cada uno no se mide)
+		Almacen original = Almacen.cargar(fichero), almacen = Almacen.cargar(comprimido);
+		if( original == null || almacen == null )
+			return;
+		long t = System.nanoTime();
+		for( int i = 0; i < repeticiones; ++i )
+			original = Almacen.cargar(fichero);
+		t = (System.nanoTime() - t) / repeticiones;
+		System.out.println("Carga del original: " + t / 1e6 + " ms");
+		t = System.nanoTime();
+		for( int i = 0; i < repeticiones; ++i )
+			almacen = Almacen.cargar(comprimido);
+		t = (System.nanoTime() - t) / repeticiones;
+		System.out.println("Carga del comprimido: " + t / 1e6 + " ms");
+		original.descargar(referencia);
+		almacen.descargar(descargado);
+		System.out.println("Mismas sentencias: " + iguales(referencia, descargado));
+
+		// Descarga comprimida, con uno y con varios hilos
+		t = System.nanoTime();
+		for( int i = 0; i < repeticiones; ++i )
+			original.descargar(referencia);
+		t = (System.nanoTime() - t) / repeticiones;
+		System.out.println("Descarga sin comprimir: " + t / 1e6 + " ms");
+		t = System.nanoTime();
+		for( int i = 0; i < repeticiones; ++i )
+			original.descargar(descargado);
+		t = (System.nanoTime() - t) / repeticiones;
+		System.out.println("Descarga comprimida: " + t / 1e6 + " ms, mismo contenido: " + iguales(referencia, descargado));
+		OpcionesDescarga opciones = new OpcionesDescarga().tamBuffer(1 << 16);
+		t = System.nanoTime();
+		for( int i = 0; i < repeticiones; ++i )
+			original.descargar(descargado, opciones);
+		t = (System.nanoTime() - t) / repeticiones;
+		System.out.println("Descarga comprimida con " + opciones.hilos() + ((opciones.hilos() == 1) ? " hilo: " : " hilos: ") + t / 1e6
+				+ " ms, mismo contenido: " + iguales(referencia, descargado));
+
+		new File(comprimido).delete();
+		new File(referencia).delete();
+		new File(descargado).delete();
+	}
+
+	// Copia el contenido de un fichero en otro, comprimindolo o descomprimindolo segn sus extensiones
+	private static void copiar(String origen, String destino) throws IOException {
+		InputStream entrada = Fichero.abrirEntrada(origen);
+		OutputStream salida = Fichero.abrirSalida(destino, false);
+		byte[] buffer = new byte[1 << 16];
+		int n;
+		try {
+			while( (n = entrada.read(buffer)) != -1 )
+				salida.write(buffer, 0, n);
+		} finally {
+			entrada.close();
+			salida.close();
+		}
+	}
+
+	// Compara el contenido (descomprimido) de dos ficheros byte a byte
+	private static boolean iguales(String a, String b) throws IOException {
+		InputStream ea = new BufferedInputStream(Fichero.abrirEntrada(a), 1 << 16), eb = new BufferedInputStream(Fichero.abrirEntrada(b), 1 << 16);
+		int ca, cb;
+		try {
+			do {
+				ca = ea.read();
+				cb = eb.read();
+			} while( ca == cb && ca != -1 );
+			return ca == cb;
+		} finally {
+			ea.close();
+			eb.close();
+		}
+	}
+
+}
@@ -0,0 +1,42 @@
+package test;
+
+import estructurasDeDatos.ListaArray;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.OpcionesCarga;
+
+/**
+ * Programa de pruebas para medir el tiempo de carga de un fichero con distinto nmero de hilos.
+ * Comprueba adems que todos los almacenes devuelven las mismas sentencias ordenadas que la carga con un hilo.
+ */
+public class medirCargaParalela {
+
+	public static void main(String[] args) {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt";
+		int maxHilos = Math.max(Runtime.getRuntime().availableProcessors(), 4);
+		long t;
+		System.out.println("Procesadores disponibles: " + Runtime.getRuntime().availableProcessors());
+		
+		// Carga de referencia, con un solo hilo
+		t = System.nanoTime();
+		Almacen referencia = Almacen.cargar(fichero);
+		t = System.nanoTime() - t;
+		if( referencia == null )
+			return;
+		System.out.println("1 hilo: " + t / 1e6 + " ms");
+		ListaArray<String> esperadas = referencia.sentenciasOrdenadas();
+		referencia = null;
+		
+		for( int hilos = 2; hilos <= maxHilos; hilos *= 2 ) {
+			t = System.nanoTime();
+			Almacen m = Almacen.cargar(fichero, new OpcionesCarga().hilos(hilos));
+			t = System.nanoTime() - t;
+			// Comparar las sentencias ordenadas con las de la carga de referencia
+			ListaArray<String> obtenidas = m.sentenciasOrdenadas();
+			boolean iguales = obtenidas.size() == esperadas.size();
+			for( int i = 0; i < obtenidas.size() && iguales; ++i )
+				iguales = obtenidas.get(i).equals(esperadas.get(i));
+			System.out.println(hilos + " hilos: " + t / 1e6 + " ms, mismas sentencias: " + iguales);
+		}
+	}
+
+}
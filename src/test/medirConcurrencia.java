@@ -0,0 +1,139 @@
+package test;
+
+import estructurasDeDatos.ListaArray;
+import gestionDeSentencias.Almacen;
+
+import java.io.*;
+import java.util.StringTokenizer;
+
+/**
+ * Programa de pruebas para medir el rendimiento de las consultas sobre un almacn congelado compartido
+ * por varios hilos. Cada hilo ejecuta las mismas consultas; se comprueba que todos obtienen los mismos
+ * resultados que un nico hilo, y que varias descargas simultneas escriben ficheros idnticos.
+ */
+public class medirConcurrencia {
+
+	// Nmero de veces que cada hilo repite las consultas sobre todas las entidades de la muestra
+	private static final int rondas = 20;
+
+	public static void main(String[] args) {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt";
+		final Almacen m = Almacen.cargar(fichero);
+		if( m == null )
+			return;
+		m.congelar();
+		
+		// Muestra de entidades: los sujetos distintos de las sentencias ordenadas
+		ListaArray<String> ordenadas = m.sentenciasOrdenadas();
+		final ListaArray<String> muestra = new ListaArray<String>();
+		String sujeto;
+		for( int i = 0; i < ordenadas.size(); ++i ) {
+			sujeto = new StringTokenizer(ordenadas.get(i)).nextToken();
+			if( muestra.size() == 0 || !muestra.get(muestra.size()-1).equals(sujeto) )
+				muestra.insertLast(sujeto);
+		}
+		System.out.println("Procesadores disponibles: " + Runtime.getRuntime().availableProcessors());
+		System.out.println("Entidades de la muestra: " + muestra.size());
+		
+		// Resultado de referencia con un solo hilo, repitiendo las consultas para que el tiempo no incluya la compilacin JIT
+		long referencia = consultar(m, muestra);
+		for( int r = 0; r < rondas; ++r )
+			consultar(m, muestra);
+		double base = 0;
+		int maxHilos = Math.max(Runtime.getRuntime().availableProcessors(), 4);
+		for( int numHilos = 1; numHilos <= maxHilos; numHilos *= 2 ) {
+			final long[] resultados = new long[numHilos];
+			Thread[] hilos = new Thread[numHilos];
+			long t = System.nanoTime();
+			for( int h = 0; h < numHilos; ++h ) {
+				final int indice = h;
+				hilos[h] = new Thread() {
+					@Override
+					public void run() {
+						long suma = 0;
+						for( int r = 0; r < rondas; ++r )
+							suma += consultar(m, muestra);
+						resultados[indice] = suma;
+					}
+				};
+				hilos[h].start();
+			}
+			esperar(hilos);
+			t = System.nanoTime() - t;
+			boolean correcto = true;
+			for( int h = 0; h < numHilos; ++h )
+				correcto &= resultados[h] == referencia * rondas;
+			double consultasPorSegundo = (double) numHilos * rondas * 6 * muestra.size() / (t / 1e9);
+			if( numHilos == 1 )
+				base = consultasPorSegundo;
+			System.out.printf("%d hilos: %.0f consultas/s (x%.2f), resultados correctos: %b%n",
+					numHilos, consultasPorSegundo, consultasPorSegundo / base, correcto);
+		}
+		
+		// Descargas simultneas en ficheros distintos
+		Thread[] hilos = new Thread[4];
+		for( int h = 0; h < hilos.length; ++h ) {
+			final String salida = "data/out/concurrente" + h + ".txt";
+			hilos[h] = new Thread() {
+				@Override
+				public void run() {
+					m.descargar(salida);
+				}
+			};
+			hilos[h].start();
+		}
+		esperar(hilos);
+		boolean iguales = true;
+		for( int h = 1; h < hilos.length; ++h )
+			iguales &= igualContenido("data/out/concurrente0.txt", "data/out/concurrente" + h + ".txt");
+		for( int h = 0; h < hilos.length; ++h )
+			new File("data/out/concurrente" + h + ".txt").delete();
+		System.out.println("Descargas simultneas idnticas: " + iguales);
+	}
+	
+	// Ejecuta las consultas sobre cada entidad de la muestra y devuelve el nmero total de resultados
+	private static long consultar(Almacen m, ListaArray<String> muestra) {
+		long total = 0;
+		String entidad;
+		for( int i = 0; i < muestra.size(); ++i ) {
+			entidad = muestra.get(i);
+			total += m.sentenciasPorSujeto(entidad).size();
+			total += m.clasesDe(entidad).size();
+			total += m.superClasesDe(entidad).size();
+			total += m.entidadesDeClase(entidad).size();
+			total += m.estudiantesDelProfesor(entidad).size();
+			total += m.profesoresDeUniversidad(entidad).size();
+		}
+		return total;
+	}
+	
+	// Espera a que terminen todos los hilos
+	private static void esperar(Thread[] hilos) {
+		try {
+			for( int h = 0; h < hilos.length; ++h )
+				hilos[h].join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	// Compara el contenido de dos ficheros
+	private static boolean igualContenido(String a, String b) {
+		try {
+			BufferedReader ra = new BufferedReader(new FileReader(a)), rb = new BufferedReader(new FileReader(b));
+			String la, lb;
+			boolean iguales = true;
+			do {
+				la = ra.readLine();
+				lb = rb.readLine();
+				iguales = (la == null) ? lb == null : la.equals(lb);
+			} while( iguales && la != null );
+			ra.close();
+			rb.close();
+			return iguales;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.OpcionesDescarga;
+
+/**
+ * Programa de pruebas para medir el tiempo de descarga de un almacn con distinto nmero de hilos.
+ * Comprueba adems que todos los ficheros son iguales, byte a byte, al que escribe descargar.
+ */
+public class medirDescargaParalela {
+
+	public static void main(String[] args) throws IOException {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt", referencia = "data/out/D1.txt", paralela = "data/out/D2.txt";
+		int maxHilos = Math.max(Runtime.getRuntime().availableProcessors(), 4), repeticiones = 5;
+		Almacen m = Almacen.cargar(fichero);
+		if( m == null )
+			return;
+		System.out.println("Procesadores disponibles: " + Runtime.getRuntime().availableProcessors());
+
+		// Descarga de referencia
+		long t = System.nanoTime();
+		for( int i = 0; i < repeticiones; ++i )
+			m.descargar(referencia);
+		t = (System.nanoTime() - t) / repeticiones;
+		long bytes = new File(referencia).length();
+		System.out.println("descargar: " + t / 1e6 + " ms (" + String.format("%.1f", bytes / (t / 1e9) / (1 << 20)) + " MB/s)");
+
+		for( int hilos = 1; hilos <= maxHilos; hilos *= 2 ) {
+			// Buffers pequeos, para que haya varios tramos aunque el fichero sea pequeo
+			OpcionesDescarga opciones = new OpcionesDescarga().hilos(hilos).tamBuffer(1 << 16);
+			t = System.nanoTime();
+			for( int i = 0; i < repeticiones; ++i )
+				m.descargar(paralela, opciones);
+			t = (System.nanoTime() - t) / repeticiones;
+			System.out.println(hilos + ((hilos == 1) ? " hilo: " : " hilos: ") + t / 1e6 + " ms (" + String.format("%.1f", bytes / (t / 1e9) / (1 << 20))
+					+ " MB/s), mismo fichero: " + iguales(referencia, paralela));
+		}
+		new File(referencia).delete();
+		new File(paralela).delete();
+	}
+
+	// Compara dos ficheros byte a byte
+	private static boolean iguales(String a, String b) throws IOException {
+		InputStream ea = new FileInputStream(a), eb = new FileInputStream(b);
+		byte[] ba = new byte[1 << 16], bb = new byte[1 << 16];
+		int na, nb;
+		boolean iguales = true;
+		try {
+			do {
+				na = ea.read(ba);
+				nb = eb.read(bb);
+				if( na != nb )
+					return false;
+				for( int i = 0; i < na && iguales; ++i )
+					iguales = ba[i] == bb[i];
+			} while( na > 0 && iguales );
+		} finally {
+			ea.close();
+			eb.close();
+		}
+		return iguales;
+	}
+
+}
@@ -0,0 +1,58 @@
+package test;
+
+import java.io.*;
+import java.util.Iterator;
+import gestionDeSentencias.Almacen;
+
+/**
+ * Programa de pruebas para comparar la escritura de sentencias creando un String por lnea con la escritura
+ * directa de bytes desde los diccionarios. Comprueba adems que las dos escriben exactamente los mismos bytes.
+ */
+public class medirEscrituraDirecta {
+
+	public static void main(String[] args) throws IOException {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt";
+		Almacen almacen = Almacen.cargar(fichero);
+		if( almacen == null )
+			return;
+		String sujeto = almacen.recorrerSentencias().next().split(" ")[0];
+		ByteArrayOutputStream conStrings = new ByteArrayOutputStream(), directa = new ByteArrayOutputStream();
+		long t1 = 0, t2 = 0, t;
+		boolean iguales = true;
+
+		// Repetir varias veces para que el compilador JIT optimice ambos caminos
+		for( int ronda = 0; ronda < 5; ++ronda ) {
+			for( int consulta = 0; consulta < 4; ++consulta ) {
+				conStrings.reset();
+				directa.reset();
+				t = System.nanoTime();
+				Writer escritor = new BufferedWriter(new OutputStreamWriter(conStrings, "UTF-8"));
+				Iterator<String> recorrido = (consulta == 0) ? almacen.recorrerSentenciasPorSujeto(sujeto)
+						: (consulta == 1) ? almacen.recorrerSentenciasDistintasPorSujeto(sujeto)
+						: (consulta == 2) ? almacen.recorrerSentenciasOrdenadas() : almacen.recorrerSentencias();
+				while( recorrido.hasNext() ) {
+					escritor.write(recorrido.next());
+					escritor.write(System.getProperty("line.separator"));
+				}
+				escritor.flush();
+				t1 += System.nanoTime() - t;
+				t = System.nanoTime();
+				if( consulta == 0 )
+					almacen.escribirSentenciasPorSujeto(sujeto, directa);
+				else if( consulta == 1 )
+					almacen.escribirSentenciasDistintasPorSujeto(sujeto, directa);
+				else if( consulta == 2 )
+					almacen.escribirSentenciasOrdenadas(directa);
+				else
+					almacen.escribirSentencias(directa);
+				t2 += System.nanoTime() - t;
+				iguales &= java.util.Arrays.equals(conStrings.toByteArray(), directa.toByteArray());
+			}
+		}
+		System.out.println("Consultas 1, 2, 6 y 9 sobre " + fichero + " (5 rondas):");
+		System.out.println("Escritura con un String por lnea: " + t1 / 1e6 + " ms");
+		System.out.println("Escritura directa de bytes: " + t2 / 1e6 + " ms");
+		System.out.println("Las dos escriben los mismos bytes: " + iguales);
+	}
+
+}
@@ -0,0 +1,76 @@
+package test;
+
+import java.util.Iterator;
+import estructurasDeDatos.ListaArray;
+import estructurasDeDatos.Trie;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.OpcionesCarga;
+
+/**
+ * Programa de pruebas para comparar las consultas 7a, 7b y 8 con y sin el ndice de clases.
+ * Las ejecuta para todas las entidades del almacn y comprueba que los resultados son los mismos.
+ */
+public class medirIndiceClases {
+
+	public static void main(String[] args) {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt";
+		Almacen sinIndice = Almacen.cargar(fichero);
+		if( sinIndice == null )
+			return;
+		long t = System.nanoTime();
+		Almacen conIndice = Almacen.cargar(fichero, new OpcionesCarga().indiceClases(true));
+		System.out.println("Carga con ndice de clases: " + (System.nanoTime() - t) / 1e6 + " ms");
+		// Entidades distintas que aparecen como sujeto u objeto de alguna sentencia
+		ListaArray<String> entidades = new ListaArray<String>();
+		Trie vistas = new Trie();
+		String[] partes;
+		Iterator<String> sentencias = sinIndice.recorrerSentencias();
+		while( sentencias.hasNext() ) {
+			partes = sentencias.next().split(" ");
+			for( int p = 0; p <= 2; p += 2 )
+				if( vistas.insertar(partes[p], entidades.size()) == entidades.size() )
+					entidades.insertLast(partes[p]);
+		}
+
+		long[] tiempos = new long[2];
+		boolean iguales = true;
+		// Varias rondas para que el compilador JIT optimice ambos caminos
+		for( int ronda = 0; ronda < 5; ++ronda ) {
+			for( int k = 0; k < 2; ++k ) {
+				Almacen almacen = (k == 0) ? sinIndice : conIndice;
+				t = System.nanoTime();
+				for( int i = 0; i < entidades.size(); ++i ) {
+					consumir(almacen.recorrerClasesDe(entidades.get(i)));
+					consumir(almacen.recorrerSuperClasesDe(entidades.get(i)));
+					consumir(almacen.recorrerEntidadesDeClase(entidades.get(i)));
+				}
+				tiempos[k] += System.nanoTime() - t;
+			}
+		}
+		for( int i = 0; i < entidades.size() && iguales; ++i ) {
+			String e = entidades.get(i);
+			iguales = concatenar(sinIndice.recorrerClasesDe(e)).equals(concatenar(conIndice.recorrerClasesDe(e)))
+					&& concatenar(sinIndice.recorrerSuperClasesDe(e)).equals(concatenar(conIndice.recorrerSuperClasesDe(e)))
+					&& concatenar(sinIndice.recorrerEntidadesDeClase(e)).equals(concatenar(conIndice.recorrerEntidadesDeClase(e)));
+		}
+		System.out.println("Consultas 7a, 7b y 8 para " + entidades.size() + " entidades de " + fichero + " (5 rondas):");
+		System.out.println("Sin ndice de clases: " + tiempos[0] / 1e6 + " ms");
+		System.out.println("Con ndice de clases: " + tiempos[1] / 1e6 + " ms");
+		System.out.println("Los resultados coinciden: " + iguales);
+	}
+
+	// Recorre el iterador entero
+	private static void consumir(Iterator<String> recorrido) {
+		while( recorrido.hasNext() )
+			recorrido.next();
+	}
+
+	// Concatena los elementos del iterador, uno por lnea
+	private static String concatenar(Iterator<String> recorrido) {
+		StringBuilder sb = new StringBuilder();
+		while( recorrido.hasNext() )
+			sb.append(recorrido.next()).append('\n');
+		return sb.toString();
+	}
+
+}
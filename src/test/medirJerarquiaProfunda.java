@@ -0,0 +1,115 @@
+package test;
+
+import java.io.*;
+import java.util.Iterator;
+import gestionDeSentencias.Almacen;
+
+/**
+ * Programa de pruebas para comparar el recorrido de jerarquas del almacn, con pila explcita, con una bsqueda
+ * en profundidad recursiva como la de las primeras versiones. Genera una jerarqua sinttica en cadena:
+ * C0 subClaseDe C1 subClaseDe ... C(n-1), con una entidad de cada clase, y calcula las superclases de C0 y las
+ * entidades de C(n-1), que recorren los n niveles de la cadena.
+ * La versin recursiva trabaja sobre arrays de enteros y solo cuenta los nodos, sin construir sus nombres.
+ */
+public class medirJerarquiaProfunda {
+
+	private static final String prefijo = "<http://ejemplo.org/jerarquia#";
+	private static final String es = "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type>";
+	private static final String subClaseDe = "<http://www.w3.org/2000/01/rdf-schema#subClassOf>";
+
+	// Jerarqua para la versin recursiva: superclase[c] = c+1 y entidad c de la clase c
+	private static int n;
+	private static boolean[] visitados;
+	private static int encontrados;
+
+	public static void main(String[] args) throws IOException {
+		n = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+		File fichero = File.createTempFile("jerarquia", ".txt");
+		fichero.deleteOnExit();
+		Writer escritor = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fichero), "UTF-8"));
+		for( int c = 0; c < n; ++c ) {
+			if( c + 1 < n )
+				escritor.write(prefijo + "C" + c + "> " + subClaseDe + " " + prefijo + "C" + (c+1) + "> .\n");
+			escritor.write(prefijo + "E" + c + "> " + es + " " + prefijo + "C" + c + "> .\n");
+		}
+		escritor.close();
+		Almacen almacen = Almacen.cargar(fichero.getPath());
+		if( almacen == null )
+			return;
+		System.out.println("Jerarqua en cadena de " + n + " clases, con una entidad por clase.");
+
+		// Recorrido con pila explcita del almacn
+		long t = System.nanoTime();
+		int superClases = contar(almacen.recorrerSuperClasesDe(prefijo + "C0>"));
+		int entidades = contar(almacen.recorrerEntidadesDeClase(prefijo + "C" + (n-1) + ">"));
+		System.out.println("Pila explcita: " + superClases + " superclases y " + entidades + " entidades en "
+				+ (System.nanoTime() - t) / 1e6 + " ms");
+
+		// Recursin en el hilo principal, con la pila por defecto
+		try {
+			t = System.nanoTime();
+			recursivo();
+			System.out.println("Recursin con la pila por defecto: " + (System.nanoTime() - t) / 1e6 + " ms");
+		} catch( StackOverflowError e ) {
+			System.out.println("Recursin con la pila por defecto: desbordamiento de pila (StackOverflowError)");
+		}
+
+		// Recursin en un hilo con una pila grande, para poder comparar los tiempos
+		Thread hilo = new Thread(null, new Runnable() {
+			public void run() {
+				try {
+					long t = System.nanoTime();
+					recursivo();
+					System.out.println("Recursin con una pila de 1 GB: " + encontrados + " nodos en "
+							+ (System.nanoTime() - t) / 1e6 + " ms");
+				} catch( StackOverflowError e ) {
+					System.out.println("Recursin con una pila de 1 GB: desbordamiento de pila (StackOverflowError)");
+				}
+			}
+		}, "recursivo", 1L << 30);
+		hilo.start();
+		try {
+			hilo.join();
+		} catch( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// Superclases de C0 y entidades de C(n-1) con bsquedas en profundidad recursivas
+	private static void recursivo() {
+		encontrados = 0;
+		visitados = new boolean[n];
+		DFS(0);
+		visitados = new boolean[n];
+		DFSinversa(n-1);
+	}
+
+	// Bsqueda en profundidad por las aristas 'subClaseDe' salientes de una clase
+	private static void DFS(int clase) {
+		if( clase + 1 < n && !visitados[clase+1] ) {
+			visitados[clase+1] = true;
+			encontrados++;
+			DFS(clase+1);
+		}
+	}
+
+	// Bsqueda en profundidad por las aristas entrantes de una clase: 'es' se devuelve y 'subClaseDe' se sigue
+	private static void DFSinversa(int clase) {
+		encontrados++;
+		if( clase > 0 && !visitados[clase-1] ) {
+			visitados[clase-1] = true;
+			DFSinversa(clase-1);
+		}
+	}
+
+	// Cuenta los elementos del iterador
+	private static int contar(Iterator<String> recorrido) {
+		int total = 0;
+		while( recorrido.hasNext() ) {
+			recorrido.next();
+			total++;
+		}
+		return total;
+	}
+
+}
@@ -0,0 +1,95 @@
+package test;
+
+import estructurasDeDatos.*;
+import gestionDeSentencias.Fichero;
+
+import java.io.IOException;
+import java.util.StringTokenizer;
+
+/**
+ * Programa de pruebas para comparar la memoria que ocupan Trie y TrieRadix con las entidades de un fichero.
+ * Los Strings se guardan aparte en ambos casos (como se hace durante la carga), as que solo se mide el rbol.
+ * Tambin compara un Trie junto con la lista de Strings frente al DiccionarioCompacto que los sustituye.
+ */
+public class medirMemoriaTries {
+
+	public static void main(String[] args) {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt";
+		try {
+			// Leer las entidades distintas (sujetos y objetos) del fichero
+			ListaArray<String> entidades = new ListaArray<String>();
+			Trie distintas = new Trie();
+			StringTokenizer tokenizador;
+			String sentencia, entidad;
+			Fichero.abrir(fichero, false, false);
+			sentencia = Fichero.leerSentencia();
+			while( sentencia != null ) {
+				tokenizador = new StringTokenizer(sentencia);
+				for( int i = 0; i < 3; ++i ) {
+					entidad = tokenizador.nextToken();
+					if( i != 1 && distintas.insertar(entidad, entidades.size()) == entidades.size() )
+						entidades.insertLast(entidad);
+				}
+				sentencia = Fichero.leerSentencia();
+			}
+			Fichero.cerrar();
+			distintas = null;
+			System.out.println("Fichero " + fichero + ": " + entidades.size() + " entidades distintas.");
+			
+			// Medir cada rbol por separado
+			long memoriaTrie = medir(new Trie(), entidades);
+			long memoriaRadix = medir(new TrieRadix(), entidades);
+			System.out.println("Trie:      " + memoriaTrie / 1024 + " KB (" + memoriaTrie / entidades.size() + " bytes por entidad)");
+			System.out.println("TrieRadix: " + memoriaRadix / 1024 + " KB (" + memoriaRadix / entidades.size() + " bytes por entidad)");
+			System.out.println("Proporcin Trie / TrieRadix: " + (double) memoriaTrie / memoriaRadix);
+			
+			// Medir los Strings y el diccionario compacto construido a partir de ellos
+			long memoriaStrings = medirStrings(entidades);
+			Trie trie = new Trie();
+			for( int i = 0; i < entidades.size(); ++i )
+				trie.insertar(entidades.get(i), i);
+			long antes = memoriaUsada();
+			DiccionarioCompacto compacto = new DiccionarioCompacto(entidades, trie.recorrerEnProfundidad());
+			long memoriaCompacto = memoriaUsada() - antes;
+			System.out.println("Trie + lista de Strings: " + (memoriaTrie + memoriaStrings) / 1024 + " KB");
+			System.out.println("DiccionarioCompacto:     " + memoriaCompacto / 1024 + " KB (" + compacto.bytesCodificados() / 1024 + " KB de Strings codificados)");
+		} catch (IOException e) {
+			System.out.println("Error al acceder al fichero especificado.");
+		}
+	}
+	
+	// Inserta todas las entidades en el diccionario y devuelve la memoria que ocupa tras insertarlas
+	private static long medir(Diccionario diccionario, ListaArray<String> entidades) {
+		long antes = memoriaUsada();
+		for( int i = 0; i < entidades.size(); ++i )
+			diccionario.insertar(entidades.get(i), i);
+		long despues = memoriaUsada();
+		// Se consulta el diccionario para que siga vivo durante la medicin
+		if( diccionario.size() != entidades.size() )
+			System.out.println("Error: el diccionario no contiene todas las entidades.");
+		return despues - antes;
+	}
+	
+	// Devuelve la memoria que ocupa una copia de la lista de Strings (cada String es un objeto nuevo)
+	private static long medirStrings(ListaArray<String> entidades) {
+		long antes = memoriaUsada();
+		ListaArray<String> copia = new ListaArray<String>(entidades.size());
+		for( int i = 0; i < entidades.size(); ++i )
+			copia.insertLast(new String(entidades.get(i).toCharArray()));
+		long despues = memoriaUsada();
+		if( copia.size() != entidades.size() )
+			System.out.println("Error: la copia no contiene todas las entidades.");
+		return despues - antes;
+	}
+	
+	// Memoria ocupada en el montculo, despus de pedir varias recolecciones de basura
+	private static long memoriaUsada() {
+		Runtime rt = Runtime.getRuntime();
+		for( int i = 0; i < 5; ++i ) {
+			System.gc();
+			try { Thread.sleep(50); } catch (InterruptedException e) { }
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+
+}
@@ -0,0 +1,107 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import estructurasDeDatos.ListaEnlazada;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.CaminoPropiedades;
+import gestionDeSentencias.Fichero;
+
+/**
+ * Casos de prueba para los caminos de propiedades:
+ * comprueba que los caminos de las consultas 10 y 11 dan los mismos resultados que ellas en los datos de prueba,
+ * que las consultas mantienen los resultados de la versin original en un grafo en el que difieren de sus
+ * caminos, y sigue otros caminos.
+ */
+public class pruebaCaminoPropiedades {
+
+	private static final String ub = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#";
+
+	// Grafo en el que hay asignaturas que tambin cursan otras y departamentos que trabajan para otros
+	private static final String[] grafoEjemplo = {
+		"<p> teacherOf <c1>", "<p> teacherOf <c2>", "<s1> takesCourse <c1>", "<c2> takesCourse <c1>",
+		"<s2> takesCourse <c2>", "<s3> takesCourse <c2>", "<p> teacherOf <s3>", "<s4> takesCourse <s3>",
+		"<s1> takesCourse <c2>", "<d1> subOrganizationOf <u>", "<d2> subOrganizationOf <u>", "<x1> worksFor <d1>",
+		"<d2> worksFor <d1>", "<x2> worksFor <d2>", "<x1> worksFor <d2>", "<x3> subOrganizationOf <u>",
+		"<d1> worksFor <x3>", "<x4> worksFor <x3>"
+	};
+	// Resultados de las consultas 10 y 11 en ese grafo con la versin original del almacn, y de sus caminos
+	private static final String[] consulta10Original = { "<c2>", "<s1>", "<s4>" },
+			consulta11Original = { "<d2>", "<x1>", "<x4>" },
+			camino10 = { "<c2>", "<s1>", "<s2>", "<s3>", "<s4>" },
+			camino11 = { "<d2>", "<x1>", "<x2>", "<d1>", "<x4>" };
+
+	public static void main(String[] args) throws IOException {
+		Almacen m = Almacen.cargar( (args.length > 0) ? args[0] : "data/in/A2.txt" );
+		if( m == null )
+			return;
+		String profesor = "<http://www.Department0.University0.edu/FullProfessor0>",
+				universidad = "<http://www.University0.edu>";
+		CaminoPropiedades consulta10 = new CaminoPropiedades().saliente(ub + "teacherOf>").entrante(ub + "takesCourse>"),
+				consulta11 = new CaminoPropiedades().entrante(ub + "subOrganizationOf>").entrante(ub + "worksFor>");
+
+		System.out.println("Prueba de los caminos de propiedades.");
+		System.out.println("----------------------------------------");
+		System.out.println("10) como camino: " + iguales(m.estudiantesDelProfesor(profesor), m.recorrerCamino(profesor, consulta10)));
+		System.out.println("11) como camino: " + iguales(m.profesoresDeUniversidad(universidad), m.recorrerCamino(universidad, consulta11)));
+
+		// Las mismas comprobaciones para todas las entidades que son sujeto de alguna sentencia
+		boolean correcto = true;
+		String anterior = null, entidad;
+		Iterator<String> sentencias = m.recorrerSentencias();
+		while( sentencias.hasNext() ) {
+			entidad = sentencias.next().split(" ")[0];
+			if( entidad.equals(anterior) )
+				continue;
+			anterior = entidad;
+			correcto &= iguales(m.estudiantesDelProfesor(entidad), m.recorrerCamino(entidad, consulta10))
+					&& iguales(m.profesoresDeUniversidad(entidad), m.recorrerCamino(entidad, consulta11));
+		}
+		System.out.println("10) y 11) como caminos para todos los sujetos: " + correcto);
+		System.out.println();
+
+		// En el grafo de ejemplo, las consultas no devuelven las entidades ya vistas como intermedias
+		String ejemplo = "data/out/P.txt";
+		Fichero salida = new Fichero(ejemplo, true, false);
+		String[] partes;
+		for( int i = 0; i < grafoEjemplo.length; ++i ) {
+			partes = grafoEjemplo[i].split(" ");
+			salida.escribir(partes[0] + " " + ub + partes[1] + "> " + partes[2] + " .");
+		}
+		salida.close();
+		Almacen e = Almacen.cargar(ejemplo);
+		new File(ejemplo).delete();
+		if( e == null )
+			return;
+		System.out.println("10) igual que la versin original: " + iguales(e.estudiantesDelProfesor("<p>"), Arrays.asList(consulta10Original).iterator()));
+		System.out.println("11) igual que la versin original: " + iguales(e.profesoresDeUniversidad("<u>"), Arrays.asList(consulta11Original).iterator()));
+		System.out.println("Camino de la 10): " + iguales(e.seguirCamino("<p>", consulta10), Arrays.asList(camino10).iterator()));
+		System.out.println("Camino de la 11): " + iguales(e.seguirCamino("<u>", consulta11), Arrays.asList(camino11).iterator()));
+		System.out.println();
+
+		// Camino de tres pasos: departamentos de los que son miembros los estudiantes de un profesor
+		CaminoPropiedades departamentos = new CaminoPropiedades().saliente(ub + "teacherOf>")
+				.entrante(ub + "takesCourse>").saliente(ub + "memberOf>");
+		System.out.println("Departamentos de los estudiantes de " + profesor + ":");
+		for( String departamento : m.seguirCamino(profesor, departamentos) )
+			System.out.println("  " + departamento);
+		System.out.println();
+
+		System.out.println("Camino vaco: " + m.seguirCamino(profesor, new CaminoPropiedades()).size() + " entidad");
+		System.out.println("Propiedad inexistente: " + m.seguirCamino(profesor, new CaminoPropiedades().saliente("<noExiste>")).size() + " entidades");
+		System.out.println("Entidad inexistente: " + m.seguirCamino("<noExiste>", consulta10).size() + " entidades");
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+	// Comprueba que la lista y el recorrido contienen los mismos elementos en el mismo orden
+	private static boolean iguales(ListaEnlazada<String> lista, Iterator<String> recorrido) {
+		for( String elemento : lista )
+			if( !recorrido.hasNext() || !elemento.equals(recorrido.next()) )
+				return false;
+		return !recorrido.hasNext();
+	}
+
+}
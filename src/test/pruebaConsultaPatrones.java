@@ -0,0 +1,77 @@
+package test;
+
+import estructurasDeDatos.ListaArray;
+import estructurasDeDatos.ListaEnlazada;
+import estructurasDeDatos.Trie;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.ConsultaPatrones;
+
+/**
+ * Casos de prueba para las consultas de patrones de sentencias:
+ * compara algunas consultas con las consultas fijas equivalentes y comprueba los errores de formato.
+ */
+public class pruebaConsultaPatrones {
+
+	private static final String ub = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#",
+			tipo = "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type>";
+
+	public static void main(String[] args) {
+		Almacen m = Almacen.cargar( (args.length > 0) ? args[0] : "data/in/A2.txt" );
+		if( m == null )
+			return;
+		String profesor = "<http://www.Department0.University0.edu/FullProfessor0>";
+		System.out.println("Prueba de las consultas de patrones.");
+		System.out.println("----------------------------------------");
+
+		// Consulta 10 como patrones: cada estudiante aparece una vez por asignatura
+		ConsultaPatrones consulta = ConsultaPatrones.analizar(profesor + " " + ub + "teacherOf> ?a . ?e " + ub + "takesCourse> ?a");
+		ListaEnlazada<ListaArray<String>> soluciones = m.resolver(consulta);
+		Trie esperados = new Trie(), estudiantes = new Trie();
+		for( String estudiante : m.estudiantesDelProfesor(profesor) )
+			esperados.insertar(estudiante, esperados.size());
+		int e = consulta.indiceVariable("?e");
+		boolean coinciden = true;
+		for( ListaArray<String> solucion : soluciones ) {
+			estudiantes.insertar(solucion.get(e), estudiantes.size());
+			coinciden &= esperados.obtenerValor(solucion.get(e)) != -1;
+		}
+		coinciden &= estudiantes.size() == esperados.size();
+		System.out.println("10) como patrones: " + soluciones.size() + " soluciones, " + estudiantes.size()
+				+ " estudiantes distintos; coinciden con la consulta 10: " + coinciden);
+
+		// Propiedad variable: las sentencias distintas de un sujeto
+		consulta = new ConsultaPatrones().patron(profesor, "?p", "?o");
+		System.out.println("Sentencias distintas de " + profesor + ": " + m.resolver(consulta).size()
+				+ " (consulta 2: " + m.sentenciasDistintasPorSujeto(profesor).size() + ")");
+
+		// Tres patrones, escritos en un orden poco selectivo
+		consulta = ConsultaPatrones.analizar("?t " + ub + "teacherOf> ?c . ?s " + ub + "takesCourse> ?c . ?s " + tipo + " " + ub + "GraduateStudent> .");
+		long t = System.nanoTime();
+		soluciones = m.resolver(consulta);
+		t = System.nanoTime() - t;
+		System.out.println("Estudiantes de posgrado con sus asignaturas y profesores: " + soluciones.size()
+				+ " soluciones en " + t / 1e6 + " ms");
+		if( !soluciones.isEmpty() ) {
+			ListaArray<String> primera = soluciones.iterator().next();
+			for( int v = 0; v < consulta.numVariables(); ++v )
+				System.out.println("  " + consulta.variable(v) + " = " + primera.get(v));
+		}
+		System.out.println("Constante inexistente: " + m.resolver(ConsultaPatrones.analizar("?x " + tipo + " <noExiste>")).size() + " soluciones");
+		System.out.println("Consulta sin patrones: " + m.resolver(new ConsultaPatrones()).size() + " solucin");
+		System.out.println();
+
+		// Errores de formato
+		String[] incorrectas = { "?x " + tipo, "?x " + tipo + " ?y ?z", "?x ?p ?y . ?p " + tipo + " ?z", "?x <sinCerrar ?y", "?x abc ?y" };
+		for( int i = 0; i < incorrectas.length; ++i ) {
+			try {
+				ConsultaPatrones.analizar(incorrectas[i]);
+				System.out.println("Error: se ha aceptado la consulta " + incorrectas[i]);
+			} catch( IllegalArgumentException ex ) {
+				System.out.println("Consulta rechazada: " + ex.getMessage());
+			}
+		}
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+}
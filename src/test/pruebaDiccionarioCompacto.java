@@ -0,0 +1,56 @@
+package test;
+
+import estructurasDeDatos.DiccionarioCompacto;
+import estructurasDeDatos.ListaArray;
+import estructurasDeDatos.Trie;
+
+/**
+ * Casos de prueba para la estructura de diccionario compacto
+ */
+public class pruebaDiccionarioCompacto {
+
+	public static void main(String[] args) {
+		String[] palabras = { "galletas", "hola", "galleta", "holi", "gallo", "paco", "<http://ejemplo.org/a>",
+				"<http://ejemplo.org/b>", "\"ao\"", "\"aadir\"", "\"rbol\"", "zeta", "", "g", "gal", "galletn",
+				"<http://ejemplo.org/ab>", "<http://ejemplo.org/>", "\"\uD83D\uDE00\"", "\"\uFF21\"" };
+		ListaArray<String> strings = new ListaArray<String>();
+		Trie trie = new Trie();
+		for( int i = 0; i < palabras.length; ++i ) {
+			trie.insertar(palabras[i], i);
+			strings.insertLast(palabras[i]);
+		}
+
+		// Construir el diccionario (ocupa dos bloques)
+		System.out.println("Construyendo el diccionario con " + palabras.length + " strings...");
+		DiccionarioCompacto prueba = new DiccionarioCompacto(strings, trie.recorrerEnProfundidad());
+		System.out.println("Nmero de elementos: " + prueba.size());
+		System.out.println("Bytes codificados: " + prueba.bytesCodificados());
+		System.out.println();
+
+		// Obtener valores y strings
+		boolean correcto = true;
+		for( int i = 0; i < palabras.length; ++i )
+			if( prueba.obtenerValor(palabras[i]) != i || !prueba.obtenerString(i).equals(palabras[i]) )
+				correcto = false;
+		System.out.println("Todos los strings se codifican y descodifican correctamente: " + correcto);
+		System.out.println("Valor del string gallo: " + prueba.obtenerValor("gallo"));
+		System.out.println("Valor del string gall: " + prueba.obtenerValor("gall"));
+		System.out.println("Valor del string miguel: " + prueba.obtenerValor("miguel"));
+		System.out.println("Valor del string aaa: " + prueba.obtenerValor("aaa"));
+		System.out.println("String del valor 9: " + prueba.obtenerString(9));
+		System.out.println();
+
+		// Recorrer en orden lexicogrfico
+		System.out.println("Strings por orden alfabtico:");
+		for( int p = 0; p < prueba.size(); ++p ) {
+			System.out.print( prueba.obtenerString(prueba.valorEnPosicion(p)) + " " );
+			if( p > 0 && prueba.obtenerString(prueba.valorEnPosicion(p-1)).compareTo(prueba.obtenerString(prueba.valorEnPosicion(p))) >= 0 )
+				correcto = false;
+			if( prueba.posicionDeValor(prueba.valorEnPosicion(p)) != p )
+				correcto = false;
+		}
+		System.out.println();
+		System.out.println("El orden coincide con String.compareTo: " + correcto);
+	}
+
+}
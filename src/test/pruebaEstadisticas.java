@@ -0,0 +1,102 @@
+package test;
+
+import java.util.Iterator;
+import estructurasDeDatos.ListaArray;
+import estructurasDeDatos.ListaEnteros;
+import estructurasDeDatos.Trie;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.EstadisticasPropiedad;
+
+/**
+ * Casos de prueba para las estadsticas del almacn:
+ * las compara con las que se obtienen contando directamente las sentencias que devuelve el almacn.
+ */
+public class pruebaEstadisticas {
+
+	public static void main(String[] args) {
+		Almacen m = Almacen.cargar( (args.length > 0) ? args[0] : "data/in/A2.txt" );
+		if( m == null )
+			return;
+		System.out.println("Prueba de las estadsticas del almacn.");
+		System.out.println("----------------------------------------");
+
+		// Cuentas directas: sentencias por propiedad, y aristas por (propiedad, sujeto) y por (propiedad, objeto)
+		Trie propiedades = new Trie(), salidas = new Trie(), entradas = new Trie(), distintas = new Trie();
+		ListaArray<String> clavesSalida = new ListaArray<String>(), clavesEntrada = new ListaArray<String>();
+		ListaEnteros sentencias = new ListaEnteros(), aristasSalida = new ListaEnteros(), aristasEntrada = new ListaEnteros();
+		String[] partes;
+		int p, n;
+		Iterator<String> recorrido = m.recorrerSentencias();
+		while( recorrido.hasNext() ) {
+			String sentencia = recorrido.next();
+			partes = sentencia.split(" ", 3);
+			p = propiedades.insertar(partes[1], propiedades.size());
+			if( p == sentencias.size() )
+				sentencias.insertLast(0);
+			sentencias.replace(p, sentencias.get(p) + 1);
+			// Las repeticiones de una sentencia solo cuentan como una arista
+			n = distintas.size();
+			if( distintas.insertar(sentencia, n) != n )
+				continue;
+			contar(salidas, clavesSalida, aristasSalida, partes[1] + " " + partes[0]);
+			contar(entradas, clavesEntrada, aristasEntrada, partes[1] + " " + partes[2]);
+		}
+
+		boolean correcto = true;
+		ListaArray<String> nombres = m.propiedadesDistintas();
+		for( int i = 0; i < nombres.size(); ++i ) {
+			EstadisticasPropiedad e = m.estadisticasPropiedad(nombres.get(i));
+			System.out.println(e);
+			// Sujetos, objetos, aristas y mximos de la propiedad segn las cuentas directas
+			int[] salida = resumir(clavesSalida, aristasSalida, nombres.get(i)), entrada = resumir(clavesEntrada, aristasEntrada, nombres.get(i));
+			correcto &= e.sentencias() == sentencias.get(propiedades.obtenerValor(nombres.get(i)))
+					&& e.aristas() == salida[0] && e.aristas() == entrada[0]
+					&& e.sujetos() == salida[1] && e.objetos() == entrada[1]
+					&& e.maximoSalida() == salida[2] && e.maximoEntrada() == entrada[2];
+		}
+		System.out.println();
+		System.out.println("Las estadsticas coinciden con las cuentas directas: " + correcto);
+		System.out.println("Propiedad inexistente: " + m.estadisticasPropiedad("<noExiste>"));
+		System.out.println();
+
+		// Histogramas de grados
+		int[] histogramaSalida = m.histogramaGradoSalida(), histogramaEntrada = m.histogramaGradoEntrada();
+		int nodosSalida = 0, nodosEntrada = 0;
+		System.out.println("Grado       Nodos (salida)  Nodos (entrada)");
+		for( int k = 0; k < histogramaSalida.length; ++k ) {
+			nodosSalida += histogramaSalida[k];
+			nodosEntrada += histogramaEntrada[k];
+			if( histogramaSalida[k] > 0 || histogramaEntrada[k] > 0 )
+				System.out.println(String.format("%-11s %15d %16d", (k == 0) ? "0" : ((1 << (k-1)) + "-" + ((1L << k) - 1)),
+						histogramaSalida[k], histogramaEntrada[k]));
+		}
+		System.out.println("Los dos histogramas cuentan los mismos nodos: " + (nodosSalida == nodosEntrada));
+		System.out.println("Entidades con al menos 100 sentencias distintas como sujeto u objeto: " + m.entidadesConGradoMinimo(100).size());
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+	// Suma una arista a la cuenta de la clave
+	private static void contar(Trie claves, ListaArray<String> nombres, ListaEnteros cuentas, String clave) {
+		int c = claves.insertar(clave, claves.size());
+		if( c == cuentas.size() ) {
+			nombres.insertLast(clave);
+			cuentas.insertLast(0);
+		}
+		cuentas.replace(c, cuentas.get(c) + 1);
+	}
+
+	// Devuelve {aristas, claves distintas, mximo por clave} de las claves de una propiedad
+	private static int[] resumir(ListaArray<String> nombres, ListaEnteros cuentas, String propiedad) {
+		int[] resumen = new int[3];
+		for( int c = 0; c < nombres.size(); ++c ) {
+			if( nombres.get(c).startsWith(propiedad + " ") ) {
+				resumen[0] += cuentas.get(c);
+				resumen[1]++;
+				resumen[2] = Math.max(resumen[2], cuentas.get(c));
+			}
+		}
+		return resumen;
+	}
+
+}
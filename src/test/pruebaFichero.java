@@ -2,6 +2,9 @@ package test;
 
 import gestionDeSentencias.Fichero;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 /**
  * Casos de prueba para los mtodos de acceso a ficheros
@@ -21,6 +24,10 @@ public class pruebaFichero {
 			System.out.println(Fichero.leerSentencia());
 			Fichero.cerrar();
 			
+			// El fichero est en UTF-8, sea cual sea la codificacin por defecto
+			byte[] esperado = ("Dani no mola mazo, Mati s." + System.getProperty("line.separator")).getBytes("UTF-8");
+			System.out.println("Escrito en UTF-8: " + Arrays.equals(esperado, Files.readAllBytes(Paths.get("data/pruebaFichero.txt"))));
+			
 		} catch (IOException e) {
 			System.out.println("Error al acceder al fichero especificado.");
 		}
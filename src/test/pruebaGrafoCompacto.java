@@ -0,0 +1,52 @@
+package test;
+
+import estructurasDeDatos.GrafoCompacto;
+
+/**
+ * Casos de prueba para la estructura de grafo compacto
+ */
+public class pruebaGrafoCompacto {
+
+	public static void main(String[] args) {
+		// Aristas (origen, propiedad, destino, repeticiones)
+		int[] origen = {0, 2, 0, 1, 2};
+		int[] propiedad = {0, 1, 1, 0, 0};
+		int[] destino = {1, 0, 2, 2, 1};
+		int[] repeticiones = {1, 1, 3, 1, 2};
+		System.out.println("Construyendo el grafo con las aristas: 0-0->1, 2-1->0, 0-1->2 (x3), 1-0->2, 2-0->1 (x2)");
+		GrafoCompacto grafo = new GrafoCompacto(4, 5, origen, propiedad, destino, repeticiones);
+		System.out.println("Nmero de nodos: " + grafo.numNodos() + ", nmero de aristas: " + grafo.numAristas());
+		System.out.println();
+		
+		// Recorrer las aristas salientes y entrantes de cada nodo
+		for( int v = 0; v < grafo.numNodos(); ++v ) {
+			System.out.print("Nodo " + v + ", salientes (" + grafo.gradoSaliente(v) + "): ");
+			for( int i = grafo.inicioSalientes(v); i < grafo.finSalientes(v); ++i )
+				System.out.print("-" + grafo.propiedadSaliente(i) + "->" + grafo.destinoSaliente(i) + " (x" + grafo.repeticionesSaliente(i) + ") ");
+			System.out.println();
+			System.out.print("Nodo " + v + ", entrantes (" + grafo.gradoEntrante(v) + "): ");
+			for( int i = grafo.inicioEntrantes(v); i < grafo.finEntrantes(v); ++i )
+				System.out.print(grafo.origenEntrante(i) + "-" + grafo.propiedadEntrante(i) + "-> (x" + grafo.repeticionesEntrante(i) + ") ");
+			System.out.println();
+		}
+		System.out.println();
+		
+		// Recorrer solo las aristas de una propiedad
+		int grupo;
+		for( int v = 0; v < grafo.numNodos(); ++v ) {
+			System.out.print("Nodo " + v + ", salientes con propiedad 0: ");
+			grupo = grafo.grupoSalientes(v, 0);
+			if( grupo != -1 )
+				for( int i = grafo.inicioGrupoSalientes(grupo); i < grafo.finGrupoSalientes(grupo); ++i )
+					System.out.print("->" + grafo.destinoSaliente(grafo.aristaAgrupadaSaliente(i)) + " ");
+			System.out.println();
+			System.out.print("Nodo " + v + ", entrantes con propiedad 1: ");
+			grupo = grafo.grupoEntrantes(v, 1);
+			if( grupo != -1 )
+				for( int i = grafo.inicioGrupoEntrantes(grupo); i < grafo.finGrupoEntrantes(grupo); ++i )
+					System.out.print(grafo.origenEntrante(grafo.aristaAgrupadaEntrante(i)) + "-> ");
+			System.out.println();
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import estructurasDeDatos.GrafoCompacto;
+import estructurasDeDatos.GrafoModificable;
+
+/**
+ * Casos de prueba para la estructura de grafo compacto modificable:
+ * hace cambios al azar y, tras cada tanda, compara la vista con el grafo construido desde cero con las mismas aristas
+ * (las entrantes y los grupos de la vista, sin tener en cuenta su orden) y con el grafo compactado.
+ */
+public class pruebaGrafoModificable {
+
+	private static final int propiedades = 4;
+
+	public static void main(String[] args) {
+		Random azar = new Random(7);
+		// Aristas de cada nodo en el orden del grafo: {propiedad, destino, repeticiones}
+		ArrayList<ArrayList<int[]>> aristas = new ArrayList<ArrayList<int[]>>();
+		for( int v = 0; v < 30; ++v ) {
+			aristas.add(new ArrayList<int[]>());
+			for( int i = azar.nextInt(6); i > 0; --i )
+				cambiar(aristas, v, azar.nextInt(propiedades), azar.nextInt(30), 1 + azar.nextInt(3));
+		}
+		GrafoModificable grafo = new GrafoModificable(construir(aristas));
+		System.out.println("Prueba del grafo modificable.");
+		System.out.println("----------------------------------------");
+		System.out.println("Sin cambios, igual que el original: " + iguales(grafo, construir(aristas), true));
+
+		int origen, propiedad, destino, veces;
+		boolean correcto = true;
+		for( int tanda = 1; tanda <= 20; ++tanda ) {
+			for( int i = 0; i < 25; ++i ) {
+				// Nodos nuevos de vez en cuando
+				if( azar.nextInt(10) == 0 )
+					aristas.add(new ArrayList<int[]>());
+				while( grafo.numNodos() < aristas.size() )
+					grafo.anadirNodo();
+				origen = azar.nextInt(aristas.size());
+				propiedad = azar.nextInt(propiedades);
+				destino = azar.nextInt(aristas.size());
+				// Con la misma probabilidad se aade, se elimina o se cambia el nmero de repeticiones
+				veces = (azar.nextInt(3) == 0) ? 0 : 1 + azar.nextInt(3);
+				if( grafo.repeticiones(origen, propiedad, destino) == 0 && veces == 0 )
+					continue;
+				grafo.cambiarRepeticiones(origen, propiedad, destino, veces);
+				cambiar(aristas, origen, propiedad, destino, veces);
+			}
+			GrafoCompacto esperado = construir(aristas);
+			correcto &= iguales(grafo, esperado, false) && iguales(grafo.compactar(), esperado, true);
+		}
+		System.out.println("Tras 20 tandas de cambios, igual que el construido desde cero: " + correcto);
+		System.out.println("Nodos: " + grafo.numNodos() + ", aristas: " + grafo.numAristas() + ", aristas cambiadas: " + grafo.aristasCambiadas());
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+	// Cambia las repeticiones de una arista: si es nueva va al final de las del origen, y si se queda sin ellas
+	// desaparece y la ltima del origen ocupa su lugar
+	private static void cambiar(ArrayList<ArrayList<int[]>> aristas, int origen, int propiedad, int destino, int veces) {
+		ArrayList<int[]> salientes = aristas.get(origen);
+		for( int i = 0; i < salientes.size(); ++i ) {
+			if( salientes.get(i)[0] == propiedad && salientes.get(i)[1] == destino ) {
+				if( veces == 0 ) {
+					int[] ultima = salientes.remove(salientes.size() - 1);
+					if( i < salientes.size() )
+						salientes.set(i, ultima);
+				} else
+					salientes.get(i)[2] = veces;
+				return;
+			}
+		}
+		if( veces > 0 )
+			salientes.add(new int[] {propiedad, destino, veces});
+	}
+
+	// Grafo compacto con las aristas de cada nodo, en ese orden
+	private static GrafoCompacto construir(ArrayList<ArrayList<int[]>> aristas) {
+		int n = 0;
+		for( ArrayList<int[]> salientes : aristas )
+			n += salientes.size();
+		int[] origen = new int[n], propiedad = new int[n], destino = new int[n], repeticiones = new int[n];
+		int k = 0;
+		for( int v = 0; v < aristas.size(); ++v ) {
+			for( int[] arista : aristas.get(v) ) {
+				origen[k] = v;
+				propiedad[k] = arista[0];
+				destino[k] = arista[1];
+				repeticiones[k++] = arista[2];
+			}
+		}
+		return new GrafoCompacto(aristas.size(), n, origen, propiedad, destino, repeticiones);
+	}
+
+	// Comprueba si dos grafos tienen las mismas aristas salientes (en el mismo orden) y entrantes, y los mismos grupos;
+	// las entrantes y los grupos, en el mismo orden solo si se pide
+	private static boolean iguales(GrafoCompacto a, GrafoCompacto b, boolean orden) {
+		if( a.numNodos() != b.numNodos() || a.numAristas() != b.numAristas() )
+			return false;
+		for( int v = 0; v < a.numNodos(); ++v ) {
+			if( a.gradoSaliente(v) != b.gradoSaliente(v) || a.gradoEntrante(v) != b.gradoEntrante(v) )
+				return false;
+			for( int i = 0; i < a.gradoSaliente(v); ++i ) {
+				int x = a.inicioSalientes(v) + i, y = b.inicioSalientes(v) + i;
+				if( a.propiedadSaliente(x) != b.propiedadSaliente(y) || a.destinoSaliente(x) != b.destinoSaliente(y)
+						|| a.repeticionesSaliente(x) != b.repeticionesSaliente(y)
+						|| a.repeticiones(v, a.propiedadSaliente(x), a.destinoSaliente(x)) != b.repeticionesSaliente(y) )
+					return false;
+			}
+			long[] entrantesA = new long[a.gradoEntrante(v)], entrantesB = new long[b.gradoEntrante(v)];
+			for( int i = 0; i < a.gradoEntrante(v); ++i ) {
+				entrantesA[i] = clave(a.propiedadEntrante(a.inicioEntrantes(v) + i), a.origenEntrante(a.inicioEntrantes(v) + i), a.repeticionesEntrante(a.inicioEntrantes(v) + i));
+				entrantesB[i] = clave(b.propiedadEntrante(b.inicioEntrantes(v) + i), b.origenEntrante(b.inicioEntrantes(v) + i), b.repeticionesEntrante(b.inicioEntrantes(v) + i));
+			}
+			if( !mismos(entrantesA, entrantesB, orden) )
+				return false;
+			for( int p = 0; p < propiedades; ++p )
+				if( !mismoGrupo(a, b, v, p, true, orden) || !mismoGrupo(a, b, v, p, false, orden) )
+					return false;
+		}
+		return true;
+	}
+
+	// Comprueba si el grupo de aristas de un nodo con una propiedad tiene los mismos extremos en los dos grafos
+	private static boolean mismoGrupo(GrafoCompacto a, GrafoCompacto b, int nodo, int propiedad, boolean salientes, boolean orden) {
+		int ga = salientes ? a.grupoSalientes(nodo, propiedad) : a.grupoEntrantes(nodo, propiedad);
+		int gb = salientes ? b.grupoSalientes(nodo, propiedad) : b.grupoEntrantes(nodo, propiedad);
+		if( ga == -1 || gb == -1 )
+			return ga == gb;
+		int ia = salientes ? a.inicioGrupoSalientes(ga) : a.inicioGrupoEntrantes(ga), fa = salientes ? a.finGrupoSalientes(ga) : a.finGrupoEntrantes(ga);
+		int ib = salientes ? b.inicioGrupoSalientes(gb) : b.inicioGrupoEntrantes(gb), fb = salientes ? b.finGrupoSalientes(gb) : b.finGrupoEntrantes(gb);
+		if( fa - ia != fb - ib )
+			return false;
+		long[] extremosA = new long[fa - ia], extremosB = new long[fb - ib];
+		for( int i = 0; i < fa - ia; ++i ) {
+			int x = salientes ? a.aristaAgrupadaSaliente(ia + i) : a.aristaAgrupadaEntrante(ia + i);
+			int y = salientes ? b.aristaAgrupadaSaliente(ib + i) : b.aristaAgrupadaEntrante(ib + i);
+			if( x < (salientes ? a.inicioSalientes(nodo) : a.inicioEntrantes(nodo)) || x >= (salientes ? a.finSalientes(nodo) : a.finEntrantes(nodo))
+					|| (salientes ? a.propiedadSaliente(x) : a.propiedadEntrante(x)) != propiedad )
+				return false;
+			extremosA[i] = salientes ? a.destinoSaliente(x) : a.origenEntrante(x);
+			extremosB[i] = salientes ? b.destinoSaliente(y) : b.origenEntrante(y);
+		}
+		return mismos(extremosA, extremosB, orden);
+	}
+
+	// Comprueba si dos arrays tienen los mismos elementos, en el mismo orden solo si se pide
+	private static boolean mismos(long[] a, long[] b, boolean orden) {
+		if( !orden ) {
+			Arrays.sort(a);
+			Arrays.sort(b);
+		}
+		return Arrays.equals(a, b);
+	}
+
+	// Una arista entrante como un nico entero
+	private static long clave(int propiedad, int origen, int repeticiones) {
+		return ((long) propiedad << 40) | ((long) origen << 8) | repeticiones;
+	}
+
+}
@@ -0,0 +1,62 @@
+package test;
+
+import gestionDeSentencias.Fichero;
+import gestionDeSentencias.LectorProyectado;
+
+import java.io.*;
+import java.util.StringTokenizer;
+
+/**
+ * Casos de prueba para el lector de sentencias proyectado en memoria.
+ * Compara sus partes con las que se obtienen con Fichero y StringTokenizer.
+ */
+public class pruebaLectorProyectado {
+
+	public static void main(String[] args) {
+		try {
+			// Fichero con distintos finales de lnea, separadores, lneas en blanco y caracteres no ASCII
+			Writer escritura = new OutputStreamWriter( new FileOutputStream("data/pruebaLector.txt"), "UTF-8" );
+			escritura.write("<a> <b> <c> .\n");
+			escritura.write("<d>\t<e>  \"cancin\" .\r\n");
+			escritura.write("\n");
+			escritura.write("<f> <g> \"\uD83D\uDE00\" .\r");
+			escritura.write("   <h> <i> <j>");
+			escritura.close();
+			comparar("data/pruebaLector.txt");
+			new File("data/pruebaLector.txt").delete();
+			
+			// Fichero de datos
+			comparar( (args.length > 0) ? args[0] : "data/in/A2.txt" );
+		} catch (IOException e) {
+			System.out.println("Error al acceder al fichero especificado.");
+		}
+	}
+	
+	// Lee el fichero con los dos mtodos y muestra si coinciden todas las partes de las sentencias
+	private static void comparar(String fichero) throws IOException {
+		LectorProyectado lector = new LectorProyectado(fichero);
+		BufferedReader lectura = new BufferedReader( new InputStreamReader( new FileInputStream(fichero), "UTF-8" ) );
+		StringTokenizer tokenizador;
+		String linea;
+		int sentencias = 0;
+		boolean iguales = true;
+		while( (linea = lectura.readLine()) != null ) {
+			tokenizador = new StringTokenizer(linea);
+			if( !tokenizador.hasMoreTokens() )
+				continue;  // El lector proyectado ignora las lneas en blanco
+			if( !lector.siguienteSentencia() ) {
+				iguales = false;
+				break;
+			}
+			iguales &= tokenizador.nextToken().equals(lector.sujeto().toString());
+			iguales &= tokenizador.nextToken().equals(lector.propiedad().toString());
+			iguales &= tokenizador.nextToken().contentEquals(lector.objeto());
+			sentencias++;
+		}
+		iguales &= !lector.siguienteSentencia();
+		lectura.close();
+		lector.cerrar();
+		System.out.println(fichero + ": " + sentencias + " sentencias, las partes coinciden: " + iguales);
+	}
+
+}
@@ -1,5 +1,7 @@
 package test;
 
+import java.util.Arrays;
+import java.util.Random;
 import estructurasDeDatos.ListaArray;
 
 /**
@@ -93,6 +95,23 @@ public class pruebaListaArray {
 		for( i = 0; i < lista.size(); ++i )
 			System.out.print(lista.get( indicesOrdenados.get(i) ) + " ");
 		System.out.println();
+		System.out.println();
+		
+		// Ordenacin estable de ndices, secuencial y en paralelo
+		System.out.println("Nueva lista: 200000 enteros aleatorios entre 0 y 999");
+		lista.removeAll();
+		Random aleatorio = new Random(14);
+		for( i = 0; i < 200000; ++i )
+			lista.insertLast(aleatorio.nextInt(1000));
+		int[] secuencial = lista.ordenarIndices(), paralelo = lista.ordenarIndicesParalelo();
+		boolean estable = true;
+		for( i = 1; i < secuencial.length; ++i ) {
+			int comp = lista.get(secuencial[i-1]).compareTo(lista.get(secuencial[i]));
+			if( comp > 0 || (comp == 0 && secuencial[i-1] > secuencial[i]) )
+				estable = false;
+		}
+		System.out.println("Los ndices quedan en orden y los iguales en su orden original: " + estable);
+		System.out.println("La ordenacin en paralelo da el mismo resultado: " + Arrays.equals(secuencial, paralelo));
 		
 		System.out.println("----------------------------------------");
 		System.out.println("Fin de la prueba.");
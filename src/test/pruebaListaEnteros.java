@@ -0,0 +1,75 @@
+package test;
+
+import estructurasDeDatos.ListaEnteros;
+import estructurasDeDatos.ListaEnterosLargos;
+
+/**
+ * Casos de prueba para los vectores de enteros y de enteros largos
+ */
+public class pruebaListaEnteros {
+
+	public static void main(String[] args) {
+		System.out.println("Prueba del vector de enteros.");
+		System.out.println("----------------------------------------");
+		ListaEnteros lista = new ListaEnteros(2);
+		int i;
+
+		// Insercin al final, una a una y en bloque
+		System.out.println("Insertar elementos al final: 3, 7, 10, 16");
+		lista.insertLast(3);
+		lista.insertLast(7);
+		lista.insertAll(new int[] { 10, 16 }, 0, 2);
+		System.out.print("La lista queda as: ");
+		for( i = 0; i < lista.size(); ++i )
+			System.out.print(lista.get(i) + " ");
+		System.out.println();
+		System.out.println("Aadir la lista a s misma y sustituir el primer elemento por 25.");
+		lista.insertAll(lista);
+		lista.replace(0, 25);
+		System.out.print("La lista queda as: ");
+		for( i = 0; i < lista.size(); ++i )
+			System.out.print(lista.get(i) + " ");
+		System.out.println(); System.out.println();
+
+		// Ordenacin y conversin en array
+		System.out.println("Ordenar la lista y recortar su capacidad.");
+		lista.sort();
+		lista.trim();
+		System.out.print("Lista en forma de array: ");
+		int[] array = lista.toArray();
+		for( i = 0; i < array.length; ++i )
+			System.out.print(array[i] + " ");
+		System.out.println(); System.out.println();
+
+		// Acceso fuera de rango
+		try {
+			lista.get(lista.size());
+			System.out.println("Error: se ha ledo fuera del vector.");
+		} catch( IndexOutOfBoundsException e ) {
+			System.out.println("Acceso fuera de rango: " + e.getMessage());
+		}
+
+		// Eliminar elementos
+		lista.removeLast();
+		System.out.println("Tamao tras eliminar el ltimo elemento: " + lista.size());
+		lista.removeAll();
+		System.out.println("La lista es vaca tras eliminar todos? " + lista.isEmpty());
+		System.out.println();
+
+		// Vector de enteros largos
+		System.out.println("Prueba del vector de enteros largos: 1e12, -5, 3e10");
+		ListaEnterosLargos largos = new ListaEnterosLargos();
+		largos.insertLast(1000000000000L);
+		largos.insertLast(-5L);
+		largos.insertLast(30000000000L);
+		largos.sort();
+		System.out.print("Elementos en orden: ");
+		for( i = 0; i < largos.size(); ++i )
+			System.out.print(largos.get(i) + " ");
+		System.out.println();
+
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+}
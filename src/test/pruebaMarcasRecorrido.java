@@ -0,0 +1,53 @@
+package test;
+
+import estructurasDeDatos.MarcasRecorrido;
+
+/**
+ * Casos de prueba para la estructura de marcas de recorrido
+ */
+public class pruebaMarcasRecorrido {
+
+	public static void main(String[] args) {
+		System.out.println("Prueba de las marcas de recorrido con 10 elementos.");
+		System.out.println("----------------------------------------");
+		MarcasRecorrido marcas = new MarcasRecorrido(10);
+		int i;
+
+		// Primer recorrido
+		System.out.println("Primer recorrido: se marcan 2, 3 y 7");
+		marcas.marcar(2);
+		marcas.marcar(3);
+		marcas.marcar(7);
+		System.out.print("Elementos marcados: ");
+		for( i = 0; i < marcas.size(); ++i )
+			if( marcas.marcado(i) )
+				System.out.print(i + " ");
+		System.out.println(); System.out.println();
+
+		// Segundo recorrido: las marcas anteriores desaparecen sin borrar el array
+		System.out.println("Segundo recorrido: se limpian las marcas y se marca 3");
+		marcas.limpiar();
+		marcas.marcar(3);
+		System.out.print("Elementos marcados: ");
+		for( i = 0; i < marcas.size(); ++i )
+			if( marcas.marcado(i) )
+				System.out.print(i + " ");
+		System.out.println(); System.out.println();
+
+		// Muchos recorridos seguidos
+		System.out.println("Se hacen un milln de recorridos, marcando en cada uno el elemento (recorrido % 10).");
+		boolean correcto = true;
+		for( int r = 0; r < 1000000; ++r ) {
+			marcas.limpiar();
+			marcas.marcar(r % 10);
+			for( i = 0; i < marcas.size(); ++i )
+				if( marcas.marcado(i) != (i == r % 10) )
+					correcto = false;
+		}
+		System.out.println("En cada recorrido solo estaba marcado su elemento: " + correcto);
+
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+}
@@ -0,0 +1,178 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import estructurasDeDatos.ListaArray;
+import estructurasDeDatos.ListaEnlazada;
+import gestionDeSentencias.Almacen;
+import gestionDeSentencias.Fichero;
+
+/**
+ * Casos de prueba para la insercin y eliminacin de sentencias:
+ * modifica un almacn y lo compara con el que se carga de un fichero con las mismas modificaciones.
+ */
+public class pruebaModificacion {
+
+	private static final String ub = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#",
+			tipo = "<http://www.w3.org/1999/02/22-rdf-syntax-ns#type>";
+
+	public static void main(String[] args) throws IOException {
+		String fichero = (args.length > 0) ? args[0] : "data/in/A2.txt", modificado = "data/out/M.txt";
+		Almacen m = Almacen.cargar(fichero);
+		if( m == null )
+			return;
+		String profesor = "<http://www.Department0.University0.edu/FullProfessor0>";
+		System.out.println("Prueba de la insercin y eliminacin de sentencias.");
+		System.out.println("----------------------------------------");
+
+		// Sentencias del fichero, en orden
+		ListaArray<String> lineas = new ListaArray<String>();
+		Fichero entrada = new Fichero(fichero, false, false);
+		for( String linea = entrada.leer(); linea != null; linea = entrada.leer() )
+			lineas.insertLast(linea);
+		entrada.close();
+
+		// Primera tanda: repeticiones de sentencias que ya estn, y entidades nuevas con propiedades conocidas
+		// y con una propiedad nueva. El almacn debe ser igual que el del fichero con las sentencias al final
+		ListaArray<String> nuevas = new ListaArray<String>(), eliminadas = new ListaArray<String>();
+		for( int i = 0; i < 100 && i < lineas.size(); ++i )
+			nuevas.insertLast(lineas.get(i));
+		for( int i = 0; i < 50; ++i ) {
+			String estudiante = "<http://www.ejemplo.edu/Estudiante" + i + ">";
+			nuevas.insertLast(estudiante + " " + tipo + " " + ub + "GraduateStudent> .");
+			nuevas.insertLast(estudiante + " " + ub + "takesCourse> <http://www.Department0.University0.edu/GraduateCourse" + (i % 5) + "> .");
+			nuevas.insertLast(estudiante + " <http://www.ejemplo.edu/apodo> \"e" + i + "\" .");
+		}
+		long t = System.nanoTime();
+		int insertadas = m.insertarSentencias(recorrer(nuevas));
+		int quitadas = m.eliminarSentencias(recorrer(eliminadas));
+		t = System.nanoTime() - t;
+		System.out.println("Insertadas " + insertadas + " y eliminadas " + quitadas + " sentencias en " + t / 1e6 + " ms");
+		boolean inexistente = m.eliminar("<noExiste>", tipo, "<noExiste>");
+		t = System.nanoTime();
+		m.propiedadesDistintas();
+		t = System.nanoTime() - t;
+		System.out.println("Primera consulta tras los cambios (no los aplica): " + t / 1e6 + " ms");
+		System.out.println("Eliminar una sentencia que no est: " + inexistente);
+		comparar(m, lineas, nuevas, eliminadas, modificado, profesor, true);
+
+		// Segunda tanda, sobre el almacn ya modificado: se eliminan sentencias del fichero y todas las de un
+		// sujeto nuevo, y se aaden otras. Las entidades conservan su ndice aunque desaparezca la sentencia en la
+		// que aparecieron por primera vez, as que los resultados son los mismos pero pueden salir en otro orden
+		ListaArray<String> otras = new ListaArray<String>(), otrasEliminadas = new ListaArray<String>();
+		for( int i = 0; i < 5; ++i )
+			otras.insertLast("<http://www.ejemplo.edu/Estudiante" + i + "> " + ub + "advisor> " + profesor + " .");
+		String estudiante = "<http://www.ejemplo.edu/Estudiante7>";
+		otrasEliminadas.insertLast(estudiante + " " + tipo + " " + ub + "GraduateStudent> .");
+		otrasEliminadas.insertLast(estudiante + " " + ub + "takesCourse> <http://www.Department0.University0.edu/GraduateCourse2> .");
+		otrasEliminadas.insertLast(estudiante + " <http://www.ejemplo.edu/apodo> \"e7\" .");
+		for( int i = 0; i < 200 && i < lineas.size(); ++i )
+			otrasEliminadas.insertLast(lineas.get(i));
+		m.insertarSentencias(recorrer(otras));
+		m.eliminarSentencias(recorrer(otrasEliminadas));
+		for( int i = 0; i < otras.size(); ++i )
+			nuevas.insertLast(otras.get(i));
+		for( int i = 0; i < otrasEliminadas.size(); ++i )
+			eliminadas.insertLast(otrasEliminadas.get(i));
+		comparar(m, lineas, nuevas, eliminadas, modificado, profesor, false);
+
+		// Un almacn congelado no puede modificarse
+		m.congelar();
+		try {
+			m.insertar(profesor, tipo, ub + "Professor>");
+			System.out.println("Error: se ha modificado un almacn congelado");
+		} catch( IllegalStateException e ) {
+			System.out.println("Almacn congelado: " + e.getMessage());
+		}
+		new File(modificado).delete();
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+	// Escribe el fichero con las sentencias originales, las nuevas al final y sin la ltima aparicin de cada
+	// eliminada, lo carga y compara el almacn con el modificado (los resultados en el mismo orden o no)
+	private static void comparar(Almacen m, ListaArray<String> lineas, ListaArray<String> nuevas, ListaArray<String> eliminadas,
+			String modificado, String profesor, boolean mismoOrden) throws IOException {
+		ListaArray<String> todas = new ListaArray<String>(), quedan = new ListaArray<String>();
+		for( int i = 0; i < lineas.size(); ++i )
+			todas.insertLast(lineas.get(i));
+		for( int i = 0; i < nuevas.size(); ++i )
+			todas.insertLast(nuevas.get(i));
+		boolean[] quitada = new boolean[todas.size()];
+		for( int i = 0; i < eliminadas.size(); ++i ) {
+			for( int j = todas.size() - 1; j >= 0; --j ) {
+				if( !quitada[j] && todas.get(j).equals(eliminadas.get(i)) ) {
+					quitada[j] = true;
+					break;
+				}
+			}
+		}
+		for( int j = 0; j < todas.size(); ++j )
+			if( !quitada[j] )
+				quedan.insertLast(todas.get(j));
+		Fichero salida = new Fichero(modificado, true, false);
+		salida.escribir(recorrer(quedan));
+		salida.close();
+		Almacen esperado = Almacen.cargar(modificado);
+
+		// Primero las consultas que usan los cambios sin aplicarlos, y despus las ordenadas, que los aplican
+		String estudiante = "<http://www.ejemplo.edu/Estudiante3>";
+		System.out.println("Mismas sentencias: " + iguales(m.recorrerSentencias(), esperado.recorrerSentencias(), mismoOrden));
+		System.out.println("Mismas propiedades: " + iguales(m.recorrerPropiedadesDistintas(), esperado.recorrerPropiedadesDistintas(), mismoOrden));
+		System.out.println("Mismas entidades sujeto y objeto: " + iguales(m.recorrerEntidadesSujetoObjeto(), esperado.recorrerEntidadesSujetoObjeto(), mismoOrden));
+		System.out.println("Mismas clases de " + estudiante + ": " + iguales(m.recorrerClasesDe(estudiante), esperado.recorrerClasesDe(estudiante), mismoOrden));
+		System.out.println("Mismos estudiantes del profesor: " + iguales(m.recorrerEstudiantesDelProfesor(profesor), esperado.recorrerEstudiantesDelProfesor(profesor), mismoOrden));
+		System.out.println("Mismas estadsticas de takesCourse: " + m.estadisticasPropiedad(ub + "takesCourse>").toString()
+				.equals(esperado.estadisticasPropiedad(ub + "takesCourse>").toString()));
+		System.out.println("Mismas estadsticas de la propiedad nueva: " + m.estadisticasPropiedad("<http://www.ejemplo.edu/apodo>").toString()
+				.equals(esperado.estadisticasPropiedad("<http://www.ejemplo.edu/apodo>").toString()));
+		System.out.println("Mismos histogramas de grados: " + mismosGrados(m.histogramaGradoSalida(), esperado.histogramaGradoSalida())
+				+ " " + mismosGrados(m.histogramaGradoEntrada(), esperado.histogramaGradoEntrada()));
+		ListaEnlazada<String> clases = m.clasesDe(estudiante);
+		System.out.println("Clases de " + estudiante + ": " + clases.size());
+		System.out.println("Sentencias: " + m.sentenciasOrdenadas().size() + " (esperadas " + quedan.size() + ")");
+		System.out.println("Mismas sentencias ordenadas: " + iguales(m.recorrerSentenciasOrdenadas(), esperado.recorrerSentenciasOrdenadas(), true));
+		System.out.println();
+	}
+
+	// Compara dos histogramas de grados salvo los nodos de grado 0: el almacn modificado conserva las entidades
+	// que se han quedado sin sentencias, y el cargado del fichero no las tiene
+	private static boolean mismosGrados(int[] a, int[] b) {
+		return Arrays.equals(Arrays.copyOfRange(a, 1, a.length), Arrays.copyOfRange(b, 1, b.length));
+	}
+
+	// Comprueba si dos recorridos devuelven los mismos elementos, en el mismo orden o en cualquiera
+	private static boolean iguales(Iterator<String> a, Iterator<String> b, boolean mismoOrden) {
+		ListaArray<String> elementosA = new ListaArray<String>(), elementosB = new ListaArray<String>();
+		while( a.hasNext() )
+			elementosA.insertLast(a.next());
+		while( b.hasNext() )
+			elementosB.insertLast(b.next());
+		if( elementosA.size() != elementosB.size() )
+			return false;
+		int[] ordenA = mismoOrden ? null : elementosA.ordenarIndices(), ordenB = mismoOrden ? null : elementosB.ordenarIndices();
+		for( int i = 0; i < elementosA.size(); ++i )
+			if( !elementosA.get(mismoOrden ? i : ordenA[i]).equals(elementosB.get(mismoOrden ? i : ordenB[i])) )
+				return false;
+		return true;
+	}
+
+	// Recorrido de los elementos de un vector
+	private static Iterator<String> recorrer(final ListaArray<String> lista) {
+		return new Iterator<String>() {
+			private int i = 0;
+			public boolean hasNext() {
+				return i < lista.size();
+			}
+			public String next() {
+				return lista.get(i++);
+			}
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+}
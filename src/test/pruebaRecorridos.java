@@ -0,0 +1,53 @@
+package test;
+
+import estructurasDeDatos.*;
+import gestionDeSentencias.Almacen;
+
+import java.util.Iterator;
+
+/**
+ * Casos de prueba para los recorridos perezosos de las consultas:
+ * comprueba que cada recorrido devuelve los mismos elementos, en el mismo orden, que la consulta correspondiente.
+ */
+public class pruebaRecorridos {
+
+	public static void main(String[] args) {
+		Almacen m = Almacen.cargar( (args.length > 0) ? args[0] : "data/in/A2.txt" );
+		if( m == null )
+			return;
+		String sujeto = "<http://swat.cse.lehigh.edu/onto/univ-bench.owl#AdministrativeStaff>",
+				clase = "<http://www.w3.org/2002/07/owl#ObjectProperty>",
+				profesor = "<http://www.Department0.University0.edu/FullProfessor0>",
+				universidad = "<http://www.University0.edu>";
+		
+		System.out.println("1)  " + iguales(m.sentenciasPorSujeto(sujeto), m.recorrerSentenciasPorSujeto(sujeto)));
+		System.out.println("2)  " + iguales(m.sentenciasDistintasPorSujeto(sujeto), m.recorrerSentenciasDistintasPorSujeto(sujeto)));
+		System.out.println("3)  " + iguales(m.propiedadesDistintas(), m.recorrerPropiedadesDistintas()));
+		System.out.println("4)  " + iguales(m.entidadesSujetoObjeto(), m.recorrerEntidadesSujetoObjeto()));
+		Almacen[] almacenes = { m, Almacen.cargar("data/in/A1.txt") };
+		System.out.println("5)  " + iguales(Almacen.entidadesSujetoEnTodos(almacenes), Almacen.recorrerEntidadesSujetoEnTodos(almacenes)));
+		System.out.println("6)  " + iguales(m.sentenciasOrdenadas(), m.recorrerSentenciasOrdenadas()));
+		System.out.println("7a) " + iguales(m.clasesDe(sujeto), m.recorrerClasesDe(sujeto)));
+		System.out.println("7b) " + iguales(m.superClasesDe(clase), m.recorrerSuperClasesDe(clase)));
+		System.out.println("8)  " + iguales(m.entidadesDeClase(clase), m.recorrerEntidadesDeClase(clase)));
+		System.out.println("10) " + iguales(m.estudiantesDelProfesor(profesor), m.recorrerEstudiantesDelProfesor(profesor)));
+		System.out.println("11) " + iguales(m.profesoresDeUniversidad(universidad), m.recorrerProfesoresDeUniversidad(universidad)));
+		System.out.println("Entidad inexistente: " + !m.recorrerClasesDe("<noExiste>").hasNext());
+	}
+	
+	// Comprueba que la lista y el recorrido contienen los mismos elementos en el mismo orden
+	private static boolean iguales(Iterable<String> lista, Iterator<String> recorrido) {
+		for( String elemento : lista )
+			if( !recorrido.hasNext() || !elemento.equals(recorrido.next()) )
+				return false;
+		return !recorrido.hasNext();
+	}
+	
+	private static boolean iguales(ListaArray<String> lista, Iterator<String> recorrido) {
+		for( int i = 0; i < lista.size(); ++i )
+			if( !recorrido.hasNext() || !lista.get(i).equals(recorrido.next()) )
+				return false;
+		return !recorrido.hasNext();
+	}
+
+}
@@ -0,0 +1,97 @@
+package test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import gestionDeSentencias.Almacen;
+
+/**
+ * Casos de prueba para el registro de cambios:
+ * modifica un almacn recuperado desde una copia, lo vuelve a recuperar (sin compactar, tras una escritura
+ * interrumpida y tras compactar) y comprueba que siempre tiene las mismas sentencias. Prueba copias de texto y binarias.
+ */
+public class pruebaRegistroCambios {
+
+	private static final String ub = "<http://www.lehigh.edu/~zhp2/2004/0401/univ-bench.owl#";
+
+	public static void main(String[] args) throws IOException {
+		Almacen original = Almacen.cargar( (args.length > 0) ? args[0] : "data/in/A2.txt" );
+		if( original == null )
+			return;
+		System.out.println("Prueba del registro de cambios.");
+		System.out.println("----------------------------------------");
+		original.descargar("data/out/R.txt");
+		original.guardarBinario("data/out/R.bin");
+		probar("data/out/R.txt", "data/out/R.log");
+		probar("data/out/R.bin", "data/out/R.log");
+		System.out.println("----------------------------------------");
+		System.out.println("Fin de la prueba.");
+	}
+
+	private static void probar(String copia, String registro) throws IOException {
+		System.out.println("Copia " + copia + ":");
+		new File(registro).delete();
+		Almacen m = Almacen.recuperar(copia, registro, 256);
+		if( m == null )
+			return;
+		// Cambios: estudiantes nuevos con asignaturas, y eliminacin de algunos de ellos
+		long t = System.nanoTime();
+		int operaciones = 0;
+		for( int i = 0; i < 2000; ++i ) {
+			String estudiante = "<http://www.ejemplo.edu/Estudiante" + i + ">";
+			m.insertar(estudiante, ub + "takesCourse>", "<http://www.Department0.University0.edu/Course" + (i % 10) + ">");
+			m.insertar(estudiante, ub + "memberOf>", "<http://www.Department0.University0.edu>");
+			operaciones += 2;
+			if( i % 3 == 0 ) {
+				m.eliminar(estudiante, ub + "memberOf>", "<http://www.Department0.University0.edu>");
+				operaciones++;
+			}
+		}
+		boolean confirmado = m.confirmarCambios();
+		t = System.nanoTime() - t;
+		System.out.println("  " + operaciones + " operaciones registradas y confirmadas en grupos de 256: " + t / 1e6 + " ms ("
+				+ confirmado + ")");
+		m.cerrarRegistro();
+
+		// Recuperar sin compactar: la copia ms el registro
+		t = System.nanoTime();
+		Almacen r = Almacen.recuperar(copia, registro);
+		t = System.nanoTime() - t;
+		System.out.println("  Recuperado con el registro (" + new File(registro).length() + " bytes) en " + t / 1e6 + " ms: "
+				+ iguales(m.recorrerSentencias(), r.recorrerSentencias()));
+
+		// Escritura interrumpida: una operacin a medias al final del registro se descarta
+		r.insertar("<http://www.ejemplo.edu/Otro>", ub + "takesCourse>", "<http://www.Department0.University0.edu/Course0>");
+		r.cerrarRegistro();
+		FileOutputStream interrumpido = new FileOutputStream(registro, true);
+		interrumpido.write("+ <http://www.ejemplo.edu/Incompleto> ".getBytes("UTF-8"));
+		interrumpido.close();
+		Almacen incompleto = Almacen.recuperar(copia, registro);
+		System.out.println("  Recuperado tras una escritura interrumpida: " + iguales(r.recorrerSentencias(), incompleto.recorrerSentencias())
+				+ ", sin la operacin a medias: " + incompleto.sentenciasPorSujeto("<http://www.ejemplo.edu/Incompleto>").isEmpty());
+
+		// Compactar: la copia pasa a tener todos los cambios y el registro queda vaco
+		t = System.nanoTime();
+		boolean compactado = incompleto.compactar();
+		t = System.nanoTime() - t;
+		incompleto.cerrarRegistro();
+		System.out.println("  Compactado en " + t / 1e6 + " ms (" + compactado + "), registro de " + new File(registro).length() + " bytes");
+		// Una copia de texto tiene las sentencias agrupadas por sujeto, as que al cargarla las entidades pueden
+		// numerarse en otro orden: se comparan las sentencias ordenadas
+		Almacen compactada = Almacen.recuperar(copia, registro);
+		System.out.println("  Recuperado tras compactar: " + iguales(incompleto.recorrerSentenciasOrdenadas(), compactada.recorrerSentenciasOrdenadas()));
+		compactada.cerrarRegistro();
+		new File(copia).delete();
+		new File(registro).delete();
+	}
+
+	// Comprueba si dos recorridos devuelven los mismos elementos en el mismo orden
+	private static boolean iguales(Iterator<String> a, Iterator<String> b) {
+		while( a.hasNext() && b.hasNext() )
+			if( !a.next().equals(b.next()) )
+				return false;
+		return !a.hasNext() && !b.hasNext();
+	}
+
+}
@@ -0,0 +1,50 @@
+package test;
+
+import estructurasDeDatos.TablaDispersion;
+
+/**
+ * Casos de prueba para la estructura de tabla de dispersin
+ */
+public class pruebaTablaDispersion {
+
+	public static void main(String[] args) {
+		TablaDispersion tabla = new TablaDispersion(4);
+		
+		// Insertar elementos
+		System.out.println("Insertando ternas en la tabla: (0,1,2)->7, (2,1,0)->8, (5,5,5)->9");
+		tabla.insertar(0, 1, 2, 7);
+		tabla.insertar(2, 1, 0, 8);
+		tabla.insertar(5, 5, 5, 9);
+		System.out.println("Tamao de la tabla: " + tabla.size());
+		System.out.println();
+		
+		// Obtener sus valores
+		System.out.println("Valor de la terna (0,1,2): " + tabla.obtener(0, 1, 2));
+		System.out.println("Valor de la terna (2,1,0): " + tabla.obtener(2, 1, 0));
+		System.out.println("Valor de la terna (1,1,1): " + tabla.obtener(1, 1, 1));
+		System.out.println();
+		
+		// Reemplazar un valor
+		System.out.println("Se reemplaza el valor de la terna (5,5,5) por 10.");
+		tabla.insertar(5, 5, 5, 10);
+		System.out.println("Valor de la terna (5,5,5): " + tabla.obtener(5, 5, 5));
+		System.out.println("Tamao de la tabla: " + tabla.size());
+		System.out.println();
+		
+		// Forzar varias redimensiones
+		System.out.println("Insertando 1000 ternas (i,i+1,i+2)->i...");
+		for( int i = 0; i < 1000; ++i )
+			tabla.insertar(i, i+1, i+2, i);
+		System.out.println("Tamao de la tabla: " + tabla.size());
+		System.out.println("Valor de la terna (500,501,502): " + tabla.obtener(500, 501, 502));
+		System.out.println("Valor de la terna (0,1,2): " + tabla.obtener(0, 1, 2));
+		System.out.println();
+		
+		// Eliminar todos los elementos
+		System.out.println("Se eliminan todos los elementos.");
+		tabla.removeAll();
+		System.out.println("Tamao de la tabla: " + tabla.size());
+		System.out.println("Valor de la terna (500,501,502): " + tabla.obtener(500, 501, 502));
+	}
+
+}
@@ -1,7 +1,7 @@
 package test;
 
 import estructurasDeDatos.Trie;
-import estructurasDeDatos.ListaArray;
+import estructurasDeDatos.ListaEnteros;
 
 /**
  * Casos de prueba para la estructura de trie
@@ -28,7 +28,7 @@ public class pruebaTrie {
 		System.out.println();
 		
 		// Recorrer el rbol en profundidad
-		ListaArray<Integer> listaOrdenada = prueba.recorrerEnProfundidad();
+		ListaEnteros listaOrdenada = prueba.recorrerEnProfundidad();
 		System.out.print("Valores del trie por orden alfabtico de sus strings: ");
 		for( int i = 0; i < listaOrdenada.size(); ++i )
 			System.out.print( listaOrdenada.get(i) + " " );
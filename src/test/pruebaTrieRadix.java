@@ -0,0 +1,42 @@
+package test;
+
+import estructurasDeDatos.TrieRadix;
+import estructurasDeDatos.ListaEnteros;
+
+/**
+ * Casos de prueba para la estructura de trie comprimido
+ */
+public class pruebaTrieRadix {
+
+	public static void main(String[] args) {
+		TrieRadix prueba = new TrieRadix();
+		
+		// Insertar elementos (algunos obligan a dividir ramas ya existentes)
+		System.out.println("Insertando valores en el trie...");
+		prueba.insertar("galletas",0);
+		prueba.insertar("hola",1);
+		prueba.insertar("galleta",2);
+		prueba.insertar("holi",3);
+		prueba.insertar("gallo",4);
+		prueba.insertar("paco",5);
+		System.out.println("Reinsertando hola con otro valor devuelve: " + prueba.insertar("hola",6));
+		System.out.println("Nmero de elementos: " + prueba.size());
+		System.out.println();
+		
+		// Obtener sus valores
+		System.out.println("Valor del string galleta: " + prueba.obtenerValor("galleta"));
+		System.out.println("Valor del string gallo: " + prueba.obtenerValor("gallo"));
+		System.out.println("Valor del string holi: " + prueba.obtenerValor("holi"));
+		System.out.println("Valor del string gall: " + prueba.obtenerValor("gall"));
+		System.out.println("Valor del string miguel: " + prueba.obtenerValor("miguel"));
+		System.out.println();
+		
+		// Recorrer el rbol en profundidad
+		ListaEnteros listaOrdenada = prueba.recorrerEnProfundidad();
+		System.out.print("Valores del trie por orden alfabtico de sus strings: ");
+		for( int i = 0; i < listaOrdenada.size(); ++i )
+			System.out.print( listaOrdenada.get(i) + " " );
+		System.out.println();
+	}
+
+}